@@ -0,0 +1,18 @@
+-- Tabla de la que Ticket y DetalleTicket obtienen sus ids por bloques (@TableGenerator),
+-- para que Hibernate pueda insertarlos por lotes en lugar de uno a uno con AUTO_INCREMENT.
+-- Cada fila guarda el último id del bloque reservado. Se inicializa por encima del id
+-- máximo actual más el tamaño de bloque (allocationSize) de la entidad.
+USE h_juegos;
+
+CREATE TABLE IF NOT EXISTS generador_id (
+    entidad VARCHAR(50) NOT NULL PRIMARY KEY,
+    siguiente BIGINT NOT NULL
+);
+
+INSERT INTO generador_id (entidad, siguiente)
+SELECT 'ticket', COALESCE(MAX(id), 0) + 50 FROM ticket
+ON DUPLICATE KEY UPDATE siguiente = siguiente;
+
+INSERT INTO generador_id (entidad, siguiente)
+SELECT 'ticket_videojuego', COALESCE(MAX(id), 0) + 200 FROM ticket_videojuego
+ON DUPLICATE KEY UPDATE siguiente = siguiente;
@@ -0,0 +1,16 @@
+-- Videojuego, Desarrollador y Puntuacion también obtienen sus ids de generador_id,
+-- para que la importación masiva pueda insertarlos por lotes con una sesión sin estado.
+-- Requiere 001_generador_id.sql.
+USE h_juegos;
+
+INSERT INTO generador_id (entidad, siguiente)
+SELECT 'videojuego', COALESCE(MAX(id), 0) + 100 FROM videojuego
+ON DUPLICATE KEY UPDATE siguiente = siguiente;
+
+INSERT INTO generador_id (entidad, siguiente)
+SELECT 'desarrollador', COALESCE(MAX(id), 0) + 100 FROM desarrollador
+ON DUPLICATE KEY UPDATE siguiente = siguiente;
+
+INSERT INTO generador_id (entidad, siguiente)
+SELECT 'puntuacion', COALESCE(MAX(id), 0) + 200 FROM puntuacion
+ON DUPLICATE KEY UPDATE siguiente = siguiente;
@@ -0,0 +1,13 @@
+-- Contador de los códigos de ticket que reserva GeneradorCodigosTicket por bloques.
+-- Los códigos nuevos (prefijo y número con ceros, por ejemplo T000000001) son más largos que los
+-- antiguos (A001 a Z999), así que no pueden coincidir con ellos. El índice único garantiza que
+-- no se repita ningún código; si ya hay códigos repetidos, hay que corregirlos antes.
+-- Requiere 001_generador_id.sql.
+USE h_juegos;
+
+INSERT INTO generador_id (entidad, siguiente)
+VALUES ('codigo_ticket', 1)
+ON DUPLICATE KEY UPDATE siguiente = siguiente;
+
+ALTER TABLE ticket MODIFY codigo_ticket VARCHAR(32);
+ALTER TABLE ticket ADD UNIQUE INDEX ux_ticket_codigo (codigo_ticket);
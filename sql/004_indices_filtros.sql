@@ -0,0 +1,22 @@
+-- Índices para los filtros y la ordenación de las tablas de videojuegos y compras.
+-- Las consultas por bloques ordenan por la columna elegida y después por id; en InnoDB cada índice
+-- secundario incluye ya la clave primaria, así que un índice sobre la columna basta para recorrerlo
+-- en orden sin ordenar en memoria. Los filtros de texto buscan por prefijo (LIKE 'texto%'), que
+-- también aprovecha estos índices.
+USE h_juegos;
+
+ALTER TABLE videojuego
+    ADD INDEX ix_videojuego_titulo (titulo),
+    ADD INDEX ix_videojuego_genero (genero),
+    ADD INDEX ix_videojuego_plataforma (plataforma),
+    ADD INDEX ix_videojuego_precio (precio),
+    ADD INDEX ix_videojuego_fecha_lanzamiento (fecha_lanzamiento);
+
+ALTER TABLE ticket
+    ADD INDEX ix_ticket_fecha_ticket (fecha_ticket),
+    ADD INDEX ix_ticket_forma_pago (forma_pago),
+    ADD INDEX ix_ticket_total (total);
+
+ALTER TABLE usuario
+    ADD INDEX ix_usuario_dni (dni),
+    ADD INDEX ix_usuario_apellidos (apellidos);
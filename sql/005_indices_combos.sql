@@ -0,0 +1,9 @@
+-- Índices para los combo boxes de búsqueda, que piden las opciones por prefijo (LIKE 'texto%')
+-- ordenadas por su texto y con un número máximo de resultados. Los de videojuego.titulo,
+-- usuario.apellidos y usuario.dni se crean en 004_indices_filtros.sql.
+-- Requiere 004_indices_filtros.sql.
+USE h_juegos;
+
+ALTER TABLE desarrollador
+    ADD INDEX ix_desarrollador_nombre (nombre),
+    ADD INDEX ix_desarrollador_email (email);
@@ -0,0 +1,8 @@
+-- Índice para los informes de ventas, que agrupan las líneas de ticket por videojuego, por fecha
+-- o por usuario. Con las columnas que se suman dentro del índice, las líneas de cada ticket se leen
+-- sin acceder a la tabla. El índice de ticket.fecha_ticket se crea en 004_indices_filtros.sql.
+-- Requiere 004_indices_filtros.sql.
+USE h_juegos;
+
+ALTER TABLE ticket_videojuego
+    ADD INDEX ix_ticket_videojuego_informe (id_ticket, id_videojuego, cantidad, total);
@@ -0,0 +1,55 @@
+-- Tablas de resumen de ventas por día, por videojuego y por usuario, que la aplicación actualiza
+-- en la misma transacción que guarda, modifica o borra cada ticket. Los ingresos son la suma de los
+-- totales de las líneas de ticket. No tienen claves ajenas: una fila de un videojuego o usuario
+-- borrado se queda a cero y los informes la descartan.
+-- Cada día del resumen diario se reparte en 16 filas (ranura = id del ticket módulo 16), para que
+-- las ventas simultáneas no esperen por el bloqueo de la misma fila; los informes suman las ranuras.
+-- Este script las rellena con las ventas existentes; el menú Archivo > Reconstruir resúmenes de
+-- ventas las vuelve a calcular de la misma forma.
+USE h_juegos;
+
+CREATE TABLE IF NOT EXISTS resumen_ventas_dia (
+    fecha DATE NOT NULL,
+    ranura TINYINT NOT NULL DEFAULT 0,
+    unidades BIGINT NOT NULL DEFAULT 0,
+    ingresos DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    tickets BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (fecha, ranura)
+);
+
+CREATE TABLE IF NOT EXISTS resumen_ventas_videojuego (
+    id_videojuego INT NOT NULL PRIMARY KEY,
+    unidades BIGINT NOT NULL DEFAULT 0,
+    ingresos DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    tickets BIGINT NOT NULL DEFAULT 0,
+    INDEX ix_resumen_ventas_videojuego_ingresos (ingresos)
+);
+
+CREATE TABLE IF NOT EXISTS resumen_ventas_usuario (
+    id_usuario INT NOT NULL PRIMARY KEY,
+    unidades BIGINT NOT NULL DEFAULT 0,
+    ingresos DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    tickets BIGINT NOT NULL DEFAULT 0,
+    INDEX ix_resumen_ventas_usuario_ingresos (ingresos)
+);
+
+DELETE FROM resumen_ventas_dia;
+INSERT INTO resumen_ventas_dia (fecha, ranura, unidades, ingresos, tickets)
+SELECT t.fecha_ticket, MOD(t.id, 16), SUM(d.cantidad), SUM(d.total), COUNT(DISTINCT t.id)
+FROM ticket t JOIN ticket_videojuego d ON d.id_ticket = t.id
+WHERE t.fecha_ticket IS NOT NULL
+GROUP BY t.fecha_ticket, MOD(t.id, 16);
+
+DELETE FROM resumen_ventas_videojuego;
+INSERT INTO resumen_ventas_videojuego (id_videojuego, unidades, ingresos, tickets)
+SELECT d.id_videojuego, SUM(d.cantidad), SUM(d.total), COUNT(DISTINCT t.id)
+FROM ticket t JOIN ticket_videojuego d ON d.id_ticket = t.id
+WHERE d.id_videojuego IS NOT NULL
+GROUP BY d.id_videojuego;
+
+DELETE FROM resumen_ventas_usuario;
+INSERT INTO resumen_ventas_usuario (id_usuario, unidades, ingresos, tickets)
+SELECT t.id_usuario, SUM(d.cantidad), SUM(d.total), COUNT(DISTINCT t.id)
+FROM ticket t JOIN ticket_videojuego d ON d.id_ticket = t.id
+WHERE t.id_usuario IS NOT NULL
+GROUP BY t.id_usuario;
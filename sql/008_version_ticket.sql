@@ -0,0 +1,6 @@
+-- Versión de cada ticket para el bloqueo optimista: al modificar un ticket se comprueba que la
+-- versión no ha cambiado desde que se leyó, y se incrementa. Si otro usuario lo ha modificado
+-- entretanto, la modificación no se guarda.
+USE h_juegos;
+
+ALTER TABLE ticket ADD COLUMN version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Versión de videojuegos, desarrolladores, puntuaciones y usuarios para el bloqueo optimista, igual que
+-- la de los tickets de 008_version_ticket.sql: cada UPDATE o DELETE comprueba que la versión no ha
+-- cambiado desde que se leyó la fila y la incrementa, sin bloquearla.
+-- Requiere 008_version_ticket.sql.
+USE h_juegos;
+
+ALTER TABLE videojuego ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE desarrollador ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE puntuacion ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE usuario ADD COLUMN version INT NOT NULL DEFAULT 0;
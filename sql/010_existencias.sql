@@ -0,0 +1,16 @@
+-- Existencias de cada videojuego (un título en una plataforma). Las ventas las descuentan con un UPDATE
+-- condicional que no deja el stock en negativo, y borrar o reducir un ticket devuelve lo descontado.
+-- Un videojuego sin fila no tiene control de existencias y se vende sin límite, así que tras ejecutar
+-- este script todo sigue vendiéndose como antes; el control de cada videojuego empieza al reponerlo.
+-- Cada línea de ticket guarda las unidades que se descontaron por ella: las líneas existentes quedan
+-- a 0, de modo que borrar o reducir tickets anteriores no suma al stock unidades que nunca se restaron.
+USE h_juegos;
+
+CREATE TABLE existencia (
+    id_videojuego INT NOT NULL PRIMARY KEY,
+    stock INT NOT NULL DEFAULT 0,
+    CONSTRAINT ck_existencia_stock CHECK (stock >= 0),
+    CONSTRAINT fk_existencia_videojuego FOREIGN KEY (id_videojuego) REFERENCES videojuego (id) ON DELETE CASCADE
+);
+
+ALTER TABLE ticket_videojuego ADD COLUMN unidades_descontadas INT NOT NULL DEFAULT 0;
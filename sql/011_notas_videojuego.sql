@@ -0,0 +1,18 @@
+-- Número de puntuaciones, suma de sus notas y nota media de cada videojuego, que la aplicación
+-- actualiza en la misma transacción que cada puntuación, rellenas con las puntuaciones existentes.
+-- Los videojuegos sin puntuaciones tienen nota media 0. El índice sirve para ordenar por nota.
+USE h_juegos;
+
+ALTER TABLE videojuego
+    ADD COLUMN num_puntuaciones INT NOT NULL DEFAULT 0,
+    ADD COLUMN suma_puntuaciones DOUBLE NOT NULL DEFAULT 0,
+    ADD COLUMN nota_media DOUBLE NOT NULL DEFAULT 0,
+    ADD INDEX ix_videojuego_nota_media (nota_media);
+
+UPDATE videojuego v
+    JOIN (SELECT id_videojuego, COUNT(*) AS numero, SUM(nota_videojuego) AS suma
+          FROM puntuacion WHERE id_videojuego IS NOT NULL GROUP BY id_videojuego) p
+    ON p.id_videojuego = v.id
+SET v.num_puntuaciones = p.numero,
+    v.suma_puntuaciones = p.suma,
+    v.nota_media = p.suma / p.numero;
@@ -0,0 +1,18 @@
+-- Fecha de la última compra de cada usuario, que la aplicación actualiza en la misma transacción que
+-- cada ticket, rellena con los tickets existentes. El número de tickets y el gasto de cada usuario se
+-- leen de resumen_ventas_usuario (007_resumenes_ventas.sql), que ya se mantiene con cada ticket.
+-- El índice por usuario y fecha sirve para listar los tickets de un usuario por páginas, del más
+-- reciente al más antiguo, y para recalcular su última compra al borrar o modificar un ticket.
+-- Requiere 007_resumenes_ventas.sql.
+USE h_juegos;
+
+ALTER TABLE usuario ADD COLUMN ultima_compra DATE NULL;
+
+ALTER TABLE ticket
+    ADD INDEX ix_ticket_usuario_fecha (id_usuario, fecha_ticket);
+
+UPDATE usuario u
+    JOIN (SELECT id_usuario, MAX(fecha_ticket) AS ultima
+          FROM ticket WHERE id_usuario IS NOT NULL GROUP BY id_usuario) t
+    ON t.id_usuario = u.id
+SET u.ultima_compra = t.ultima;
@@ -1,13 +1,25 @@
 package com.felipe.tiendavideojuegos.base;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
+
 import javax.persistence.*;
 import java.util.List;
 import java.util.Objects;
 
 @Entity
 @Table(name = "desarrollador")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "desarrollador")
+@NamedQuery(name = "Desarrollador.inicializarJuegos",
+        query = "SELECT DISTINCT d FROM Desarrollador d LEFT JOIN FETCH d.juegos WHERE d IN (:pagina)",
+        hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                @QueryHint(name = QueryHints.CACHE_REGION, value = "consultas.catalogo")})
 public class Desarrollador {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TableGenerator(name = "generadorDesarrollador", table = "generador_id", pkColumnName = "entidad",
+            valueColumnName = "siguiente", pkColumnValue = "desarrollador", allocationSize = 100)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "generadorDesarrollador")
     @Id
     @Column(name = "id")
     private int id;
@@ -24,7 +36,11 @@ public class Desarrollador {
     @Column(name = "tipo")
     private String tipo;
     @ManyToMany(mappedBy = "desarrolladores")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "desarrollador.juegos")
     private List<Videojuego> juegos;
+    @Version
+    @Column(name = "version")
+    private int version;
 
     public int getId() {
         return id;
@@ -66,6 +82,14 @@ public class Desarrollador {
         this.tipo = tipo;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -6,7 +6,9 @@ import java.util.Objects;
 @Entity
 @Table(name = "ticket_videojuego", schema = "h_juegos", catalog = "")
 public class DetalleTicket {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TableGenerator(name = "generadorDetalleTicket", table = "generador_id", pkColumnName = "entidad",
+            valueColumnName = "siguiente", pkColumnValue = "ticket_videojuego", allocationSize = 200)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "generadorDetalleTicket")
     @Id
     @Column(name = "id")
     private int id;
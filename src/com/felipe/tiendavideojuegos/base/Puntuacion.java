@@ -1,13 +1,20 @@
 package com.felipe.tiendavideojuegos.base;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.sql.Date;
 import java.util.Objects;
 
 @Entity
 @Table(name = "puntuacion")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "puntuacion")
 public class Puntuacion {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TableGenerator(name = "generadorPuntuacion", table = "generador_id", pkColumnName = "entidad",
+            valueColumnName = "siguiente", pkColumnValue = "puntuacion", allocationSize = 200)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "generadorPuntuacion")
     @Id
     @Column(name = "id")
     private int id;
@@ -23,6 +30,9 @@ public class Puntuacion {
     @ManyToOne
     @JoinColumn(name = "id_videojuego", referencedColumnName = "id")
     private Videojuego juego;
+    @Version
+    @Column(name = "version")
+    private int version;
 
     public int getId() {
         return id;
@@ -56,6 +66,14 @@ public class Puntuacion {
         this.fechaNota = fechaNota;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
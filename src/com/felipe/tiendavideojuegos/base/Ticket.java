@@ -7,8 +7,15 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "ticket")
+@NamedQuery(name = "Ticket.inicializarDetalles",
+        query = "SELECT DISTINCT t FROM Ticket t LEFT JOIN FETCH t.detallesTicket d LEFT JOIN FETCH d.juego " +
+                "WHERE t IN (:pagina)")
+@NamedQuery(name = "Ticket.porIdConDetalles",
+        query = "SELECT t FROM Ticket t LEFT JOIN FETCH t.detallesTicket d LEFT JOIN FETCH d.juego WHERE t.id = :id")
 public class Ticket {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TableGenerator(name = "generadorTicket", table = "generador_id", pkColumnName = "entidad",
+            valueColumnName = "siguiente", pkColumnValue = "ticket", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "generadorTicket")
     @Id
     @Column(name = "id")
     private int id;
@@ -29,6 +36,9 @@ public class Ticket {
     private Usuario usuario;
     @OneToMany(mappedBy = "ticket")
     private List<DetalleTicket> detallesTicket;
+    @Version
+    @Column(name = "version")
+    private int version;
 
     public int getId() {
         return id;
@@ -99,6 +109,14 @@ public class Ticket {
         this.detallesTicket = detallesTicket;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Ticket " + codigoTicket + ": FormaPago= " + formaPago + ", Fecha= " + fechaTicket + ", Total= " + total;
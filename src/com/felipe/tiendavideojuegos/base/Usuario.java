@@ -1,6 +1,9 @@
 package com.felipe.tiendavideojuegos.base;
 
+import org.hibernate.annotations.Formula;
+
 import javax.persistence.*;
+import java.sql.Date;
 import java.util.List;
 import java.util.Objects;
 
@@ -29,8 +32,18 @@ public class Usuario {
     @Basic
     @Column(name = "telefono")
     private String telefono;
+    @Formula("COALESCE((SELECT r.tickets FROM resumen_ventas_usuario r WHERE r.id_usuario = id), 0)")
+    private int numTickets;
+    @Formula("COALESCE((SELECT r.ingresos FROM resumen_ventas_usuario r WHERE r.id_usuario = id), 0)")
+    private double gastoTotal;
+    @Basic
+    @Column(name = "ultima_compra", insertable = false, updatable = false)
+    private Date ultimaCompra;
     @OneToMany(mappedBy = "usuario")
     private List<Ticket> tickets;
+    @Version
+    @Column(name = "version")
+    private int version;
 
     public int getId() {
         return id;
@@ -88,6 +101,38 @@ public class Usuario {
         this.telefono = telefono;
     }
 
+    public int getNumTickets() {
+        return numTickets;
+    }
+
+    public void setNumTickets(int numTickets) {
+        this.numTickets = numTickets;
+    }
+
+    public double getGastoTotal() {
+        return gastoTotal;
+    }
+
+    public void setGastoTotal(double gastoTotal) {
+        this.gastoTotal = gastoTotal;
+    }
+
+    public Date getUltimaCompra() {
+        return ultimaCompra;
+    }
+
+    public void setUltimaCompra(Date ultimaCompra) {
+        this.ultimaCompra = ultimaCompra;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
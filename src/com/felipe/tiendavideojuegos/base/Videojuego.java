@@ -1,5 +1,9 @@
 package com.felipe.tiendavideojuegos.base;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
+
 import javax.persistence.*;
 import java.sql.Date;
 import java.util.List;
@@ -7,8 +11,16 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "videojuego")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "videojuego")
+@NamedQuery(name = "Videojuego.inicializarDesarrolladores",
+        query = "SELECT DISTINCT v FROM Videojuego v LEFT JOIN FETCH v.desarrolladores WHERE v IN (:pagina)",
+        hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                @QueryHint(name = QueryHints.CACHE_REGION, value = "consultas.catalogo")})
 public class Videojuego {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TableGenerator(name = "generadorVideojuego", table = "generador_id", pkColumnName = "entidad",
+            valueColumnName = "siguiente", pkColumnValue = "videojuego", allocationSize = 100)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "generadorVideojuego")
     @Id
     @Column(name = "id")
     private int id;
@@ -27,13 +39,26 @@ public class Videojuego {
     @Basic
     @Column(name = "fecha_lanzamiento")
     private Date fechaLanzamiento;
+    @Basic
+    @Column(name = "num_puntuaciones", insertable = false, updatable = false)
+    private int numPuntuaciones;
+    @Basic
+    @Column(name = "suma_puntuaciones", insertable = false, updatable = false)
+    private double sumaPuntuaciones;
+    @Basic
+    @Column(name = "nota_media", insertable = false, updatable = false)
+    private double notaMedia;
     @OneToMany(mappedBy = "juego")
     private List<Puntuacion> puntuaciones;
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "videojuego.desarrolladores")
     @JoinTable(name = "desarrollador_videojuego", catalog = "", schema = "h_juegos", joinColumns = @JoinColumn(name = "id_videojuego", referencedColumnName = "id"), inverseJoinColumns = @JoinColumn(name = "id_desarrollador", referencedColumnName = "id"))
     private List<Desarrollador> desarrolladores;
     @OneToMany(mappedBy = "juego")
     private List<DetalleTicket> detallesticket;
+    @Version
+    @Column(name = "version")
+    private int version;
 
     public int getId() {
         return id;
@@ -83,6 +108,38 @@ public class Videojuego {
         this.fechaLanzamiento = fechaLanzamiento;
     }
 
+    public int getNumPuntuaciones() {
+        return numPuntuaciones;
+    }
+
+    public void setNumPuntuaciones(int numPuntuaciones) {
+        this.numPuntuaciones = numPuntuaciones;
+    }
+
+    public double getSumaPuntuaciones() {
+        return sumaPuntuaciones;
+    }
+
+    public void setSumaPuntuaciones(double sumaPuntuaciones) {
+        this.sumaPuntuaciones = sumaPuntuaciones;
+    }
+
+    public double getNotaMedia() {
+        return notaMedia;
+    }
+
+    public void setNotaMedia(double notaMedia) {
+        this.notaMedia = notaMedia;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
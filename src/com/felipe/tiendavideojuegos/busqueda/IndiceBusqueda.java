@@ -0,0 +1,306 @@
+package com.felipe.tiendavideojuegos.busqueda;
+
+import com.felipe.tiendavideojuegos.base.Desarrollador;
+import com.felipe.tiendavideojuegos.base.Usuario;
+import com.felipe.tiendavideojuegos.base.Videojuego;
+import com.felipe.tiendavideojuegos.gui.CambioEntidad;
+import com.felipe.tiendavideojuegos.gui.Modelo;
+import com.felipe.tiendavideojuegos.gui.ObservadorCambios;
+import com.felipe.tiendavideojuegos.gui.enums.TipoCambio;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Clase IndiceBusqueda es un índice invertido en memoria para buscar por prefijo videojuegos
+ * (por título), desarrolladores (por nombre y email) y usuarios (por nombre, apellidos, DNI, email y teléfono).
+ * Cada campo se divide en términos normalizados (en minúsculas y sin tildes), que se guardan ordenados;
+ * buscar un prefijo es recorrer el tramo de términos que empiezan por él, sin consultar la base de datos.
+ * Además de las palabras, cada campo se indexa entero sin espacios, para encontrar emails,
+ * teléfonos o DNI escritos de corrido.
+ * El índice se carga de la base de datos con {@link #cargar(Modelo)} y se mantiene al día como
+ * observador del {@link Modelo}. Las búsquedas no bloquean y pueden hacerse desde cualquier hilo.
+ */
+public class IndiceBusqueda implements ObservadorCambios {
+
+    private final static Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private final static Pattern ESPACIOS = Pattern.compile("\\s+");
+    private final static Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    // Campos indexados de cada entidad, en el orden en que los devuelve valores(Object)
+    private final static String[] CAMPOS_VIDEOJUEGO = {"titulo"};
+    private final static String[] CAMPOS_DESARROLLADOR = {"nombre", "email"};
+    private final static String[] CAMPOS_USUARIO = {"nombre", "apellidos", "dni", "email", "telefono"};
+
+    // Orden en que se muestran los resultados de cada clase
+    private final static List<Class<?>> ORDEN_CLASES =
+            Arrays.asList(Videojuego.class, Desarrollador.class, Usuario.class);
+
+    private final static Comparator<ResultadoBusqueda> ORDEN_RESULTADOS =
+            Comparator.<ResultadoBusqueda>comparingInt(r -> ORDEN_CLASES.indexOf(r.getClase()))
+                    .thenComparing(ResultadoBusqueda::getDescripcion, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparingInt(ResultadoBusqueda::getId);
+
+    // Se sustituye entero al terminar una carga; las escrituras se hacen con el monitor del índice
+    private volatile Contenido contenido = new Contenido();
+
+    // Documentos escritos por los observadores mientras hay una carga en curso, o null si no la hay
+    private Set<String> escritosDuranteCarga;
+
+    /**
+     * Carga el índice con todos los videojuegos, desarrolladores y usuarios de la base de datos.
+     * Solo se leen los campos indexados, sin cargar las entidades. Las escrituras que se notifiquen
+     * mientras dura la carga prevalecen sobre lo leído, así que no se pierde ningún cambio.
+     * No debe llamarse desde el EDT.
+     * @param modelo El modelo del que se leen los campos.
+     * @return El número de entidades indexadas.
+     */
+    public int cargar(Modelo modelo) {
+        synchronized (this) {
+            escritosDuranteCarga = new HashSet<>();
+        }
+        Contenido nuevo = new Contenido();
+        try {
+            modelo.recorrerCampos(Videojuego.class, CAMPOS_VIDEOJUEGO,
+                    fila -> nuevo.indexar(documento(Videojuego.class, fila)));
+            modelo.recorrerCampos(Desarrollador.class, CAMPOS_DESARROLLADOR,
+                    fila -> nuevo.indexar(documento(Desarrollador.class, fila)));
+            modelo.recorrerCampos(Usuario.class, CAMPOS_USUARIO,
+                    fila -> nuevo.indexar(documento(Usuario.class, fila)));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                escritosDuranteCarga = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            for (String clave : escritosDuranteCarga) {
+                nuevo.quitar(clave);
+                Documento actual = contenido.documentos.get(clave);
+                if (actual != null) {
+                    nuevo.indexar(actual);
+                }
+            }
+            escritosDuranteCarga = null;
+            contenido = nuevo;
+            return nuevo.documentos.size();
+        }
+    }
+
+    /**
+     * Busca las entidades que tienen, para cada palabra de la consulta, algún término que empieza por ella.
+     * Por ejemplo, "zel bre" encuentra "The Legend of Zelda: Breath of the Wild".
+     * @param consulta El texto buscado; se ignoran mayúsculas y tildes.
+     * @param maximo El número máximo de resultados.
+     * @return Los resultados ordenados por clase y descripción, o una lista vacía si la consulta está vacía.
+     */
+    public List<ResultadoBusqueda> buscar(String consulta, int maximo) {
+        List<String> prefijos = new ArrayList<>();
+        for (String palabra : ESPACIOS.split(normalizar(consulta))) {
+            if (!palabra.isEmpty()) {
+                prefijos.add(palabra);
+            }
+        }
+        if (prefijos.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        //Los candidatos salen del prefijo más largo, que es el que menos términos abarca
+        String masLargo = Collections.max(prefijos, Comparator.comparingInt(String::length));
+        Contenido actual = contenido;
+        Set<String> candidatos = new LinkedHashSet<>();
+        for (Set<String> claves : actual.terminos.subMap(masLargo, masLargo + Character.MAX_VALUE).values()) {
+            candidatos.addAll(claves);
+        }
+
+        List<ResultadoBusqueda> resultados = new ArrayList<>();
+        for (String clave : candidatos) {
+            Documento documento = actual.documentos.get(clave);
+            if (documento != null && documento.contieneTodos(prefijos)) {
+                resultados.add(documento.resultado);
+            }
+        }
+        resultados.sort(ORDEN_RESULTADOS);
+        return resultados.size() > maximo ? new ArrayList<>(resultados.subList(0, maximo)) : resultados;
+    }
+
+    /**
+     * Actualiza el índice con una escritura confirmada del modelo. Los cambios de entidades
+     * que no se indexan se ignoran.
+     * @param cambio El cambio realizado.
+     */
+    @Override
+    public synchronized void cambioRealizado(CambioEntidad cambio) {
+        for (Class<?> clase : ORDEN_CLASES) {
+            if (cambio.es(clase)) {
+                aplicar(cambio.getTipo(), documento(clase, valores(cambio.getEntidad())));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Aplica una escritura al índice vigente y la anota si hay una carga en curso.
+     * @param tipo El tipo de escritura.
+     * @param documento El documento de la entidad escrita.
+     */
+    private void aplicar(TipoCambio tipo, Documento documento) {
+        contenido.quitar(documento.clave);
+        if (tipo != TipoCambio.ELIMINAR) {
+            contenido.indexar(documento);
+        }
+        if (escritosDuranteCarga != null) {
+            escritosDuranteCarga.add(documento.clave);
+        }
+    }
+
+    /**
+     * Obtiene el id y los campos indexados de una entidad, en el mismo orden que las filas de
+     * {@link Modelo#recorrerCampos(Class, String[], java.util.function.Consumer)}.
+     * @param entidad La entidad.
+     * @return El id seguido de los campos.
+     */
+    private static Object[] valores(Object entidad) {
+        if (entidad instanceof Videojuego) {
+            Videojuego juego = (Videojuego) entidad;
+            return new Object[]{juego.getId(), juego.getTitulo()};
+        } else if (entidad instanceof Desarrollador) {
+            Desarrollador dev = (Desarrollador) entidad;
+            return new Object[]{dev.getId(), dev.getNombre(), dev.getEmail()};
+        } else if (entidad instanceof Usuario) {
+            Usuario user = (Usuario) entidad;
+            return new Object[]{user.getId(), user.getNombre(), user.getApellidos(), user.getDni(),
+                    user.getEmail(), user.getTelefono()};
+        }
+        throw new IllegalArgumentException("Entidad no indexada: " + entidad.getClass().getName());
+    }
+
+    /**
+     * Crea el documento de una entidad a partir de su id y sus campos indexados.
+     * @param clase La clase de la entidad.
+     * @param fila El id seguido de los campos indexados.
+     * @return El documento con su resultado y sus términos.
+     */
+    private static Documento documento(Class<?> clase, Object[] fila) {
+        int id = ((Number) fila[0]).intValue();
+        String descripcion;
+        if (clase == Desarrollador.class) {
+            descripcion = fila[1] + " <" + fila[2] + ">";
+        } else if (clase == Usuario.class) {
+            descripcion = fila[1] + " " + fila[2] + " (" + fila[3] + ")";
+        } else {
+            descripcion = String.valueOf(fila[1]);
+        }
+
+        Set<String> terminos = new HashSet<>();
+        for (int i = 1; i < fila.length; i++) {
+            if (fila[i] == null) {
+                continue;
+            }
+            String campo = normalizar(fila[i].toString());
+            for (String palabra : SEPARADORES.split(campo)) {
+                if (!palabra.isEmpty()) {
+                    terminos.add(palabra);
+                }
+            }
+            String deCorrido = ESPACIOS.matcher(campo).replaceAll("");
+            if (!deCorrido.isEmpty()) {
+                terminos.add(deCorrido);
+            }
+        }
+        return new Documento(new ResultadoBusqueda(clase, id, descripcion), terminos);
+    }
+
+    /**
+     * Pasa un texto a minúsculas y le quita las tildes y demás marcas diacríticas.
+     * @param texto El texto original.
+     * @return El texto normalizado.
+     */
+    private static String normalizar(String texto) {
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinMarcas.toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Entidad indexada: su resultado y los términos con los que se encuentra.
+     */
+    private static class Documento {
+
+        private final String clave;
+        private final ResultadoBusqueda resultado;
+        private final Set<String> terminos;
+
+        private Documento(ResultadoBusqueda resultado, Set<String> terminos) {
+            this.clave = resultado.getClase().getSimpleName() + ":" + resultado.getId();
+            this.resultado = resultado;
+            this.terminos = terminos;
+        }
+
+        /**
+         * Comprueba si cada prefijo es el comienzo de alguno de los términos del documento.
+         * @param prefijos Los prefijos buscados.
+         * @return true si están todos.
+         */
+        private boolean contieneTodos(List<String> prefijos) {
+            for (String prefijo : prefijos) {
+                boolean encontrado = false;
+                for (String termino : terminos) {
+                    if (termino.startsWith(prefijo)) {
+                        encontrado = true;
+                        break;
+                    }
+                }
+                if (!encontrado) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Documentos del índice y, para cada término, las claves de los documentos que lo contienen.
+     * Se lee sin bloqueos; solo lo modifica un hilo a la vez.
+     */
+    private static class Contenido {
+
+        private final Map<String, Documento> documentos = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, Set<String>> terminos = new ConcurrentSkipListMap<>();
+
+        private void indexar(Documento documento) {
+            documentos.put(documento.clave, documento);
+            for (String termino : documento.terminos) {
+                terminos.computeIfAbsent(termino, t -> ConcurrentHashMap.newKeySet()).add(documento.clave);
+            }
+        }
+
+        private void quitar(String clave) {
+            Documento documento = documentos.remove(clave);
+            if (documento == null) {
+                return;
+            }
+            for (String termino : documento.terminos) {
+                Set<String> claves = terminos.get(termino);
+                if (claves != null) {
+                    claves.remove(documento.clave);
+                    if (claves.isEmpty()) {
+                        terminos.remove(termino, claves);
+                    }
+                }
+            }
+        }
+    }
+}
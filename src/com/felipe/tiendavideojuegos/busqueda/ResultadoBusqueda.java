@@ -0,0 +1,57 @@
+package com.felipe.tiendavideojuegos.busqueda;
+
+import java.util.Objects;
+
+/**
+ * Clase ResultadoBusqueda identifica una entidad encontrada en el {@link IndiceBusqueda}:
+ * su clase, su id y el texto con el que se muestra en la lista de resultados.
+ * Dos resultados son iguales si son de la misma clase y tienen el mismo id.
+ */
+public class ResultadoBusqueda {
+
+    private final Class<?> clase;
+    private final int id;
+    private final String descripcion;
+
+    /**
+     * Constructor de la clase ResultadoBusqueda.
+     * @param clase La clase de la entidad encontrada.
+     * @param id El id de la entidad.
+     * @param descripcion El texto que se muestra para la entidad.
+     */
+    public ResultadoBusqueda(Class<?> clase, int id, String descripcion) {
+        this.clase = clase;
+        this.id = id;
+        this.descripcion = descripcion;
+    }
+
+    public Class<?> getClase() {
+        return clase;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ResultadoBusqueda that = (ResultadoBusqueda) o;
+        return id == that.id && clase == that.clase;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(clase, id);
+    }
+
+    @Override
+    public String toString() {
+        return clase.getSimpleName() + ": " + descripcion;
+    }
+}
@@ -0,0 +1,254 @@
+package com.felipe.tiendavideojuegos.combos;
+
+import com.felipe.tiendavideojuegos.gui.enums.TipoCambio;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+import javax.swing.text.JTextComponent;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase ComboBusqueda convierte un combo box en un buscador con autocompletado que se rellena bajo demanda.
+ * El combo es editable: al escribir, y tras una breve pausa, se piden a la base de datos las opciones
+ * que empiezan por el texto, con un número máximo de resultados, y se despliegan. Al abrir el combo
+ * sin haber escrito se piden las primeras opciones.
+ * Los resultados de los últimos prefijos buscados se guardan en una caché LRU, así que borrar o
+ * repetir lo escrito no vuelve a consultar. Todos los métodos deben llamarse desde el EDT.
+ */
+public class ComboBusqueda {
+
+    private final static int RETARDO = 250;
+    private final static int TAMANO_CACHE = 32;
+
+    private final JComboBox<Object> combo;
+    private final OpcionesComboModel modeloCombo;
+    private final JTextComponent editor;
+    private final int limite;
+    private final ConsultaOpciones consulta;
+    private final Map<String, List<OpcionCombo>> cache;
+    private final Timer temporizador;
+
+    // true mientras se cambia el modelo desde aquí, para no tomar como escritura el texto que pone el combo
+    private boolean actualizando;
+
+    /**
+     * Constructor de la clase ComboBusqueda. Sustituye el modelo del combo box y lo hace editable.
+     * @param combo El combo box.
+     * @param limite El número máximo de opciones que se piden en cada búsqueda.
+     * @param consulta La consulta que lee las opciones que empiezan por un texto.
+     */
+    public ComboBusqueda(JComboBox<Object> combo, int limite, ConsultaOpciones consulta) {
+        this.combo = combo;
+        this.modeloCombo = new OpcionesComboModel();
+        this.limite = limite;
+        this.consulta = consulta;
+        this.cache = new LinkedHashMap<String, List<OpcionCombo>>(TAMANO_CACHE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<OpcionCombo>> eldest) {
+                return size() > TAMANO_CACHE;
+            }
+        };
+
+        combo.setModel(modeloCombo);
+        combo.setEditable(true);
+        editor = (JTextComponent) combo.getEditor().getEditorComponent();
+
+        temporizador = new Timer(RETARDO, e -> buscar());
+        temporizador.setRepeats(false);
+        editor.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                alEscribir();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                alEscribir();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                alEscribir();
+            }
+        });
+        combo.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                //Se consulta después de abrir la lista, que se vuelve a abrir al llegar las opciones
+                if (modeloCombo.getSize() == 0) {
+                    SwingUtilities.invokeLater(() -> consultar(editor.getText()));
+                }
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
+    }
+
+    /**
+     * Obtiene la opción elegida. Si se ha escrito el texto exacto de una opción mostrada sin
+     * elegirla de la lista, también se considera elegida.
+     * @return La opción, o null si no se ha elegido ninguna.
+     */
+    public OpcionCombo getSeleccion() {
+        Object seleccionado = modeloCombo.getSelectedItem();
+        if (seleccionado instanceof OpcionCombo) {
+            return (OpcionCombo) seleccionado;
+        }
+        String texto = editor.getText().trim();
+        for (OpcionCombo opcion : modeloCombo.getOpciones()) {
+            if (opcion.getTexto().equals(texto)) {
+                return opcion;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Elige una opción, aunque no esté entre las que se muestran.
+     * @param opcion La opción a elegir, o null para vaciar el combo box.
+     */
+    public void seleccionar(OpcionCombo opcion) {
+        actualizando = true;
+        try {
+            modeloCombo.setSelectedItem(opcion);
+            combo.getEditor().setItem(opcion);
+        } finally {
+            actualizando = false;
+        }
+    }
+
+    /**
+     * Vacía el texto y la opción elegida.
+     */
+    public void limpiar() {
+        seleccionar(null);
+    }
+
+    /**
+     * Descarta la caché y las opciones mostradas, por ejemplo al volver a listar los datos.
+     * Las opciones se vuelven a pedir al escribir o al abrir el combo box.
+     */
+    public void recargar() {
+        cache.clear();
+        actualizando = true;
+        try {
+            modeloCombo.setOpciones(Collections.emptyList());
+        } finally {
+            actualizando = false;
+        }
+    }
+
+    /**
+     * Aplica una escritura confirmada sin volver a consultar: sustituye o quita la opción si se está
+     * mostrando o está elegida. Como una opción nueva o renombrada puede cambiar el resultado de
+     * cualquier prefijo, se descarta la caché.
+     * @param tipo El tipo de cambio.
+     * @param opcion La opción de la entidad que ha cambiado.
+     */
+    public void aplicarCambio(TipoCambio tipo, OpcionCombo opcion) {
+        cache.clear();
+        boolean elegida = opcion.equals(modeloCombo.getSelectedItem());
+        actualizando = true;
+        try {
+            if (tipo == TipoCambio.ACTUALIZAR) {
+                modeloCombo.sustituir(opcion);
+            } else if (tipo == TipoCambio.ELIMINAR) {
+                modeloCombo.quitar(opcion);
+            }
+        } finally {
+            actualizando = false;
+        }
+        if (elegida && tipo == TipoCambio.ACTUALIZAR) {
+            seleccionar(opcion);
+        } else if (elegida && tipo == TipoCambio.ELIMINAR) {
+            limpiar();
+        }
+    }
+
+    /**
+     * Programa una búsqueda cuando el usuario cambia el texto del editor.
+     */
+    private void alEscribir() {
+        if (!actualizando) {
+            temporizador.restart();
+        }
+    }
+
+    /**
+     * Busca las opciones que empiezan por el texto del editor, en la caché o en la base de datos.
+     * No busca si el texto es el de la opción que se acaba de elegir.
+     */
+    private void buscar() {
+        String texto = editor.getText();
+        if (!esOpcionElegida(texto)) {
+            consultar(texto);
+        }
+    }
+
+    /**
+     * Obtiene las opciones que empiezan por un texto, de la caché o de la base de datos, y las muestra.
+     * @param texto El texto escrito en el editor.
+     */
+    private void consultar(String texto) {
+        String prefijo = texto.trim();
+        List<OpcionCombo> enCache = cache.get(prefijo);
+        if (enCache != null) {
+            mostrar(texto, enCache);
+            return;
+        }
+        consulta.consultar(prefijo, limite, opciones -> {
+            cache.put(prefijo, opciones);
+            //Si se ha seguido escribiendo, la respuesta llega tarde y solo se guarda
+            if (editor.getText().equals(texto)) {
+                mostrar(texto, opciones);
+            }
+        });
+    }
+
+    /**
+     * Indica si un texto es el de la opción elegida, es decir, si lo ha puesto el combo al elegirla.
+     * @param texto El texto del editor.
+     * @return true si hay una opción elegida con ese texto.
+     */
+    private boolean esOpcionElegida(String texto) {
+        Object seleccionado = modeloCombo.getSelectedItem();
+        return seleccionado instanceof OpcionCombo && seleccionado.toString().equals(texto);
+    }
+
+    /**
+     * Muestra las opciones encontradas y despliega la lista si el combo box tiene el foco.
+     * @param texto El texto buscado, que se mantiene en el editor.
+     * @param opciones Las opciones encontradas.
+     */
+    private void mostrar(String texto, List<OpcionCombo> opciones) {
+        actualizando = true;
+        try {
+            //El texto escrito queda como elemento elegido para que el combo no lo sustituya
+            if (!esOpcionElegida(texto)) {
+                modeloCombo.setSelectedItem(texto.isEmpty() ? null : texto);
+            }
+            modeloCombo.setOpciones(opciones);
+        } finally {
+            actualizando = false;
+        }
+        if (editor.isFocusOwner()) {
+            //La lista desplegada no cambia de tamaño por sí sola al cambiar las opciones
+            combo.hidePopup();
+            if (!opciones.isEmpty()) {
+                combo.showPopup();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.felipe.tiendavideojuegos.combos;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Interfaz ConsultaOpciones lee de la base de datos las opciones que pide un {@link ComboBusqueda}.
+ * La lectura debe hacerse fuera del EDT y el resultado entregarse en el EDT.
+ */
+@FunctionalInterface
+public interface ConsultaOpciones {
+
+    /**
+     * Consulta las opciones cuyo texto empieza por un prefijo, ordenadas por su texto.
+     * @param prefijo El texto escrito en el combo box; si está vacío, se piden las primeras opciones.
+     * @param limite El número máximo de opciones.
+     * @param alConsultar La acción que recibe las opciones, ejecutada en el EDT.
+     */
+    void consultar(String prefijo, int limite, Consumer<List<OpcionCombo>> alConsultar);
+}
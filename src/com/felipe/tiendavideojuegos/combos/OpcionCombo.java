@@ -0,0 +1,48 @@
+package com.felipe.tiendavideojuegos.combos;
+
+/**
+ * Clase OpcionCombo es una opción de un combo box de búsqueda: el id de una entidad y el texto
+ * con el que se muestra. Los combos guardan solo esto en lugar de la entidad con sus relaciones.
+ * Dos opciones son iguales si tienen el mismo id.
+ */
+public class OpcionCombo {
+
+    private final int id;
+    private final String texto;
+
+    /**
+     * Constructor de la clase OpcionCombo.
+     * @param id El id de la entidad.
+     * @param texto El texto que se muestra en el combo box.
+     */
+    public OpcionCombo(int id, String texto) {
+        this.id = id;
+        this.texto = texto;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OpcionCombo that = (OpcionCombo) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return texto;
+    }
+}
@@ -0,0 +1,82 @@
+package com.felipe.tiendavideojuegos.combos;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modelo de un combo box que muestra una lista de {@link OpcionCombo} que se sustituye entera
+ * con cada búsqueda. A diferencia de DefaultComboBoxModel, que avisa de cada elemento añadido,
+ * cambiar la lista entera produce un solo evento.
+ * El elemento seleccionado puede ser una opción o el texto escrito en el editor.
+ */
+public class OpcionesComboModel extends AbstractListModel<Object> implements ComboBoxModel<Object> {
+
+    private List<OpcionCombo> opciones = new ArrayList<>();
+    private Object seleccionado;
+
+    @Override
+    public int getSize() {
+        return opciones.size();
+    }
+
+    @Override
+    public Object getElementAt(int index) {
+        return opciones.get(index);
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return seleccionado;
+    }
+
+    @Override
+    public void setSelectedItem(Object elemento) {
+        if ((seleccionado != null && !seleccionado.equals(elemento)) || (seleccionado == null && elemento != null)) {
+            seleccionado = elemento;
+            fireContentsChanged(this, -1, -1);
+        }
+    }
+
+    /**
+     * Obtiene las opciones que se muestran.
+     * @return La lista de opciones, que no debe modificarse.
+     */
+    public List<OpcionCombo> getOpciones() {
+        return opciones;
+    }
+
+    /**
+     * Sustituye todas las opciones con un solo evento.
+     * @param nuevas Las opciones a mostrar.
+     */
+    public void setOpciones(List<OpcionCombo> nuevas) {
+        int antes = opciones.size();
+        opciones = new ArrayList<>(nuevas);
+        fireContentsChanged(this, 0, Math.max(Math.max(antes, opciones.size()), 1) - 1);
+    }
+
+    /**
+     * Sustituye la opción que tiene el mismo id, si se está mostrando.
+     * @param opcion La opción con el texto nuevo.
+     */
+    public void sustituir(OpcionCombo opcion) {
+        int indice = opciones.indexOf(opcion);
+        if (indice != -1) {
+            opciones.set(indice, opcion);
+            fireContentsChanged(this, indice, indice);
+        }
+    }
+
+    /**
+     * Quita la opción que tiene el mismo id, si se está mostrando.
+     * @param opcion La opción a quitar.
+     */
+    public void quitar(OpcionCombo opcion) {
+        int indice = opciones.indexOf(opcion);
+        if (indice != -1) {
+            opciones.remove(indice);
+            fireIntervalRemoved(this, indice, indice);
+        }
+    }
+}
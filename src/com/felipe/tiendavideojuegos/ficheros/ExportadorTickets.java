@@ -0,0 +1,171 @@
+package com.felipe.tiendavideojuegos.ficheros;
+
+import com.felipe.tiendavideojuegos.gui.Modelo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Clase ExportadorTickets vuelca todos los tickets y sus detalles a un fichero, una línea por detalle.
+ * Las filas se leen de la base de datos con {@link Modelo#recorrerLineasTickets} y se escriben
+ * según llegan, a través de un búfer de tamaño fijo, así que la memoria usada no depende del
+ * número de tickets. El formato se elige por la extensión del fichero: .json y .jsonl se escriben
+ * como JSON Lines, cualquier otra como CSV separado por ";" con cabecera.
+ */
+public class ExportadorTickets {
+
+    private final static int TAMANO_BUFER = 64 * 1024;
+    private final static String[] CAMPOS = {"id_ticket", "codigo_ticket", "fecha_ticket", "forma_pago",
+            "total_ticket", "id_usuario", "dni_usuario", "id_detalle", "id_videojuego", "titulo", "cantidad",
+            "total_detalle"};
+
+    private final Modelo modelo;
+
+    /**
+     * Constructor de la clase ExportadorTickets.
+     * @param modelo El modelo del que se leen los tickets.
+     */
+    public ExportadorTickets(Modelo modelo) {
+        this.modelo = modelo;
+    }
+
+    /**
+     * Exporta los tickets al fichero indicado, sustituyéndolo si ya existe. Debe llamarse fuera del EDT.
+     * @param fichero El fichero de destino.
+     * @return El número de líneas de detalle exportadas.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public long exportar(File fichero) throws IOException {
+        String nombre = fichero.getName().toLowerCase();
+        boolean json = nombre.endsWith(".json") || nombre.endsWith(".jsonl");
+        ByteBuffer bufer = ByteBuffer.allocate(TAMANO_BUFER);
+
+        try (FileChannel canal = FileChannel.open(fichero.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (!json) {
+                escribir(canal, bufer, String.join(";", CAMPOS) + "\n");
+            }
+            long filas = modelo.recorrerLineasTickets(fila -> {
+                try {
+                    escribir(canal, bufer, json ? aJson(fila) : aCsv(fila));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            vaciar(canal, bufer);
+            return filas;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Añade una línea al búfer, volcándolo antes al fichero si no cabe.
+     * @param canal El canal del fichero.
+     * @param bufer El búfer de escritura.
+     * @param linea La línea a escribir, con su salto de línea.
+     * @throws IOException si falla la escritura.
+     */
+    private void escribir(FileChannel canal, ByteBuffer bufer, String linea) throws IOException {
+        byte[] bytes = linea.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > bufer.remaining()) {
+            vaciar(canal, bufer);
+        }
+        if (bytes.length > bufer.capacity()) {
+            canal.write(ByteBuffer.wrap(bytes));
+        } else {
+            bufer.put(bytes);
+        }
+    }
+
+    /**
+     * Escribe en el fichero el contenido del búfer y lo deja vacío.
+     * @param canal El canal del fichero.
+     * @param bufer El búfer de escritura.
+     * @throws IOException si falla la escritura.
+     */
+    private void vaciar(FileChannel canal, ByteBuffer bufer) throws IOException {
+        bufer.flip();
+        while (bufer.hasRemaining()) {
+            canal.write(bufer);
+        }
+        bufer.clear();
+    }
+
+    /**
+     * Convierte una fila en una línea CSV. Los valores con separador, comillas o saltos de línea
+     * se escriben entre comillas dobles.
+     * @param fila Los valores de la fila.
+     * @return La línea CSV.
+     */
+    private String aCsv(Object[] fila) {
+        StringBuilder linea = new StringBuilder();
+        for (int i = 0; i < fila.length; i++) {
+            if (i > 0) {
+                linea.append(';');
+            }
+            if (fila[i] == null) {
+                continue;
+            }
+            String valor = String.valueOf(fila[i]);
+            if (valor.indexOf(';') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0) {
+                linea.append('"').append(valor.replace("\"", "\"\"")).append('"');
+            } else {
+                linea.append(valor);
+            }
+        }
+        return linea.append('\n').toString();
+    }
+
+    /**
+     * Convierte una fila en un objeto JSON de una línea. Los números se escriben sin comillas.
+     * @param fila Los valores de la fila.
+     * @return La línea JSON.
+     */
+    private String aJson(Object[] fila) {
+        StringBuilder linea = new StringBuilder("{");
+        for (int i = 0; i < fila.length; i++) {
+            if (i > 0) {
+                linea.append(',');
+            }
+            linea.append('"').append(CAMPOS[i]).append("\":");
+            if (fila[i] == null || fila[i] instanceof Number) {
+                linea.append(fila[i]);
+            } else {
+                escaparJson(linea, String.valueOf(fila[i]));
+            }
+        }
+        return linea.append("}\n").toString();
+    }
+
+    /**
+     * Añade un texto entre comillas con los caracteres especiales escapados según JSON.
+     * @param linea La línea en construcción.
+     * @param texto El texto a añadir.
+     */
+    private void escaparJson(StringBuilder linea, String texto) {
+        linea.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': linea.append("\\\""); break;
+                case '\\': linea.append("\\\\"); break;
+                case '\n': linea.append("\\n"); break;
+                case '\r': linea.append("\\r"); break;
+                case '\t': linea.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        linea.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        linea.append(c);
+                    }
+            }
+        }
+        linea.append('"');
+    }
+}
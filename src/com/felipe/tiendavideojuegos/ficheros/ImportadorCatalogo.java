@@ -0,0 +1,271 @@
+package com.felipe.tiendavideojuegos.ficheros;
+
+import com.felipe.tiendavideojuegos.base.Desarrollador;
+import com.felipe.tiendavideojuegos.base.Puntuacion;
+import com.felipe.tiendavideojuegos.base.Videojuego;
+import com.felipe.tiendavideojuegos.gui.Modelo;
+import com.felipe.tiendavideojuegos.gui.enums.Genero;
+import com.felipe.tiendavideojuegos.gui.enums.TipoDesarrollador;
+import com.felipe.tiendavideojuegos.gui.enums.TipoImportacion;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Clase ImportadorCatalogo carga de forma masiva ficheros de videojuegos, desarrolladores y puntuaciones.
+ * El fichero se lee registro a registro, cada registro se valida y se convierte en una entidad,
+ * y las entidades se guardan en lotes, cada uno en su propia transacción, a través de
+ * {@link Modelo#insertarLote(List)}. Así la memoria usada no depende del tamaño del fichero.
+ * Los registros no válidos se descartan y se informa de ellos, sin detener la importación.
+ */
+public class ImportadorCatalogo {
+
+    private final static int TAMANO_LOTE = 1000;
+    private final static int MAX_ERRORES = 20;
+    private final static long INTERVALO_PROGRESO = 500;
+    private final static String[] PLATAFORMAS = {"PC", "Playstation", "Xbox"};
+
+    private final Modelo modelo;
+    private volatile boolean cancelado;
+
+    // Ids de los videojuegos existentes, para validar las puntuaciones sin consultar cada fila
+    private BitSet idsJuegos;
+
+    /**
+     * Constructor de la clase ImportadorCatalogo.
+     * @param modelo El modelo con el que se guardan los lotes.
+     */
+    public ImportadorCatalogo(Modelo modelo) {
+        this.modelo = modelo;
+    }
+
+    /**
+     * Importa un fichero CSV o JSON Lines. Debe llamarse fuera del EDT.
+     * Si falla la escritura de un lote, la importación se detiene y los lotes anteriores quedan guardados.
+     * @param fichero El fichero a importar.
+     * @param tipo El tipo de registros que contiene el fichero.
+     * @param alAvanzar La acción que recibe el progreso cada poco tiempo, en el hilo de la importación.
+     * @return El progreso final de la importación.
+     * @throws IOException si el fichero no se puede leer.
+     */
+    public ProgresoImportacion importar(File fichero, TipoImportacion tipo, Consumer<ProgresoImportacion> alAvanzar)
+            throws IOException {
+        cancelado = false;
+        idsJuegos = tipo == TipoImportacion.PUNTUACIONES ? modelo.getIdsJuegos() : null;
+        long inicio = System.currentTimeMillis();
+        long ultimoAviso = inicio;
+        long leidas = 0;
+        long importadas = 0;
+        long rechazadas = 0;
+        List<String> errores = new ArrayList<>();
+        List<Object> lote = new ArrayList<>(TAMANO_LOTE);
+
+        try (LectorRegistros lector = new LectorRegistros(fichero)) {
+            while (!cancelado) {
+                try {
+                    Map<String, String> registro = lector.siguiente();
+                    if (registro == null) {
+                        break;
+                    }
+                    lote.add(convertir(tipo, registro));
+                } catch (IllegalArgumentException e) {
+                    rechazadas++;
+                    if (errores.size() < MAX_ERRORES) {
+                        errores.add("Línea " + lector.getNumeroLinea() + ": " + e.getMessage());
+                    }
+                }
+                leidas++;
+
+                if (lote.size() == TAMANO_LOTE) {
+                    modelo.insertarLote(lote);
+                    importadas += lote.size();
+                    lote.clear();
+                }
+                long ahora = System.currentTimeMillis();
+                if (ahora - ultimoAviso >= INTERVALO_PROGRESO) {
+                    ultimoAviso = ahora;
+                    alAvanzar.accept(new ProgresoImportacion(leidas, importadas, rechazadas, lector.getBytesLeidos(),
+                            lector.getBytesTotales(), ahora - inicio, errores));
+                }
+            }
+            if (!cancelado && !lote.isEmpty()) {
+                modelo.insertarLote(lote);
+                importadas += lote.size();
+            }
+            ProgresoImportacion fin = new ProgresoImportacion(leidas, importadas, rechazadas, lector.getBytesLeidos(),
+                    lector.getBytesTotales(), System.currentTimeMillis() - inicio, errores);
+            alAvanzar.accept(fin);
+            return fin;
+        } finally {
+            idsJuegos = null;
+        }
+    }
+
+    /**
+     * Detiene la importación en curso al terminar el lote actual. Puede llamarse desde cualquier hilo.
+     */
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    /**
+     * Convierte un registro del fichero en la entidad correspondiente, validando sus campos.
+     * @param tipo El tipo de registros del fichero.
+     * @param registro Los campos del registro.
+     * @return La entidad lista para guardar.
+     * @throws IllegalArgumentException si algún campo falta o no es válido.
+     */
+    private Object convertir(TipoImportacion tipo, Map<String, String> registro) {
+        switch (tipo) {
+            case VIDEOJUEGOS:
+                Videojuego videojuego = new Videojuego();
+                videojuego.setTitulo(texto(registro, "titulo"));
+                videojuego.setGenero(genero(texto(registro, "genero")));
+                videojuego.setPrecio(decimal(registro, "precio"));
+                videojuego.setPlataforma(plataforma(texto(registro, "plataforma")));
+                videojuego.setFechaLanzamiento(fecha(registro, "fecha_lanzamiento"));
+                return videojuego;
+            case DESARROLLADORES:
+                Desarrollador desarrollador = new Desarrollador();
+                desarrollador.setNombre(texto(registro, "nombre"));
+                desarrollador.setEmail(texto(registro, "email"));
+                desarrollador.setExperiencia(entero(registro, "experiencia"));
+                desarrollador.setTipo(tipoDesarrollador(texto(registro, "tipo")));
+                return desarrollador;
+            default:
+                int idJuego = entero(registro, "id_videojuego");
+                if (!idsJuegos.get(idJuego)) {
+                    throw new IllegalArgumentException("no existe el videojuego con id " + idJuego);
+                }
+                Videojuego juego = new Videojuego();
+                juego.setId(idJuego);
+                Puntuacion puntuacion = new Puntuacion();
+                puntuacion.setJuego(juego);
+                puntuacion.setFuente(texto(registro, "fuente"));
+                puntuacion.setNotaVideojuego(decimal(registro, "nota"));
+                puntuacion.setFechaNota(fecha(registro, "fecha_nota"));
+                return puntuacion;
+        }
+    }
+
+    /**
+     * Obtiene un campo de texto obligatorio.
+     * @param registro Los campos del registro.
+     * @param campo El nombre del campo.
+     * @return El valor del campo.
+     * @throws IllegalArgumentException si el campo falta o está vacío.
+     */
+    private String texto(Map<String, String> registro, String campo) {
+        String valor = registro.get(campo);
+        if (valor == null || valor.trim().isEmpty()) {
+            throw new IllegalArgumentException("falta el campo " + campo);
+        }
+        return valor.trim();
+    }
+
+    /**
+     * Obtiene un campo numérico entero no negativo.
+     * @param registro Los campos del registro.
+     * @param campo El nombre del campo.
+     * @return El valor del campo.
+     * @throws IllegalArgumentException si el campo falta o no es un entero no negativo.
+     */
+    private int entero(Map<String, String> registro, String campo) {
+        try {
+            int valor = Integer.parseInt(texto(registro, campo));
+            if (valor < 0) {
+                throw new IllegalArgumentException(campo + " no puede ser negativo");
+            }
+            return valor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " no es un número entero");
+        }
+    }
+
+    /**
+     * Obtiene un campo numérico decimal no negativo. Admite la coma como separador decimal.
+     * @param registro Los campos del registro.
+     * @param campo El nombre del campo.
+     * @return El valor del campo.
+     * @throws IllegalArgumentException si el campo falta o no es un número no negativo.
+     */
+    private double decimal(Map<String, String> registro, String campo) {
+        try {
+            double valor = Double.parseDouble(texto(registro, campo).replace(',', '.'));
+            if (valor < 0 || Double.isNaN(valor) || Double.isInfinite(valor)) {
+                throw new IllegalArgumentException(campo + " no es un valor válido");
+            }
+            return valor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " no es un número");
+        }
+    }
+
+    /**
+     * Obtiene un campo de fecha con el formato aaaa-mm-dd.
+     * @param registro Los campos del registro.
+     * @param campo El nombre del campo.
+     * @return La fecha.
+     * @throws IllegalArgumentException si el campo falta o no es una fecha válida.
+     */
+    private Date fecha(Map<String, String> registro, String campo) {
+        try {
+            return Date.valueOf(texto(registro, campo));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(campo + " no tiene el formato aaaa-mm-dd");
+        }
+    }
+
+    /**
+     * Valida un género contra la enumeración {@link Genero}. Admite tanto el nombre de la constante
+     * (ACTION) como el nombre del género (Acción), sin distinguir mayúsculas.
+     * @param valor El género leído del fichero.
+     * @return El nombre del género, tal y como lo guarda la aplicación.
+     * @throws IllegalArgumentException si no es un género conocido.
+     */
+    private String genero(String valor) {
+        for (Genero unGenero : Genero.values()) {
+            if (unGenero.name().equalsIgnoreCase(valor) || unGenero.getNombre().equalsIgnoreCase(valor)) {
+                return unGenero.getNombre();
+            }
+        }
+        throw new IllegalArgumentException("género desconocido: " + valor);
+    }
+
+    /**
+     * Valida un tipo de desarrollador contra la enumeración {@link TipoDesarrollador}. Admite tanto
+     * el nombre de la constante (ESTUDIO_INDIE) como el nombre del tipo (Estudio Indie).
+     * @param valor El tipo leído del fichero.
+     * @return El nombre del tipo, tal y como lo guarda la aplicación.
+     * @throws IllegalArgumentException si no es un tipo conocido.
+     */
+    private String tipoDesarrollador(String valor) {
+        for (TipoDesarrollador unTipo : TipoDesarrollador.values()) {
+            if (unTipo.name().equalsIgnoreCase(valor) || unTipo.getNombre().equalsIgnoreCase(valor)) {
+                return unTipo.getNombre();
+            }
+        }
+        throw new IllegalArgumentException("tipo de desarrollador desconocido: " + valor);
+    }
+
+    /**
+     * Valida una plataforma contra las que ofrece el formulario de videojuegos.
+     * @param valor La plataforma leída del fichero.
+     * @return El nombre de la plataforma, tal y como lo guarda la aplicación.
+     * @throws IllegalArgumentException si no es una plataforma conocida.
+     */
+    private String plataforma(String valor) {
+        for (String unaPlataforma : PLATAFORMAS) {
+            if (unaPlataforma.equalsIgnoreCase(valor)) {
+                return unaPlataforma;
+            }
+        }
+        throw new IllegalArgumentException("plataforma desconocida: " + valor);
+    }
+}
@@ -0,0 +1,326 @@
+package com.felipe.tiendavideojuegos.ficheros;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase LectorRegistros lee un fichero de registros de forma incremental, línea a línea,
+ * sin cargarlo entero en memoria. Admite dos formatos:
+ * CSV con cabecera (separado por ";" o ","), y JSON Lines, un objeto JSON plano por línea.
+ * Cada registro se devuelve como un mapa de nombre de campo a valor en texto.
+ */
+public class LectorRegistros implements Closeable {
+
+    private final BufferedReader lector;
+    private final ContadorBytes contadorBytes;
+    private final long bytesTotales;
+    private final boolean json;
+    private String[] cabecera;
+    private char separador;
+    private int numeroLinea;
+
+    /**
+     * Constructor de la clase LectorRegistros. El formato se elige por la extensión del fichero:
+     * .json y .jsonl se leen como JSON Lines, cualquier otra como CSV.
+     * @param fichero El fichero a leer, codificado en UTF-8.
+     * @throws IOException si el fichero no se puede abrir o leer la cabecera.
+     */
+    public LectorRegistros(File fichero) throws IOException {
+        String nombre = fichero.getName().toLowerCase();
+        this.json = nombre.endsWith(".json") || nombre.endsWith(".jsonl");
+        this.bytesTotales = fichero.length();
+        this.contadorBytes = new ContadorBytes(new FileInputStream(fichero));
+        this.lector = new BufferedReader(new InputStreamReader(contadorBytes, StandardCharsets.UTF_8));
+        if (!json) {
+            leerCabecera();
+        }
+    }
+
+    /**
+     * Lee el siguiente registro del fichero, saltando las líneas vacías.
+     * @return Los campos del registro, o null si se ha llegado al final del fichero.
+     * @throws IOException si falla la lectura.
+     * @throws IllegalArgumentException si la línea no tiene un formato válido.
+     */
+    public Map<String, String> siguiente() throws IOException {
+        String linea;
+        do {
+            linea = lector.readLine();
+            numeroLinea++;
+            if (linea == null) {
+                return null;
+            }
+        } while (linea.trim().isEmpty());
+
+        return json ? leerObjetoJson(linea) : leerFilaCsv(linea);
+    }
+
+    /**
+     * Obtiene el número de la última línea leída, para los mensajes de error.
+     * @return El número de línea, empezando en 1.
+     */
+    public int getNumeroLinea() {
+        return numeroLinea;
+    }
+
+    /**
+     * Obtiene los bytes leídos del fichero hasta ahora. Incluye lo que haya leído ya el búfer.
+     * @return El número de bytes leídos.
+     */
+    public long getBytesLeidos() {
+        return contadorBytes.leidos;
+    }
+
+    /**
+     * Obtiene el tamaño del fichero.
+     * @return El número total de bytes.
+     */
+    public long getBytesTotales() {
+        return bytesTotales;
+    }
+
+    /**
+     * Cierra el fichero.
+     * @throws IOException si falla el cierre.
+     */
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+
+    /**
+     * Lee la primera línea de un CSV como cabecera y deduce el separador.
+     * @throws IOException si el fichero está vacío o falla la lectura.
+     */
+    private void leerCabecera() throws IOException {
+        String linea = lector.readLine();
+        numeroLinea++;
+        if (linea == null) {
+            throw new IOException("El fichero está vacío");
+        }
+        //Quita la marca BOM que añaden algunas hojas de cálculo
+        if (linea.startsWith("\uFEFF")) {
+            linea = linea.substring(1);
+        }
+        separador = linea.indexOf(';') >= 0 ? ';' : ',';
+        List<String> campos = separarCsv(linea);
+        cabecera = new String[campos.size()];
+        for (int i = 0; i < cabecera.length; i++) {
+            cabecera[i] = campos.get(i).trim().toLowerCase();
+        }
+    }
+
+    /**
+     * Convierte una línea CSV en un registro según la cabecera.
+     * @param linea La línea leída.
+     * @return Los campos del registro.
+     */
+    private Map<String, String> leerFilaCsv(String linea) {
+        List<String> valores = separarCsv(linea);
+        if (valores.size() != cabecera.length) {
+            throw new IllegalArgumentException("se esperaban " + cabecera.length + " columnas y hay " + valores.size());
+        }
+        Map<String, String> registro = new LinkedHashMap<>();
+        for (int i = 0; i < cabecera.length; i++) {
+            registro.put(cabecera[i], valores.get(i).trim());
+        }
+        return registro;
+    }
+
+    /**
+     * Separa una línea CSV en valores, respetando los valores entre comillas dobles.
+     * Dentro de las comillas, dos comillas seguidas representan una comilla.
+     * @param linea La línea a separar.
+     * @return La lista de valores.
+     */
+    private List<String> separarCsv(String linea) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder valor = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    valor.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    valor.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separador) {
+                valores.add(valor.toString());
+                valor.setLength(0);
+            } else {
+                valor.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("comillas sin cerrar");
+        }
+        valores.add(valor.toString());
+        return valores;
+    }
+
+    /**
+     * Convierte una línea JSON con un objeto plano en un registro. Los valores pueden ser
+     * textos, números, booleanos o null; no se admiten objetos ni listas anidados.
+     * @param linea La línea leída.
+     * @return Los campos del registro.
+     */
+    private Map<String, String> leerObjetoJson(String linea) {
+        Map<String, String> registro = new LinkedHashMap<>();
+        int[] pos = {saltarEspacios(linea, 0)};
+        esperar(linea, pos, '{');
+        int fin = saltarEspacios(linea, pos[0]);
+        if (fin < linea.length() && linea.charAt(fin) == '}') {
+            return registro;
+        }
+        while (true) {
+            pos[0] = saltarEspacios(linea, pos[0]);
+            String campo = leerTextoJson(linea, pos);
+            pos[0] = saltarEspacios(linea, pos[0]);
+            esperar(linea, pos, ':');
+            pos[0] = saltarEspacios(linea, pos[0]);
+            registro.put(campo.toLowerCase(), leerValorJson(linea, pos));
+            pos[0] = saltarEspacios(linea, pos[0]);
+            if (pos[0] < linea.length() && linea.charAt(pos[0]) == ',') {
+                pos[0]++;
+            } else {
+                esperar(linea, pos, '}');
+                return registro;
+            }
+        }
+    }
+
+    /**
+     * Lee un valor JSON simple a partir de la posición indicada.
+     * @param linea La línea leída.
+     * @param pos La posición actual, que se avanza hasta después del valor.
+     * @return El valor en texto, o null si el valor es null.
+     */
+    private String leerValorJson(String linea, int[] pos) {
+        if (pos[0] < linea.length() && linea.charAt(pos[0]) == '"') {
+            return leerTextoJson(linea, pos);
+        }
+        int inicio = pos[0];
+        while (pos[0] < linea.length() && ",} \t".indexOf(linea.charAt(pos[0])) < 0) {
+            pos[0]++;
+        }
+        String valor = linea.substring(inicio, pos[0]);
+        if (valor.isEmpty() || valor.startsWith("{") || valor.startsWith("[")) {
+            throw new IllegalArgumentException("valor JSON no admitido en la posición " + inicio);
+        }
+        return valor.equals("null") ? null : valor;
+    }
+
+    /**
+     * Lee un texto JSON entre comillas, con sus secuencias de escape.
+     * @param linea La línea leída.
+     * @param pos La posición de la comilla inicial, que se avanza hasta después de la final.
+     * @return El texto sin comillas.
+     */
+    private String leerTextoJson(String linea, int[] pos) {
+        esperar(linea, pos, '"');
+        StringBuilder texto = new StringBuilder();
+        while (pos[0] < linea.length()) {
+            char c = linea.charAt(pos[0]++);
+            if (c == '"') {
+                return texto.toString();
+            }
+            if (c != '\\') {
+                texto.append(c);
+                continue;
+            }
+            if (pos[0] >= linea.length()) {
+                break;
+            }
+            char escape = linea.charAt(pos[0]++);
+            switch (escape) {
+                case 'n': texto.append('\n'); break;
+                case 't': texto.append('\t'); break;
+                case 'r': texto.append('\r'); break;
+                case 'b': texto.append('\b'); break;
+                case 'f': texto.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > linea.length()) {
+                        throw new IllegalArgumentException("secuencia \\u incompleta");
+                    }
+                    texto.append((char) Integer.parseInt(linea.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default: texto.append(escape);
+            }
+        }
+        throw new IllegalArgumentException("texto JSON sin cerrar");
+    }
+
+    /**
+     * Comprueba que en la posición actual está el carácter esperado y lo salta.
+     * @param linea La línea leída.
+     * @param pos La posición actual.
+     * @param esperado El carácter esperado.
+     */
+    private void esperar(String linea, int[] pos, char esperado) {
+        if (pos[0] >= linea.length() || linea.charAt(pos[0]) != esperado) {
+            throw new IllegalArgumentException("se esperaba '" + esperado + "' en la posición " + pos[0]);
+        }
+        pos[0]++;
+    }
+
+    /**
+     * Salta los espacios en blanco a partir de una posición.
+     * @param linea La línea leída.
+     * @param pos La posición inicial.
+     * @return La primera posición que no es un espacio.
+     */
+    private int saltarEspacios(String linea, int pos) {
+        while (pos < linea.length() && Character.isWhitespace(linea.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Flujo de entrada que cuenta los bytes leídos, para calcular el progreso.
+     */
+    private static class ContadorBytes extends FilterInputStream {
+
+        private long leidos;
+
+        private ContadorBytes(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                leidos++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                leidos += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.felipe.tiendavideojuegos.ficheros;
+
+import java.util.List;
+
+/**
+ * Clase ProgresoImportacion es una instantánea del estado de una importación:
+ * filas leídas, importadas y rechazadas, parte del fichero procesada y velocidad.
+ */
+public class ProgresoImportacion {
+
+    private final long filasLeidas;
+    private final long filasImportadas;
+    private final long filasRechazadas;
+    private final long bytesLeidos;
+    private final long bytesTotales;
+    private final long milisegundos;
+    private final List<String> errores;
+
+    /**
+     * Constructor de la clase ProgresoImportacion.
+     * @param filasLeidas Las filas leídas del fichero.
+     * @param filasImportadas Las filas ya guardadas en la base de datos.
+     * @param filasRechazadas Las filas descartadas por no ser válidas.
+     * @param bytesLeidos Los bytes del fichero leídos.
+     * @param bytesTotales El tamaño del fichero.
+     * @param milisegundos El tiempo transcurrido desde el inicio de la importación.
+     * @param errores Los primeros mensajes de error de las filas rechazadas.
+     */
+    public ProgresoImportacion(long filasLeidas, long filasImportadas, long filasRechazadas, long bytesLeidos,
+                               long bytesTotales, long milisegundos, List<String> errores) {
+        this.filasLeidas = filasLeidas;
+        this.filasImportadas = filasImportadas;
+        this.filasRechazadas = filasRechazadas;
+        this.bytesLeidos = bytesLeidos;
+        this.bytesTotales = bytesTotales;
+        this.milisegundos = milisegundos;
+        this.errores = errores;
+    }
+
+    /**
+     * Obtiene las filas leídas del fichero.
+     * @return El número de filas leídas.
+     */
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    /**
+     * Obtiene las filas guardadas en la base de datos.
+     * @return El número de filas importadas.
+     */
+    public long getFilasImportadas() {
+        return filasImportadas;
+    }
+
+    /**
+     * Obtiene las filas descartadas por no ser válidas.
+     * @return El número de filas rechazadas.
+     */
+    public long getFilasRechazadas() {
+        return filasRechazadas;
+    }
+
+    /**
+     * Obtiene el porcentaje del fichero procesado.
+     * @return Un valor entre 0 y 100.
+     */
+    public int getPorcentaje() {
+        return bytesTotales == 0 ? 100 : (int) Math.min(100, bytesLeidos * 100 / bytesTotales);
+    }
+
+    /**
+     * Obtiene la velocidad media de la importación.
+     * @return Las filas leídas por segundo.
+     */
+    public long getFilasPorSegundo() {
+        return milisegundos == 0 ? filasLeidas : filasLeidas * 1000 / milisegundos;
+    }
+
+    /**
+     * Obtiene los primeros mensajes de error de las filas rechazadas.
+     * @return La lista de errores, con el número de línea de cada uno.
+     */
+    public List<String> getErrores() {
+        return errores;
+    }
+
+    @Override
+    public String toString() {
+        return filasLeidas + " filas leídas, " + filasImportadas + " importadas, " + filasRechazadas +
+                " rechazadas (" + getFilasPorSegundo() + " filas/s)";
+    }
+}
@@ -0,0 +1,49 @@
+package com.felipe.tiendavideojuegos.gui;
+
+import com.felipe.tiendavideojuegos.gui.enums.TipoCambio;
+
+/**
+ * Clase CambioEntidad describe una escritura confirmada en la base de datos: qué entidad ha cambiado
+ * y si se ha insertado, actualizado o eliminado. La publica el {@link Modelo} después de confirmar
+ * la transacción, para que la vista pueda aplicar solo ese cambio sin volver a consultar la tabla.
+ */
+public class CambioEntidad {
+
+    private final TipoCambio tipo;
+    private final Object entidad;
+
+    /**
+     * Constructor de la clase CambioEntidad.
+     * @param tipo El tipo de escritura realizada.
+     * @param entidad La entidad tal y como ha quedado guardada, o la entidad eliminada.
+     */
+    public CambioEntidad(TipoCambio tipo, Object entidad) {
+        this.tipo = tipo;
+        this.entidad = entidad;
+    }
+
+    /**
+     * Obtiene el tipo de escritura realizada.
+     * @return El tipo de cambio.
+     */
+    public TipoCambio getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Obtiene la entidad que ha cambiado.
+     * @return La entidad, con su id ya asignado.
+     */
+    public Object getEntidad() {
+        return entidad;
+    }
+
+    /**
+     * Indica si la entidad que ha cambiado es de la clase indicada.
+     * @param clase La clase de entidad.
+     * @return true si la entidad es de esa clase.
+     */
+    public boolean es(Class<?> clase) {
+        return clase.isInstance(entidad);
+    }
+}
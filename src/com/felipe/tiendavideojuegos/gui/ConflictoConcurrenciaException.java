@@ -0,0 +1,70 @@
+package com.felipe.tiendavideojuegos.gui;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Excepción ConflictoConcurrenciaException indica que una escritura no se ha guardado porque otro usuario
+ * ha modificado o borrado la misma entidad desde que se leyó. La detecta el {@link Modelo} comparando
+ * la versión de la entidad, sin bloquear filas, y deshace toda la transacción.
+ * Si se ha intentado fusionar los cambios, indica los campos que ambos usuarios han cambiado.
+ */
+public class ConflictoConcurrenciaException extends RuntimeException {
+
+    private final Class<?> clase;
+    private final Object id;
+    private final boolean borrada;
+    private final List<String> campos;
+
+    /**
+     * Constructor de la clase ConflictoConcurrenciaException.
+     * @param clase La clase de la entidad en conflicto.
+     * @param id El id de la entidad.
+     * @param borrada true si otro usuario ha borrado la entidad.
+     * @param campos Los campos que han cambiado ambos usuarios, o una lista vacía si no se ha intentado fusionar.
+     * @param causa La excepción de Hibernate que ha detectado el conflicto, o null.
+     */
+    public ConflictoConcurrenciaException(Class<?> clase, Object id, boolean borrada, List<String> campos,
+                                          Throwable causa) {
+        super(mensaje(clase, borrada, campos), causa);
+        this.clase = clase;
+        this.id = id;
+        this.borrada = borrada;
+        this.campos = Collections.unmodifiableList(campos);
+    }
+
+    public Class<?> getClase() {
+        return clase;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    public boolean isBorrada() {
+        return borrada;
+    }
+
+    public List<String> getCampos() {
+        return campos;
+    }
+
+    /**
+     * Construye el mensaje que se muestra al usuario.
+     * @param clase La clase de la entidad en conflicto.
+     * @param borrada true si otro usuario ha borrado la entidad.
+     * @param campos Los campos que han cambiado ambos usuarios.
+     * @return El mensaje.
+     */
+    private static String mensaje(Class<?> clase, boolean borrada, List<String> campos) {
+        String entidad = clase.getSimpleName().toLowerCase(Locale.ROOT);
+        if (borrada) {
+            return "Otro usuario ha borrado este " + entidad + " mientras lo modificabas.";
+        }
+        String cambios = campos.isEmpty() ? "este " + entidad
+                : "los mismos campos de este " + entidad + " (" + String.join(", ", campos) + ")";
+        return "Otro usuario ha modificado " + cambios + " mientras lo modificabas.\n" +
+                "No se ha guardado nada: vuelve a seleccionarlo para ver sus cambios.";
+    }
+}
@@ -1,18 +1,51 @@
 package com.felipe.tiendavideojuegos.gui;
 
 import com.felipe.tiendavideojuegos.base.*;
+import com.felipe.tiendavideojuegos.busqueda.IndiceBusqueda;
+import com.felipe.tiendavideojuegos.busqueda.ResultadoBusqueda;
+import com.felipe.tiendavideojuegos.combos.ComboBusqueda;
+import com.felipe.tiendavideojuegos.combos.OpcionCombo;
+import com.felipe.tiendavideojuegos.ficheros.ExportadorTickets;
+import com.felipe.tiendavideojuegos.ficheros.ImportadorCatalogo;
+import com.felipe.tiendavideojuegos.ficheros.ProgresoImportacion;
+import com.felipe.tiendavideojuegos.gui.enums.TipoCambio;
+import com.felipe.tiendavideojuegos.gui.enums.TipoImportacion;
+import com.felipe.tiendavideojuegos.gui.enums.TipoInforme;
+import com.felipe.tiendavideojuegos.stock.ReservasStock;
+import com.felipe.tiendavideojuegos.tables.EntidadesTableModel;
+import com.felipe.tiendavideojuegos.tables.PerezosoTableModel;
+import com.felipe.tiendavideojuegos.util.Filtro;
+import com.felipe.tiendavideojuegos.util.FiltroTickets;
+import com.felipe.tiendavideojuegos.util.FiltroVideojuegos;
+import com.felipe.tiendavideojuegos.util.Pagina;
 import com.felipe.tiendavideojuegos.util.Util;
+import com.github.lgooddatepicker.components.DatePicker;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.AdjustmentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.File;
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Controlador que maneja la lógica de interacción entre la vista y el modelo.
@@ -22,9 +55,56 @@ import java.util.List;
  */
 public class Controlador implements ActionListener, ListSelectionListener {
 
+    private final static int TAMANO_PAGINA = 100;
+    private final static int MARGEN_SCROLL = 50;
+    private final static int RETARDO_FILTRO = 300;
+    private final static int MAXIMO_RESULTADOS = 15;
+    private final static int LIMITE_OPCIONES = 50;
+    private final static int LIMITE_INFORME = 500;
+    private final static int PESTANA_DESARROLLADORES = 0;
+    private final static int PESTANA_VIDEOJUEGOS = 1;
+    private final static int PESTANA_USUARIOS = 3;
+    // Campo por el que se ordena cada columna de las tablas filtrables; null si la columna no se puede ordenar
+    private final static String[] ORDEN_JUEGOS = {"id", "titulo", "genero", "precio", "plataforma", "fechaLanzamiento", "notaMedia"};
+    private final static String[] ORDEN_COMPRAS = {"id", "codigoTicket", null, "formaPago", "fechaTicket", "total"};
+
     private Modelo modelo;
     private Vista vista;
     private VistaListaEntidad vistaListaEntidad;
+    private TareasEnSegundoPlano tareas;
+    private GeneradorCodigosTicket codigosTicket;
+
+    // Última página cargada en cada tabla, null mientras no se ha listado.
+    // Las tablas de videojuegos y compras cargan sus filas por bloques al pintarlas.
+    private Pagina<Desarrollador> paginaDevs;
+    private Pagina<Puntuacion> paginaRatings;
+    private Pagina<Usuario> paginaUsuarios;
+    // Última página de tickets cargada en la lista del usuario, null si la lista muestra otra cosa
+    private Pagina<Ticket> paginaTicketsUsuario;
+    private int idUsuarioTickets;
+
+    // Filtro y orden vigentes de las tablas de videojuegos y compras. Se sustituyen, nunca se modifican,
+    // porque las consultas en segundo plano pueden estar leyéndolos.
+    private FiltroVideojuegos filtroJuegos = new FiltroVideojuegos();
+    private FiltroTickets filtroCompras = new FiltroTickets();
+    private Timer temporizadorFiltroJuegos;
+    private Timer temporizadorFiltroCompras;
+
+    // Versión de la compra seleccionada cuando se leyeron sus detalles, para detectar modificaciones concurrentes
+    private int versionCompraSeleccionada;
+
+    // Unidades apartadas en los carritos y, de ellas, las que ha apartado el carrito actual por id de videojuego
+    private final ReservasStock reservas = new ReservasStock();
+    private final Map<Integer, Integer> reservasCarrito = new HashMap<>();
+
+    private final IndiceBusqueda indiceBusqueda = new IndiceBusqueda();
+    private List<ResultadoBusqueda> resultadosBusqueda = new ArrayList<>();
+
+    // Combo boxes que buscan sus opciones en la base de datos al escribir
+    private ComboBusqueda comboDesarrolladores;
+    private ComboBusqueda comboJuegosPuntuacion;
+    private ComboBusqueda comboJuegosCompra;
+    private ComboBusqueda comboUsuariosCompra;
 
     /**
      * Constructor del controlador, que establece la conexión entre el modelo y la vista,
@@ -35,10 +115,22 @@ public class Controlador implements ActionListener, ListSelectionListener {
     public Controlador(Modelo modelo, Vista vista) {
         this.modelo = modelo;
         this.vista = vista;
+        this.tareas = new TareasEnSegundoPlano(vista.barraProgreso);
+        this.codigosTicket = new GeneradorCodigosTicket(modelo,
+                System.getProperty("tienda.ticket.prefijo", "T"),
+                Integer.getInteger("tienda.ticket.ancho", 9),
+                Integer.getInteger("tienda.ticket.bloque", 100));
 
         addActionListeners(this);
         addWindowClosingListener();
         addListListeners(this);
+        addScrollListeners();
+        addCargadoresDeBloques();
+        addFiltroListeners();
+        addBusquedaListeners();
+        addCombosDeBusqueda();
+        modelo.addObservadorCambios(indiceBusqueda);
+        modelo.addObservadorCambios(cambio -> SwingUtilities.invokeLater(() -> aplicarCambio(cambio)));
     }
 
     /**
@@ -50,10 +142,18 @@ public class Controlador implements ActionListener, ListSelectionListener {
         //Items Menu
         vista.itemConectar.addActionListener(listener);
         vista.itemSalir.addActionListener(listener);
+        vista.itemEstadisticas.addActionListener(listener);
+        vista.itemImportarJuegos.addActionListener(listener);
+        vista.itemImportarDevs.addActionListener(listener);
+        vista.itemImportarRatings.addActionListener(listener);
+        vista.itemExportarTickets.addActionListener(listener);
+        vista.itemReconstruirResumenes.addActionListener(listener);
+        vista.itemFusionarCambios.addActionListener(listener);
 
         //Items Popup
         vista.itemVerJuegos.addActionListener(listener);
         vista.itemVerTickets.addActionListener(listener);
+        vista.itemReponerExistencias.addActionListener(listener);
 
         //Atributos Desarrollador
         vista.bDevAgregar.addActionListener(listener);
@@ -98,12 +198,17 @@ public class Controlador implements ActionListener, ListSelectionListener {
         vista.bCompraEliminarJuego.addActionListener(listener);
         vista.bCompraEfectuarModificacion.addActionListener(listener);
         vista.bCompraCancelarModificacion.addActionListener(listener);
+
+        //Filtros
+        vista.bFiltroJuegoLimpiar.addActionListener(listener);
+        vista.bFiltroCompraLimpiar.addActionListener(listener);
+        vista.bInformeGenerar.addActionListener(listener);
     }
 
     /**
      * Añade un listener para gestionar el evento de cierre de ventana.
      * Muestra una ventana de confirmación antes de cerrar la aplicación.
-     * Si el usuario confirma, la aplicación se cierra.
+     * Si el usuario confirma, la aplicación se cierra con {@link #salir()}.
      */
     private void addWindowClosingListener() {
         vista.addWindowListener(new WindowAdapter() {
@@ -116,12 +221,22 @@ public class Controlador implements ActionListener, ListSelectionListener {
                         JOptionPane.YES_NO_OPTION);
 
                 if (opcionParaSalir == JOptionPane.OK_OPTION) {
-                    System.exit(0);
+                    salir();
                 }
             }
         });
     }
 
+    /**
+     * Cierra la aplicación: cancela las tareas en segundo plano, detiene sus hilos y cierra
+     * la conexión con la base de datos, que devuelve las conexiones del pool.
+     */
+    private void salir() {
+        tareas.cerrar();
+        modelo.desconectar();
+        System.exit(0);
+    }
+
     /**
      * Añade un listener de selección a varias tablas en la vista.
      * Este listener se activa cuando el usuario selecciona una fila en alguna de las tablas
@@ -136,6 +251,343 @@ public class Controlador implements ActionListener, ListSelectionListener {
         vista.tablaCompras.getSelectionModel().addListSelectionListener(listener);
     }
 
+    /**
+     * Añade a cada tabla la carga de la siguiente página cuando el usuario hace scroll
+     * hasta cerca del final de las filas ya cargadas.
+     */
+    private void addScrollListeners() {
+        addPaginacionAlHacerScroll(vista.tablaDesarrolladores, this::cargarSiguientePaginaDevs);
+        addPaginacionAlHacerScroll(vista.tablaPuntuaciones, this::cargarSiguientePaginaRatings);
+        addPaginacionAlHacerScroll(vista.tablaUsuarios, this::cargarSiguientePaginaUsuarios);
+    }
+
+    /**
+     * Indica a las tablas de videojuegos y compras cómo leer sus bloques de filas. Cada bloque se lee
+     * en segundo plano con su propia clave, de modo que varios bloques pueden cargarse a la vez,
+     * y con el filtro vigente cuando se pide.
+     */
+    private void addCargadoresDeBloques() {
+        vista.ctmJuegos.setCargador((primeraFila, anterior, tamanoBloque, alCargar) -> {
+            FiltroVideojuegos filtro = filtroJuegos;
+            tareas.ejecutar("juegos-" + primeraFila,
+                    () -> modelo.getBloqueJuegos(primeraFila, anterior, tamanoBloque, filtro), alCargar);
+        });
+        vista.ctmCompras.setCargador((primeraFila, anterior, tamanoBloque, alCargar) -> {
+            FiltroTickets filtro = filtroCompras;
+            tareas.ejecutar("compras-" + primeraFila,
+                    () -> modelo.getBloqueCompras(primeraFila, anterior, tamanoBloque, filtro), alCargar);
+        });
+    }
+
+    /**
+     * Añade los listeners de las barras de filtro y de las cabeceras de las tablas de videojuegos y compras.
+     * Cada cambio en un filtro reinicia un temporizador, y la consulta solo se lanza cuando el usuario
+     * deja de escribir durante {@link #RETARDO_FILTRO} milisegundos. Al pulsar una cabecera se ordena
+     * la tabla por esa columna, y al volver a pulsarla se invierte el orden.
+     */
+    private void addFiltroListeners() {
+        temporizadorFiltroJuegos = new Timer(RETARDO_FILTRO, e -> aplicarFiltroJuegos(
+                filtroJuegos.getOrdenarPor(), filtroJuegos.isDescendente()));
+        temporizadorFiltroJuegos.setRepeats(false);
+        alEscribir(vista.tfFiltroJuegoTitulo, temporizadorFiltroJuegos::restart);
+        alEscribir(vista.tfFiltroJuegoPrecioMin, temporizadorFiltroJuegos::restart);
+        alEscribir(vista.tfFiltroJuegoPrecioMax, temporizadorFiltroJuegos::restart);
+        vista.cbFiltroJuegoGenero.addActionListener(e -> temporizadorFiltroJuegos.restart());
+        vista.cbFiltroJuegoPlataforma.addActionListener(e -> temporizadorFiltroJuegos.restart());
+        vista.dpFiltroJuegoDesde.addDateChangeListener(e -> temporizadorFiltroJuegos.restart());
+        vista.dpFiltroJuegoHasta.addDateChangeListener(e -> temporizadorFiltroJuegos.restart());
+
+        temporizadorFiltroCompras = new Timer(RETARDO_FILTRO, e -> aplicarFiltroCompras(
+                filtroCompras.getOrdenarPor(), filtroCompras.isDescendente()));
+        temporizadorFiltroCompras.setRepeats(false);
+        alEscribir(vista.tfFiltroCompraUsuario, temporizadorFiltroCompras::restart);
+        vista.cbFiltroCompraPago.addActionListener(e -> temporizadorFiltroCompras.restart());
+        vista.dpFiltroCompraDesde.addDateChangeListener(e -> temporizadorFiltroCompras.restart());
+        vista.dpFiltroCompraHasta.addDateChangeListener(e -> temporizadorFiltroCompras.restart());
+
+        addOrdenAlPulsarCabecera(vista.tablaJuegos, ORDEN_JUEGOS, () -> filtroJuegos, this::aplicarFiltroJuegos);
+        addOrdenAlPulsarCabecera(vista.tablaCompras, ORDEN_COMPRAS, () -> filtroCompras, this::aplicarFiltroCompras);
+    }
+
+    /**
+     * Ejecuta una acción cada vez que cambia el texto de un campo.
+     * @param campo El campo de texto.
+     * @param accion La acción, por ejemplo reiniciar el temporizador que lanza un filtro.
+     */
+    private void alEscribir(JTextField campo, Runnable accion) {
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                accion.run();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                accion.run();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                accion.run();
+            }
+        });
+    }
+
+    /**
+     * Ordena una tabla filtrable por la columna cuya cabecera se pulsa.
+     * @param tabla La tabla.
+     * @param campos El campo de la entidad que corresponde a cada columna, o null si no se puede ordenar.
+     * @param vigente Obtiene el filtro vigente de la tabla, con su orden actual.
+     * @param ordenar La acción que aplica el filtro con el campo y el sentido de orden indicados.
+     */
+    private void addOrdenAlPulsarCabecera(JTable tabla, String[] campos, Supplier<Filtro> vigente,
+                                          BiConsumer<String, Boolean> ordenar) {
+        tabla.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int columna = tabla.convertColumnIndexToModel(tabla.columnAtPoint(e.getPoint()));
+                if (columna < 0 || campos[columna] == null) {
+                    return;
+                }
+                Filtro filtro = vigente.get();
+                boolean descendente = campos[columna].equals(filtro.getOrdenarPor()) && !filtro.isDescendente();
+                ordenar.accept(campos[columna], descendente);
+            }
+        });
+    }
+
+    /**
+     * Convierte los combo boxes de desarrolladores, videojuegos y usuarios en buscadores que piden
+     * sus opciones a la base de datos por prefijo, en lugar de cargar todas las entidades.
+     * Cada combo tiene su propia clave de tarea, así que una búsqueda nueva cancela la anterior del mismo combo.
+     */
+    private void addCombosDeBusqueda() {
+        comboDesarrolladores = new ComboBusqueda(vista.cbJuegoDesarrolladores, LIMITE_OPCIONES,
+                (prefijo, limite, alConsultar) -> tareas.ejecutar("opcionesDesarrolladores",
+                        () -> modelo.getOpcionesDevs(prefijo, limite), alConsultar));
+        comboJuegosPuntuacion = new ComboBusqueda(vista.cbRatingJuego, LIMITE_OPCIONES,
+                (prefijo, limite, alConsultar) -> tareas.ejecutar("opcionesJuegosPuntuacion",
+                        () -> modelo.getOpcionesJuegos(prefijo, limite), alConsultar));
+        comboJuegosCompra = new ComboBusqueda(vista.cbCompraJuegos, LIMITE_OPCIONES,
+                (prefijo, limite, alConsultar) -> tareas.ejecutar("opcionesJuegosCompra",
+                        () -> modelo.getOpcionesJuegos(prefijo, limite), alConsultar));
+        comboUsuariosCompra = new ComboBusqueda(vista.cbCompraUsuarios, LIMITE_OPCIONES,
+                (prefijo, limite, alConsultar) -> tareas.ejecutar("opcionesUsuarios",
+                        () -> modelo.getOpcionesUsuarios(prefijo, limite), alConsultar));
+    }
+
+    /**
+     * Descarta las opciones de todos los combo boxes de búsqueda, que se vuelven a pedir al usarlos.
+     */
+    private void recargarCombos() {
+        comboDesarrolladores.recargar();
+        comboJuegosPuntuacion.recargar();
+        comboJuegosCompra.recargar();
+        comboUsuariosCompra.recargar();
+    }
+
+    /**
+     * Añade los listeners del campo de búsqueda. Cada cambio en el texto consulta el índice en memoria
+     * y muestra los resultados bajo el campo; al elegir uno, o pulsar Intro para el primero, se va a su pestaña.
+     */
+    private void addBusquedaListeners() {
+        alEscribir(vista.tfBuscar, this::buscar);
+        vista.tfBuscar.addActionListener(e -> {
+            if (!resultadosBusqueda.isEmpty()) {
+                irAResultado(resultadosBusqueda.get(0));
+            }
+        });
+    }
+
+    /**
+     * Carga en segundo plano el índice de búsqueda con los datos de la base de datos.
+     */
+    private void cargarIndiceBusqueda() {
+        tareas.ejecutar("indiceBusqueda", () -> indiceBusqueda.cargar(modelo), total -> buscar());
+    }
+
+    /**
+     * Busca en el índice el texto del campo de búsqueda y muestra los resultados.
+     */
+    private void buscar() {
+        resultadosBusqueda = indiceBusqueda.buscar(vista.tfBuscar.getText(), MAXIMO_RESULTADOS);
+        vista.menuResultados.setVisible(false);
+        vista.menuResultados.removeAll();
+        if (resultadosBusqueda.isEmpty() || !vista.tfBuscar.isShowing()) {
+            return;
+        }
+        for (ResultadoBusqueda resultado : resultadosBusqueda) {
+            JMenuItem item = new JMenuItem(resultado.toString());
+            item.addActionListener(e -> irAResultado(resultado));
+            vista.menuResultados.add(item);
+        }
+        vista.menuResultados.show(vista.tfBuscar, 0, vista.tfBuscar.getHeight());
+        vista.tfBuscar.requestFocusInWindow();
+    }
+
+    /**
+     * Muestra la entidad de un resultado de búsqueda en su pestaña. Los videojuegos se filtran por
+     * su título; los desarrolladores y usuarios se seleccionan en su tabla, cargando antes las
+     * páginas necesarias si todavía no se han leído.
+     * @param resultado El resultado elegido.
+     */
+    private void irAResultado(ResultadoBusqueda resultado) {
+        vista.menuResultados.setVisible(false);
+        if (resultado.getClase() == Videojuego.class) {
+            vista.tabbedPane1.setSelectedIndex(PESTANA_VIDEOJUEGOS);
+            vista.tfFiltroJuegoTitulo.setText(resultado.getDescripcion());
+        } else if (resultado.getClase() == Desarrollador.class) {
+            vista.tabbedPane1.setSelectedIndex(PESTANA_DESARROLLADORES);
+            seleccionarPorId(vista.tablaDesarrolladores, vista.ctmDesarrolladores, paginaDevs, "desarrolladores",
+                    modelo::getPaginaDevs, this::mostrarPaginaDevs, resultado.getId());
+        } else if (resultado.getClase() == Usuario.class) {
+            vista.tabbedPane1.setSelectedIndex(PESTANA_USUARIOS);
+            seleccionarPorId(vista.tablaUsuarios, vista.ctmUsuarios, paginaUsuarios, "usuarios",
+                    modelo::getPaginaUsers, this::mostrarPaginaUsuarios, resultado.getId());
+        }
+    }
+
+    /**
+     * Selecciona la fila de una entidad en una tabla paginada por id. Si su página aún no se ha
+     * cargado, se leen en segundo plano las páginas que faltan hasta llegar a ella.
+     * @param tabla La tabla.
+     * @param modeloTabla El modelo de la tabla.
+     * @param ultima La última página cargada en la tabla, o null si no se ha listado.
+     * @param clave La clave de las tareas que cargan páginas de la tabla.
+     * @param siguiente La consulta que lee la página siguiente a una dada.
+     * @param mostrar La acción que añade una página a la tabla.
+     * @param id El id de la entidad.
+     * @param <T> El tipo de las entidades de la tabla.
+     */
+    private <T> void seleccionarPorId(JTable tabla, EntidadesTableModel<T> modeloTabla, Pagina<T> ultima,
+                                      String clave, BiFunction<Pagina<T>, Integer, Pagina<T>> siguiente,
+                                      Consumer<Pagina<T>> mostrar, int id) {
+        if (seleccionarFila(tabla, modeloTabla.indexOfId(id))
+                || ultima == null || !ultima.hayMas() || ultima.getUltimoId() >= id) {
+            return;
+        }
+        tareas.ejecutar(clave, () -> {
+            List<T> elementos = new ArrayList<>();
+            Pagina<T> pagina = ultima;
+            do {
+                pagina = siguiente.apply(pagina, TAMANO_PAGINA);
+                elementos.addAll(pagina.getElementos());
+            } while (pagina.hayMas() && pagina.getUltimoId() < id);
+            return new Pagina<>(elementos, pagina.getOrdenarPor(), pagina.getUltimoValor(),
+                    pagina.getUltimoId(), pagina.hayMas());
+        }, pagina -> {
+            mostrar.accept(pagina);
+            seleccionarFila(tabla, modeloTabla.indexOfId(id));
+        });
+    }
+
+    /**
+     * Selecciona una fila de una tabla y la desplaza hasta que sea visible.
+     * @param tabla La tabla.
+     * @param fila El índice de la fila, o -1.
+     * @return true si se ha seleccionado la fila.
+     */
+    private boolean seleccionarFila(JTable tabla, int fila) {
+        if (fila < 0) {
+            return false;
+        }
+        tabla.setRowSelectionInterval(fila, fila);
+        tabla.scrollRectToVisible(tabla.getCellRect(fila, 0, true));
+        return true;
+    }
+
+    /**
+     * Lee la barra de filtro de videojuegos, sustituye el filtro vigente y vuelve a contar la tabla.
+     * @param ordenarPor El campo por el que se ordena la tabla.
+     * @param descendente true para ordenar de mayor a menor.
+     */
+    private void aplicarFiltroJuegos(String ordenarPor, boolean descendente) {
+        FiltroVideojuegos filtro = new FiltroVideojuegos();
+        filtro.setTitulo(textoFiltro(vista.tfFiltroJuegoTitulo));
+        filtro.setGenero(vista.cbFiltroJuegoGenero.getSelectedIndex() > 0
+                ? (String) vista.cbFiltroJuegoGenero.getSelectedItem() : null);
+        filtro.setPlataforma(vista.cbFiltroJuegoPlataforma.getSelectedIndex() > 0
+                ? (String) vista.cbFiltroJuegoPlataforma.getSelectedItem() : null);
+        filtro.setPrecioMinimo(numeroFiltro(vista.tfFiltroJuegoPrecioMin));
+        filtro.setPrecioMaximo(numeroFiltro(vista.tfFiltroJuegoPrecioMax));
+        filtro.setLanzamientoDesde(fechaFiltro(vista.dpFiltroJuegoDesde));
+        filtro.setLanzamientoHasta(fechaFiltro(vista.dpFiltroJuegoHasta));
+        filtro.setOrdenarPor(ordenarPor);
+        filtro.setDescendente(descendente);
+        filtroJuegos = filtro;
+        listarTablaJuegos();
+    }
+
+    /**
+     * Lee la barra de filtro de compras, sustituye el filtro vigente y vuelve a contar la tabla.
+     * @param ordenarPor El campo por el que se ordena la tabla.
+     * @param descendente true para ordenar de mayor a menor.
+     */
+    private void aplicarFiltroCompras(String ordenarPor, boolean descendente) {
+        FiltroTickets filtro = new FiltroTickets();
+        filtro.setFechaDesde(fechaFiltro(vista.dpFiltroCompraDesde));
+        filtro.setFechaHasta(fechaFiltro(vista.dpFiltroCompraHasta));
+        filtro.setUsuario(textoFiltro(vista.tfFiltroCompraUsuario));
+        filtro.setFormaPago(vista.cbFiltroCompraPago.getSelectedIndex() > 0
+                ? (String) vista.cbFiltroCompraPago.getSelectedItem() : null);
+        filtro.setOrdenarPor(ordenarPor);
+        filtro.setDescendente(descendente);
+        filtroCompras = filtro;
+        listarTablaCompras();
+    }
+
+    /**
+     * Obtiene el texto de un campo de filtro.
+     * @param campo El campo de texto.
+     * @return El texto sin espacios al principio ni al final, o null si está vacío.
+     */
+    private String textoFiltro(JTextField campo) {
+        String texto = campo.getText().trim();
+        return texto.isEmpty() ? null : texto;
+    }
+
+    /**
+     * Obtiene el número de un campo de filtro. Admite la coma como separador decimal.
+     * @param campo El campo de texto.
+     * @return El número, o null si el campo está vacío o no es un número, en cuyo caso no filtra.
+     */
+    private Double numeroFiltro(JTextField campo) {
+        String texto = textoFiltro(campo);
+        if (texto == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(texto.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene la fecha de un selector de fecha de filtro.
+     * @param selector El selector de fecha.
+     * @return La fecha, o null si no se ha elegido ninguna.
+     */
+    private Date fechaFiltro(DatePicker selector) {
+        return selector.getDate() == null ? null : Date.valueOf(selector.getDate());
+    }
+
+    /**
+     * Añade un listener a la barra de scroll vertical de una tabla o lista que ejecuta la carga
+     * de la siguiente página cuando se llega a las últimas filas.
+     * @param tabla La tabla o lista cuya barra de scroll se escucha.
+     * @param cargarSiguientePagina La acción que carga la siguiente página de la tabla.
+     */
+    private void addPaginacionAlHacerScroll(JComponent tabla, Runnable cargarSiguientePagina) {
+        JScrollPane scroll = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, tabla);
+        scroll.getVerticalScrollBar().addAdjustmentListener((AdjustmentEvent e) -> {
+            JScrollBar barra = scroll.getVerticalScrollBar();
+            if (barra.getValue() + barra.getVisibleAmount() >= barra.getMaximum() - MARGEN_SCROLL) {
+                cargarSiguientePagina.run();
+            }
+        });
+    }
+
     /**
      * Método que maneja los eventos de acción generados por los componentes de la vista.
      * Este método se invoca cuando el usuario realiza una acción, como hacer clic en un botón
@@ -147,27 +599,97 @@ public class Controlador implements ActionListener, ListSelectionListener {
     public void actionPerformed(ActionEvent e) {
         switch (e.getActionCommand()) {
             case "Conectar":
-                modelo.conectar();
-                listarTodo();
+                tareas.escribir(modelo::conectar, () -> {
+                    listarTodo();
+                    cargarIndiceBusqueda();
+                });
                 break;
             case "Salir":
-                System.exit(0);
+                salir();
                 break;
-            case "Ver Videojuegos":
-                if (vistaListaEntidad == null) {
-                    vistaListaEntidad = new VistaListaEntidad();
+            case "Estadisticas":
+                tareas.ejecutar("estadisticas",
+                        () -> modelo.getEstadisticasPool() + "\n\n" + modelo.getEstadisticasCache(),
+                        Util::showInfoAlert);
+                break;
+            case "ImportarVideojuegos":
+                importar(TipoImportacion.VIDEOJUEGOS);
+                break;
+            case "ImportarDesarrolladores":
+                importar(TipoImportacion.DESARROLLADORES);
+                break;
+            case "ImportarPuntuaciones":
+                importar(TipoImportacion.PUNTUACIONES);
+                break;
+            case "ExportarTickets":
+                exportarTickets();
+                break;
+            case "FusionarCambios":
+                modelo.setFusionarCambios(vista.itemFusionarCambios.isSelected());
+                break;
+            case "ReconstruirResumenes":
+                if (tareas.estaEnCurso("resumenes")) {
+                    Util.showWarningAlert("Ya se están reconstruyendo los resúmenes de ventas");
+                    return;
                 }
+                tareas.ejecutar("resumenes", modelo::reconstruirResumenesVentas,
+                        diferencias -> Util.showInfoAlert("Resúmenes de ventas reconstruidos.\n" +
+                                (diferencias == 0 ? "Coincidían con las líneas de ticket." :
+                                        "Se han corregido " + diferencias + " filas que no coincidían.")));
+                break;
+            case "limpiarFiltroJuegos":
+                vista.tfFiltroJuegoTitulo.setText(null);
+                vista.cbFiltroJuegoGenero.setSelectedIndex(0);
+                vista.cbFiltroJuegoPlataforma.setSelectedIndex(0);
+                vista.tfFiltroJuegoPrecioMin.setText(null);
+                vista.tfFiltroJuegoPrecioMax.setText(null);
+                vista.dpFiltroJuegoDesde.setDate(null);
+                vista.dpFiltroJuegoHasta.setDate(null);
+                break;
+            case "limpiarFiltroCompras":
+                vista.dpFiltroCompraDesde.setDate(null);
+                vista.dpFiltroCompraHasta.setDate(null);
+                vista.tfFiltroCompraUsuario.setText(null);
+                vista.cbFiltroCompraPago.setSelectedIndex(0);
+                break;
+            case "generarInforme":
+                TipoInforme tipoInforme = (TipoInforme) vista.cbInformeTipo.getSelectedItem();
+                Date informeDesde = fechaFiltro(vista.dpInformeDesde);
+                Date informeHasta = fechaFiltro(vista.dpInformeHasta);
+                tareas.ejecutar("informe",
+                        () -> modelo.getInformeVentas(tipoInforme, informeDesde, informeHasta, LIMITE_INFORME),
+                        filas -> vista.ctmInforme.setFilas(tipoInforme, filas));
+                break;
+            case "Ver Videojuegos":
+                abrirVistaListaEntidad();
+                paginaTicketsUsuario = null;
                 int filaSelec = vista.tablaDesarrolladores.getSelectedRow();
                 int idid = Integer.parseInt(String.valueOf(vista.tablaDesarrolladores.getValueAt(filaSelec, 0)));
-                vistaListaEntidad.prepararVistaJuego("Lista Videojuegos", modelo.getDevs().get(idid - 1).getJuegos());
+                tareas.ejecutar("verLista", () -> modelo.getDevConJuegos(idid), desarrolladorConJuegos -> {
+                    if (desarrolladorConJuegos == null) {
+                        Util.showErrorAlert("Ese desarrollador ya no existe");
+                        return;
+                    }
+                    vistaListaEntidad.prepararVistaJuego("Lista Videojuegos", desarrolladorConJuegos.getJuegos());
+                });
                 break;
             case "Ver Tickets":
-                if (vistaListaEntidad == null) {
-                    vistaListaEntidad = new VistaListaEntidad();
-                }
+                abrirVistaListaEntidad();
                 filaSelec = vista.tablaUsuarios.getSelectedRow();
-                idid = Integer.parseInt(String.valueOf(vista.tablaUsuarios.getValueAt(filaSelec, 0)));
-                vistaListaEntidad.prepararVistaTicket("Lista Tickets", modelo.getUsers().get(idid - 1).getTickets());
+                Usuario usuarioSelec = vista.ctmUsuarios.getElementAt(filaSelec);
+                int idUsuarioSelec = usuarioSelec.getId();
+                tareas.ejecutar("verLista", () -> modelo.getPaginaTicketsDeUsuario(idUsuarioSelec, null, TAMANO_PAGINA),
+                        pagina -> {
+                            paginaTicketsUsuario = pagina;
+                            idUsuarioTickets = idUsuarioSelec;
+                            vistaListaEntidad.prepararVistaTicket(resumenCompras(usuarioSelec), pagina.getElementos());
+                        });
+                break;
+            case "ReponerExistencias":
+                filaSelec = vista.tablaJuegos.getSelectedRow();
+                int idJuegoReponer = Integer.parseInt(String.valueOf(vista.tablaJuegos.getValueAt(filaSelec, 0)));
+                tareas.ejecutar("stock", () -> modelo.getStock(idJuegoReponer),
+                        stock -> reponerExistencias(idJuegoReponer, stock));
                 break;
             case "agregarDesarrollador":
                 Desarrollador nuevoDesarrollador = new Desarrollador();
@@ -175,9 +697,7 @@ public class Controlador implements ActionListener, ListSelectionListener {
                 nuevoDesarrollador.setEmail(vista.tfDevEmail.getText());
                 nuevoDesarrollador.setExperiencia(Integer.parseInt(vista.tfDevExperiencia.getText()));
                 nuevoDesarrollador.setTipo(String.valueOf(vista.cbDevTipoDesarrollo.getSelectedItem()));
-                modelo.guardar(nuevoDesarrollador);
-                limpiarCamposDesarrollador();
-                listarDesarrolladores();
+                tareas.escribir(() -> modelo.guardar(nuevoDesarrollador), this::limpiarCamposDesarrollador);
                 break;
             case "agregarJuego":
                 Videojuego nuevoVideojuego = new Videojuego();
@@ -187,19 +707,22 @@ public class Controlador implements ActionListener, ListSelectionListener {
                 nuevoVideojuego.setPlataforma(elegirPlataforma());
                 nuevoVideojuego.setFechaLanzamiento(Date.valueOf(vista.dpJuegoLanzamiento.getDate()));
                 nuevoVideojuego.setDesarrolladores(agregarDevsAJuego());
-                modelo.guardar(nuevoVideojuego);
-                limpiarCamposVideojuego();
-                listarVideojuegos();
+                tareas.escribir(() -> modelo.guardar(nuevoVideojuego), this::limpiarCamposVideojuego);
                 break;
             case "agregarPuntuacion":
+                OpcionCombo juegoPuntuado = comboJuegosPuntuacion.getSeleccion();
+                if (juegoPuntuado == null) {
+                    Util.showErrorAlert("Debes seleccionar un videojuego");
+                    return;
+                }
                 Puntuacion nuevaPuntuacion = new Puntuacion();
-                nuevaPuntuacion.setJuego((Videojuego) vista.cbRatingJuego.getSelectedItem());
                 nuevaPuntuacion.setFuente(vista.tfRatingFuente.getText());
                 nuevaPuntuacion.setNotaVideojuego(Double.parseDouble(vista.tfRatingPuntuacion.getText()));
                 nuevaPuntuacion.setFechaNota(Date.valueOf(String.valueOf(vista.dpRatingFecha.getDate())));
-                modelo.guardar(nuevaPuntuacion);
-                limpiarCamposPuntuacion();
-                listarPuntuaciones();
+                tareas.escribir(() -> {
+                    nuevaPuntuacion.setJuego(modelo.getPorId(Videojuego.class, juegoPuntuado.getId()));
+                    modelo.guardar(nuevaPuntuacion);
+                }, this::limpiarCamposPuntuacion);
                 break;
             case "agregarUsuario":
                 Usuario nuevoUsuario = new Usuario();
@@ -209,22 +732,30 @@ public class Controlador implements ActionListener, ListSelectionListener {
                 nuevoUsuario.setDireccion(vista.tfUserDireccion.getText());
                 nuevoUsuario.setEmail(vista.tfUserEmail.getText());
                 nuevoUsuario.setTelefono(vista.tfUserTelefono.getText());
-                modelo.guardar(nuevoUsuario);
-                limpiarCamposUsuario();
-                listarUsuarios();
+                tareas.escribir(() -> modelo.guardar(nuevoUsuario), this::limpiarCamposUsuario);
                 break;
             case "agregarCompra":
+                OpcionCombo comprador = comboUsuariosCompra.getSeleccion();
+                if (comprador == null) {
+                    Util.showErrorAlert("Debes seleccionar un usuario");
+                    return;
+                }
+                //Un ticket sin líneas no cuenta en los resúmenes de ventas, así que no se permite
+                if (vista.dlmJuegosDeCompra.isEmpty()) {
+                    Util.showErrorAlert("Debes añadir al menos un videojuego a la compra");
+                    return;
+                }
                 Ticket nuevoTicket = new Ticket();
-                nuevoTicket.setCodigoTicket(Util.generarTicket(modelo.getUltimaCompra().getCodigoTicket()));
-                nuevoTicket.setUsuario((Usuario) vista.cbCompraUsuarios.getSelectedItem());
                 nuevoTicket.setDetallesTicket(agregarDetallesATicket());
                 asignarTicketADetalles(nuevoTicket, nuevoTicket.getDetallesTicket());
                 nuevoTicket.setFormaPago(vista.rbCompraEfectivo.isSelected() ? "Efectivo" : "Tarjeta");
                 nuevoTicket.setFechaTicket(Date.valueOf(String.valueOf(vista.dpCompraFecha.getDate())));
                 nuevoTicket.setTotal(agregarTotalAlTicket(nuevoTicket.getDetallesTicket()));
-                modelo.guardarTicket(nuevoTicket);
-                limpiarCamposCompra();
-                listarCompras();
+                tareas.escribir(() -> {
+                    nuevoTicket.setUsuario(modelo.getPorId(Usuario.class, comprador.getId()));
+                    nuevoTicket.setCodigoTicket(codigosTicket.siguienteCodigo());
+                    modelo.guardarTicket(nuevoTicket);
+                }, this::limpiarCamposCompra);
                 break;
             case "modificarDesarrollador":
                 int filaDesarrollador = vista.tablaDesarrolladores.getSelectedRow();
@@ -278,37 +809,54 @@ public class Controlador implements ActionListener, ListSelectionListener {
                     return;
                 }
                 int idDev = Integer.parseInt(String.valueOf(vista.tablaDesarrolladores.getValueAt(filaDesarrollador, 0)));
-                Desarrollador desarrolladorABorrar = modelo.getDevs().get(idDev - 1);
-                modelo.eliminar(desarrolladorABorrar, "desarrollador");
-                listarDesarrolladores();
+                tareas.escribir(() -> {
+                    Desarrollador desarrolladorABorrar = modelo.getPorId(Desarrollador.class, idDev);
+                    if (desarrolladorABorrar != null) {
+                        modelo.eliminar(desarrolladorABorrar, "desarrollador");
+                    }
+                }, () -> {});
                 break;
             case "eliminarJuego":
                 filaJuego = vista.tablaJuegos.getSelectedRow();
                 int idJuego = Integer.parseInt(String.valueOf(vista.tablaJuegos.getValueAt(filaJuego, 0)));
-                Videojuego juegoABorrar = modelo.getGames().get(idJuego - 1);
-                modelo.eliminar(juegoABorrar, "videojuego");
-                listarVideojuegos();
+                int idJuegoABorrar = idJuego;
+                tareas.escribir(() -> {
+                    Videojuego juegoABorrar = modelo.getPorId(Videojuego.class, idJuegoABorrar);
+                    if (juegoABorrar != null) {
+                        modelo.eliminar(juegoABorrar, "videojuego");
+                    }
+                }, () -> {});
                 break;
             case "eliminarPuntuacion":
                 int filaPuntuacion = vista.tablaPuntuaciones.getSelectedRow();
-                int idRating = Integer.parseInt(String.valueOf(vista.tablaDesarrolladores.getValueAt(filaPuntuacion, 0)));
-                Puntuacion puntuacionABorrar = modelo.getRatings().get(idRating - 1);
-                modelo.eliminar(puntuacionABorrar, "puntuación");
-                listarPuntuaciones();
+                int idRating = Integer.parseInt(String.valueOf(vista.tablaPuntuaciones.getValueAt(filaPuntuacion, 0)));
+                tareas.escribir(() -> {
+                    Puntuacion puntuacionABorrar = modelo.getPorId(Puntuacion.class, idRating);
+                    if (puntuacionABorrar != null) {
+                        modelo.eliminar(puntuacionABorrar, "puntuación");
+                    }
+                }, () -> {});
                 break;
             case "eliminarUsuario":
                 filaUsuario = vista.tablaUsuarios.getSelectedRow();
                 int idUsuario = Integer.parseInt(String.valueOf(vista.tablaUsuarios.getValueAt(filaUsuario, 0)));
-                Usuario usuarioABorrar = modelo.getUsers().get(idUsuario - 1);
-                modelo.eliminar(usuarioABorrar, "usuario");
-                listarUsuarios();
+                int idUsuarioABorrar = idUsuario;
+                tareas.escribir(() -> {
+                    Usuario usuarioABorrar = modelo.getPorId(Usuario.class, idUsuarioABorrar);
+                    if (usuarioABorrar != null) {
+                        modelo.eliminar(usuarioABorrar, "usuario");
+                    }
+                }, () -> {});
                 break;
             case "eliminarCompra":
                 filaCompra = vista.tablaCompras.getSelectedRow();
-                int idCompra = Integer.parseInt(String.valueOf(vista.tablaUsuarios.getValueAt(filaCompra, 0)));
-                Ticket ticketABorrar = modelo.getCompras().get(idCompra - 1);
-                modelo.eliminar(ticketABorrar, "compra");
-                listarCompras();
+                int idCompra = Integer.parseInt(String.valueOf(vista.tablaCompras.getValueAt(filaCompra, 0)));
+                tareas.escribir(() -> {
+                    Ticket ticketABorrar = modelo.getPorId(Ticket.class, idCompra);
+                    if (ticketABorrar != null) {
+                        modelo.eliminar(ticketABorrar, "compra");
+                    }
+                }, () -> {});
                 break;
             case "limpiarSeleccionDesarrollador":
                 bloquearParametrosDesarrollador(false);
@@ -349,11 +897,11 @@ public class Controlador implements ActionListener, ListSelectionListener {
                 otroDesarrollador.setEmail(vista.tfDevEmail.getText());
                 otroDesarrollador.setExperiencia(Integer.parseInt(vista.tfDevExperiencia.getText()));
                 otroDesarrollador.setTipo(String.valueOf(vista.cbDevTipoDesarrollo.getSelectedItem()));
-                modelo.modificar(otroDesarrollador);
-                limpiarCamposDesarrollador();
-                listarDesarrolladores();
-                listarVideojuegos();
-                vista.bDevCancelarModificacion.doClick();
+                Desarrollador desarrolladorLeido = vista.ctmDesarrolladores.getElementAt(filaDesarrollador);
+                tareas.escribir(() -> modelo.modificar(otroDesarrollador, desarrolladorLeido), () -> {
+                    limpiarCamposDesarrollador();
+                    vista.bDevCancelarModificacion.doClick();
+                });
                 break;
             case "efectuarModificacionJuego":
                 filaJuego = vista.tablaJuegos.getSelectedRow();
@@ -366,26 +914,37 @@ public class Controlador implements ActionListener, ListSelectionListener {
                 otroJuego.setPlataforma(elegirPlataforma());
                 otroJuego.setFechaLanzamiento(Date.valueOf(vista.dpJuegoLanzamiento.getDate()));
                 otroJuego.setDesarrolladores(agregarDevsAJuego());
-                modelo.modificar(otroJuego);
-                limpiarCamposVideojuego();
-                listarVideojuegos();
-                listarPuntuaciones();
-                listarCompras();
-                vista.bJuegoCancelarModificacion.doClick();
+                Videojuego juegoLeido = vista.ctmJuegos.getElementAt(filaJuego);
+                if (juegoLeido == null) {
+                    Util.showErrorAlert("Vuelve a seleccionar el videojuego");
+                    return;
+                }
+                tareas.escribir(() -> modelo.modificar(otroJuego, juegoLeido), () -> {
+                    limpiarCamposVideojuego();
+                    vista.bJuegoCancelarModificacion.doClick();
+                });
                 break;
             case "efectuarModificaciónPuntuacion":
+                OpcionCombo otroJuegoPuntuado = comboJuegosPuntuacion.getSeleccion();
+                if (otroJuegoPuntuado == null) {
+                    Util.showErrorAlert("Debes seleccionar un videojuego");
+                    return;
+                }
                 filaPuntuacion = vista.tablaPuntuaciones.getSelectedRow();
                 int idPuntuacion = Integer.parseInt(String.valueOf(vista.tablaPuntuaciones.getValueAt(filaPuntuacion, 0)));
                 Puntuacion otraPuntuacion = new Puntuacion();
                 otraPuntuacion.setId(idPuntuacion);
-                otraPuntuacion.setJuego((Videojuego) vista.cbRatingJuego.getSelectedItem());
                 otraPuntuacion.setFuente(vista.tfRatingFuente.getText());
                 otraPuntuacion.setNotaVideojuego(Double.parseDouble(vista.tfRatingPuntuacion.getText()));
                 otraPuntuacion.setFechaNota(Date.valueOf(String.valueOf(vista.dpRatingFecha.getDate())));
-                modelo.modificar(otraPuntuacion);
-                limpiarCamposPuntuacion();
-                listarPuntuaciones();
-                vista.bRatingCancelarModificacion.doClick();
+                Puntuacion puntuacionLeida = vista.ctmPuntuaciones.getElementAt(filaPuntuacion);
+                tareas.escribir(() -> {
+                    otraPuntuacion.setJuego(modelo.getPorId(Videojuego.class, otroJuegoPuntuado.getId()));
+                    modelo.modificar(otraPuntuacion, puntuacionLeida);
+                }, () -> {
+                    limpiarCamposPuntuacion();
+                    vista.bRatingCancelarModificacion.doClick();
+                });
                 break;
             case "efectuarModificaciónUsuario":
                 filaUsuario = vista.tablaUsuarios.getSelectedRow();
@@ -398,28 +957,40 @@ public class Controlador implements ActionListener, ListSelectionListener {
                 otroUsuario.setDireccion(vista.tfUserDireccion.getText());
                 otroUsuario.setEmail(vista.tfUserEmail.getText());
                 otroUsuario.setTelefono(vista.tfUserTelefono.getText());
-                modelo.modificar(otroUsuario);
-                limpiarCamposUsuario();
-                listarUsuarios();
-                listarCompras();
-                vista.bUserCancelarModificacion.doClick();
+                Usuario usuarioLeido = vista.ctmUsuarios.getElementAt(filaUsuario);
+                tareas.escribir(() -> modelo.modificar(otroUsuario, usuarioLeido), () -> {
+                    limpiarCamposUsuario();
+                    vista.bUserCancelarModificacion.doClick();
+                });
                 break;
             case "efectuarModificaciónCompra":
+                OpcionCombo otroComprador = comboUsuariosCompra.getSeleccion();
+                if (otroComprador == null) {
+                    Util.showErrorAlert("Debes seleccionar un usuario");
+                    return;
+                }
+                if (vista.dlmJuegosDeCompra.isEmpty()) {
+                    Util.showErrorAlert("Debes añadir al menos un videojuego a la compra");
+                    return;
+                }
                 int filaTicket = vista.tablaCompras.getSelectedRow();
                 int idTicket = Integer.parseInt(String.valueOf(vista.tablaCompras.getValueAt(filaTicket, 0)));
                 Ticket otroTicket = new Ticket();
                 otroTicket.setId(idTicket);
+                otroTicket.setVersion(versionCompraSeleccionada);
                 otroTicket.setCodigoTicket(String.valueOf(vista.tablaCompras.getValueAt(filaTicket, 1)));
-                otroTicket.setUsuario((Usuario) vista.cbCompraUsuarios.getSelectedItem());
                 otroTicket.setDetallesTicket(agregarDetallesATicket());
                 asignarTicketADetalles(otroTicket, otroTicket.getDetallesTicket());
                 otroTicket.setFormaPago(vista.rbCompraEfectivo.isSelected() ? "Efectivo" : "Tarjeta");
                 otroTicket.setFechaTicket(Date.valueOf(String.valueOf(vista.dpCompraFecha.getDate())));
                 otroTicket.setTotal(agregarTotalAlTicket(otroTicket.getDetallesTicket()));
-                modelo.modificarTicket(otroTicket);
-                limpiarCamposCompra();
-                listarCompras();
-                vista.bCompraCancelarModificacion.doClick();
+                tareas.escribir(() -> {
+                    otroTicket.setUsuario(modelo.getPorId(Usuario.class, otroComprador.getId()));
+                    modelo.modificarTicket(otroTicket);
+                }, () -> {
+                    limpiarCamposCompra();
+                    vista.bCompraCancelarModificacion.doClick();
+                });
                 break;
             case "cancelarModificacionDev":
                 habilitarModoModificacionDev(false);
@@ -442,12 +1013,12 @@ public class Controlador implements ActionListener, ListSelectionListener {
                 vista.bCompraLimpiar.doClick();
                 break;
             case "agregarDevAUnJuego":
-                if (vista.cbJuegoDesarrolladores.getSelectedItem() != "Elegir desarrollador") {
-                    if (!vista.dlmDevDeJuego.contains(vista.cbJuegoDesarrolladores.getSelectedItem())) {
-                        Desarrollador desarrolladorSeleccionado = (Desarrollador) vista.cbJuegoDesarrolladores.getSelectedItem();
-                        System.out.println(desarrolladorSeleccionado.getNombre() + " -- " + desarrolladorSeleccionado.getEmail() + " -- " +
-                                desarrolladorSeleccionado.getTipo());
-                        vista.dlmDevDeJuego.addElement(desarrolladorSeleccionado);
+                OpcionCombo desarrolladorSeleccionado = comboDesarrolladores.getSeleccion();
+                if (desarrolladorSeleccionado != null) {
+                    if (!estaDesarrolladorEnLaLista(desarrolladorSeleccionado.getId())) {
+                        tareas.ejecutar("desarrolladorDeJuego",
+                                () -> modelo.getPorId(Desarrollador.class, desarrolladorSeleccionado.getId()),
+                                this::agregarDesarrolladorALista);
                     } else {
                         Util.showErrorAlert("Ese desarrollador ya esta en la lista");
                     }
@@ -456,7 +1027,8 @@ public class Controlador implements ActionListener, ListSelectionListener {
                 }
                 break;
             case "agregarJuegoACompra":
-                if (vista.cbCompraJuegos.getSelectedItem() == "Elegir videojuego") {
+                OpcionCombo juegoComprado = comboJuegosCompra.getSeleccion();
+                if (juegoComprado == null) {
                     Util.showErrorAlert("Debes seleccionar un videojuego");
                     return;
                 }
@@ -465,25 +1037,11 @@ public class Controlador implements ActionListener, ListSelectionListener {
                     return;
                 }
                 int cantidad = Integer.parseInt(vista.tfCompraCantidad.getText());
-                Videojuego juegoSeleccionado = (Videojuego) vista.cbCompraJuegos.getSelectedItem();
-                if (!estaJuegoEnLaLista(juegoSeleccionado)) {
-                    DetalleTicket unDetalle = new DetalleTicket();
-                    unDetalle.setJuego(juegoSeleccionado);
-                    unDetalle.setCantidad(cantidad);
-                    unDetalle.setTotal(juegoSeleccionado.getPrecio() * cantidad);
-                    vista.dlmJuegosDeCompra.addElement(unDetalle);
-                } else {
-                    DetalleTicket otroDetalle = null;
-                    for (int i = 0; i < vista.dlmJuegosDeCompra.size(); i++) {
-                        if (vista.dlmJuegosDeCompra.get(i).getJuego().getId() == juegoSeleccionado.getId()) {
-                            otroDetalle = vista.dlmJuegosDeCompra.get(i);
-                            int nuevaCantidad = otroDetalle.getCantidad() + cantidad;
-                            otroDetalle.setCantidad(nuevaCantidad);
-                            otroDetalle.setTotal(juegoSeleccionado.getPrecio() * nuevaCantidad);
-                            vista.dlmJuegosDeCompra.set(i, otroDetalle);
-                        }
-                    }
-                }
+                TareasEnSegundoPlano.Grupo juegoDeCompra = tareas.grupo("juegoDeCompra");
+                CompletableFuture<Videojuego> juegoComprar =
+                        juegoDeCompra.lanzar(() -> modelo.getPorId(Videojuego.class, juegoComprado.getId()));
+                CompletableFuture<Integer> stockLeido = juegoDeCompra.lanzar(() -> modelo.getStock(juegoComprado.getId()));
+                juegoDeCompra.alTerminar(() -> reservarJuegoDeCompra(juegoComprar.join(), cantidad, stockLeido.join()));
                 break;
             case "eliminarDevAUnJuego":
                 int devDeUnJuegoSeleccionado = vista.listaDesarrolladoresDeJuego.getSelectedIndex();
@@ -500,7 +1058,7 @@ public class Controlador implements ActionListener, ListSelectionListener {
                     Util.showErrorAlert("Debes seleccionar un juego");
                     return;
                 }
-                vista.dlmJuegosDeCompra.remove(filaABorrar);
+                liberarReserva(vista.dlmJuegosDeCompra.remove(filaABorrar).getJuego().getId());
                 break;
         }
     }
@@ -519,16 +1077,19 @@ public class Controlador implements ActionListener, ListSelectionListener {
                     !vista.tablaDesarrolladores.getSelectionModel().isSelectionEmpty()) {
                 int fila = vista.tablaDesarrolladores.getSelectedRow();
 
-                vista.tfDevNombre.setText(String.valueOf(vista.dtmDesarrollador.getValueAt(fila, 1)));
-                vista.tfDevEmail.setText(String.valueOf(vista.dtmDesarrollador.getValueAt(fila, 2)));
-                vista.tfDevExperiencia.setText(String.valueOf(vista.dtmDesarrollador.getValueAt(fila, 3)));
-                vista.cbDevTipoDesarrollo.setSelectedItem(String.valueOf(vista.dtmDesarrollador.getValueAt(fila, 4)));
+                vista.tfDevNombre.setText(String.valueOf(vista.ctmDesarrolladores.getValueAt(fila, 1)));
+                vista.tfDevEmail.setText(String.valueOf(vista.ctmDesarrolladores.getValueAt(fila, 2)));
+                vista.tfDevExperiencia.setText(String.valueOf(vista.ctmDesarrolladores.getValueAt(fila, 3)));
+                vista.cbDevTipoDesarrollo.setSelectedItem(String.valueOf(vista.ctmDesarrolladores.getValueAt(fila, 4)));
 
                 vista.bDevLimpiar.setVisible(true);
                 bloquearParametrosDesarrollador(true);
             } else if (e.getSource() == vista.tablaJuegos.getSelectionModel() &&
                     !vista.tablaJuegos.getSelectionModel().isSelectionEmpty()) {
                 int fila = vista.tablaJuegos.getSelectedRow();
+                if (vista.ctmJuegos.getElementAt(fila) == null) {
+                    return;
+                }
 
                 vista.tfJuegoTitulo.setText(String.valueOf(vista.ctmJuegos.getValueAt(fila, 1)));
                 vista.cbJuegoGenero.setSelectedItem(String.valueOf(vista.ctmJuegos.getValueAt(fila, 2)));
@@ -543,10 +1104,12 @@ public class Controlador implements ActionListener, ListSelectionListener {
                     !vista.tablaPuntuaciones.getSelectionModel().isSelectionEmpty()) {
                 int fila = vista.tablaPuntuaciones.getSelectedRow();
 
-                vista.cbRatingJuego.setSelectedItem(vista.dtmPuntuaciones.getValueAt(fila, 1));
-                vista.tfRatingFuente.setText(String.valueOf(vista.dtmPuntuaciones.getValueAt(fila, 2)));
-                vista.tfRatingPuntuacion.setText(String.valueOf(vista.dtmPuntuaciones.getValueAt(fila, 3)));
-                vista.dpRatingFecha.setDate(Date.valueOf(String.valueOf(vista.dtmPuntuaciones.getValueAt(fila, 4))).toLocalDate());
+                Videojuego juegoPuntuado = vista.ctmPuntuaciones.getElementAt(fila).getJuego();
+                comboJuegosPuntuacion.seleccionar(juegoPuntuado == null ? null
+                        : new OpcionCombo(juegoPuntuado.getId(), juegoPuntuado.toString()));
+                vista.tfRatingFuente.setText(String.valueOf(vista.ctmPuntuaciones.getValueAt(fila, 2)));
+                vista.tfRatingPuntuacion.setText(String.valueOf(vista.ctmPuntuaciones.getValueAt(fila, 3)));
+                vista.dpRatingFecha.setDate(Date.valueOf(String.valueOf(vista.ctmPuntuaciones.getValueAt(fila, 4))).toLocalDate());
 
                 vista.bRatingLimpiar.setVisible(true);
                 bloquearParametrosPuntuacion(true);
@@ -554,25 +1117,30 @@ public class Controlador implements ActionListener, ListSelectionListener {
                     !vista.tablaUsuarios.getSelectionModel().isSelectionEmpty()) {
                 int fila = vista.tablaUsuarios.getSelectedRow();
 
-                vista.tfUserNombre.setText(String.valueOf(vista.dtmUsuario.getValueAt(fila, 1)));
-                vista.tfUserApellidos.setText(String.valueOf(vista.dtmUsuario.getValueAt(fila, 2)));
-                vista.tfUserDNI.setText(String.valueOf(vista.dtmUsuario.getValueAt(fila, 3)));
-                vista.tfUserDireccion.setText(String.valueOf(vista.dtmUsuario.getValueAt(fila, 4)));
-                vista.tfUserEmail.setText(String.valueOf(vista.dtmUsuario.getValueAt(fila, 5)));
-                vista.tfUserTelefono.setText(String.valueOf(vista.dtmUsuario.getValueAt(fila, 6)));
+                vista.tfUserNombre.setText(String.valueOf(vista.ctmUsuarios.getValueAt(fila, 1)));
+                vista.tfUserApellidos.setText(String.valueOf(vista.ctmUsuarios.getValueAt(fila, 2)));
+                vista.tfUserDNI.setText(String.valueOf(vista.ctmUsuarios.getValueAt(fila, 3)));
+                vista.tfUserDireccion.setText(String.valueOf(vista.ctmUsuarios.getValueAt(fila, 4)));
+                vista.tfUserEmail.setText(String.valueOf(vista.ctmUsuarios.getValueAt(fila, 5)));
+                vista.tfUserTelefono.setText(String.valueOf(vista.ctmUsuarios.getValueAt(fila, 6)));
 
                 vista.bUserLimpiar.setVisible(true);
                 bloquearParametrosUsuario(true);
             } else if (e.getSource() == vista.tablaCompras.getSelectionModel() &&
                     !vista.tablaCompras.getSelectionModel().isSelectionEmpty()) {
                 int fila = vista.tablaCompras.getSelectedRow();
+                if (vista.ctmCompras.getElementAt(fila) == null) {
+                    return;
+                }
 
-                vista.cbCompraUsuarios.setSelectedItem(vista.dtmCompras.getValueAt(fila, 2));
-                vista.cbCompraJuegos.setSelectedItem(0);
+                Usuario comprador = vista.ctmCompras.getElementAt(fila).getUsuario();
+                comboUsuariosCompra.seleccionar(comprador == null ? null
+                        : new OpcionCombo(comprador.getId(), comprador.toString()));
+                comboJuegosCompra.limpiar();
                 vista.tfCompraCantidad.setText(null);
-                setJuegosDeUnaCompra(Integer.parseInt(String.valueOf(vista.dtmCompras.getValueAt(fila, 0))));
-                setFormaPagoCompra(String.valueOf(vista.dtmCompras.getValueAt(fila, 3)));
-                vista.dpCompraFecha.setDate(Date.valueOf(String.valueOf(vista.dtmCompras.getValueAt(fila, 4))).toLocalDate());
+                setJuegosDeUnaCompra(Integer.parseInt(String.valueOf(vista.ctmCompras.getValueAt(fila, 0))));
+                setFormaPagoCompra(String.valueOf(vista.ctmCompras.getValueAt(fila, 3)));
+                vista.dpCompraFecha.setDate(Date.valueOf(String.valueOf(vista.ctmCompras.getValueAt(fila, 4))).toLocalDate());
 
                 vista.bCompraLimpiar.setVisible(true);
                 bloquearParametrosCompra(true);
@@ -581,132 +1149,491 @@ public class Controlador implements ActionListener, ListSelectionListener {
     }
 
     /**
-     * Llama a todos los métodos de listado (desarrolladores, videojuegos, usuarios, puntuaciones y compras)
-     * para actualizar la vista con los datos más recientes de la base de datos.
+     * Pide un fichero CSV o JSON Lines y lo importa en segundo plano, mostrando el avance
+     * y la velocidad en un diálogo que permite cancelar la importación.
+     * Al terminar, muestra el resumen con los primeros errores y refresca la tabla afectada.
+     * @param tipo El tipo de registros que contiene el fichero.
+     */
+    private void importar(TipoImportacion tipo) {
+        if (tareas.estaEnCurso("importacion")) {
+            Util.showWarningAlert("Ya hay una importación en curso");
+            return;
+        }
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Importar " + tipo.getNombre().toLowerCase() + " (" + tipo.getCampos() + ")");
+        selector.setFileFilter(new FileNameExtensionFilter("CSV o JSON Lines", "csv", "json", "jsonl"));
+        if (selector.showOpenDialog(vista) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File fichero = selector.getSelectedFile();
+        ImportadorCatalogo importador = new ImportadorCatalogo(modelo);
+        ProgressMonitor monitor = new ProgressMonitor(vista, "Importando " + fichero.getName(), "", 0, 100);
+
+        tareas.ejecutar("importacion", () -> {
+            try {
+                return importador.importar(fichero, tipo, progreso -> SwingUtilities.invokeLater(() -> {
+                    if (monitor.isCanceled()) {
+                        importador.cancelar();
+                    }
+                    monitor.setProgress(progreso.getPorcentaje());
+                    monitor.setNote(progreso.toString());
+                }));
+            } finally {
+                SwingUtilities.invokeLater(monitor::close);
+            }
+        }, resultado -> {
+            mostrarResultadoImportacion(tipo, resultado);
+            //Las importaciones insertan por lotes sin avisar a los observadores
+            cargarIndiceBusqueda();
+            switch (tipo) {
+                case VIDEOJUEGOS:
+                    listarVideojuegos();
+                    break;
+                case DESARROLLADORES:
+                    listarDesarrolladores();
+                    break;
+                default:
+                    listarPuntuaciones();
+            }
+        });
+    }
+
+    /**
+     * Pide el fichero de destino y exporta en segundo plano todos los tickets con sus detalles,
+     * en CSV o JSON Lines según la extensión elegida.
+     */
+    private void exportarTickets() {
+        if (tareas.estaEnCurso("exportacion")) {
+            Util.showWarningAlert("Ya hay una exportación en curso");
+            return;
+        }
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Exportar tickets");
+        selector.setFileFilter(new FileNameExtensionFilter("CSV o JSON Lines", "csv", "json", "jsonl"));
+        selector.setSelectedFile(new File("tickets.csv"));
+        if (selector.showSaveDialog(vista) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File fichero = selector.getSelectedFile();
+        ExportadorTickets exportador = new ExportadorTickets(modelo);
+        long inicio = System.currentTimeMillis();
+        tareas.ejecutar("exportacion", () -> exportador.exportar(fichero), filas ->
+                Util.showInfoAlert("Se han exportado " + filas + " líneas de ticket a " + fichero.getName() +
+                        " en " + (System.currentTimeMillis() - inicio) / 1000 + " s"));
+    }
+
+    /**
+     * Muestra el resumen de una importación terminada.
+     * @param tipo El tipo de registros importados.
+     * @param resultado El progreso final de la importación.
+     */
+    private void mostrarResultadoImportacion(TipoImportacion tipo, ProgresoImportacion resultado) {
+        StringBuilder mensaje = new StringBuilder(tipo.getNombre() + ": " + resultado);
+        for (String error : resultado.getErrores()) {
+            mensaje.append("\n").append(error);
+        }
+        if (resultado.getFilasRechazadas() > resultado.getErrores().size()) {
+            mensaje.append("\n...");
+        }
+        if (resultado.getFilasRechazadas() > 0) {
+            Util.showWarningAlert(mensaje.toString());
+        } else {
+            Util.showInfoAlert(mensaje.toString());
+        }
+    }
+
+    /**
+     * Actualiza la vista con los datos más recientes de la base de datos (desarrolladores, videojuegos,
+     * usuarios, puntuaciones y compras). Todas las consultas se lanzan a la vez, cada una con su sesión,
+     * y sus resultados se aplican juntos cuando termina la última, así que el tiempo total es el de la
+     * consulta más lenta y no la suma de todas.
      */
     public void listarTodo() {
-        listarDesarrolladores();
-        listarVideojuegos();
-        listarUsuarios();
-        listarPuntuaciones();
-        listarCompras();
+        for (String clave : new String[] {"desarrolladores", "juegos", "usuarios", "puntuaciones", "compras"}) {
+            tareas.cancelar(clave);
+        }
+
+        TareasEnSegundoPlano.Grupo grupo = tareas.grupo("todo");
+        CompletableFuture<Pagina<Desarrollador>> primeraPaginaDevs = grupo.lanzar(() -> modelo.getPaginaDevs(null, TAMANO_PAGINA));
+        FiltroVideojuegos filtroJuegosActual = filtroJuegos;
+        CompletableFuture<Long> totalJuegos = grupo.lanzar(() -> modelo.contar(Videojuego.class, filtroJuegosActual));
+        CompletableFuture<Pagina<Usuario>> primeraPaginaUsuarios = grupo.lanzar(() -> modelo.getPaginaUsers(null, TAMANO_PAGINA));
+        CompletableFuture<Pagina<Puntuacion>> primeraPaginaRatings = grupo.lanzar(() -> modelo.getPaginaRatings(null, TAMANO_PAGINA));
+        FiltroTickets filtroComprasActual = filtroCompras;
+        CompletableFuture<Long> totalCompras = grupo.lanzar(() -> modelo.contar(Ticket.class, filtroComprasActual));
+
+        grupo.alTerminar(() -> {
+            recargarCombos();
+            mostrarPrimeraPaginaDevs(primeraPaginaDevs.join());
+            vista.ctmJuegos.reiniciar(totalJuegos.join());
+            mostrarPrimeraPaginaUsuarios(primeraPaginaUsuarios.join());
+            mostrarPrimeraPaginaRatings(primeraPaginaRatings.join());
+            vista.ctmCompras.reiniciar(totalCompras.join());
+        });
     }
 
     /**
-     * Lista todos los desarrolladores y los agrega a la vista.
-     * Actualiza el combobox de desarrolladores y la tabla de desarrolladores en la vista.
+     * Lista los desarrolladores y los agrega a la vista.
+     * Actualiza el combobox de desarrolladores y carga la primera página de la tabla de desarrolladores;
+     * el resto de páginas se cargan al hacer scroll.
      */
     public void listarDesarrolladores() {
-        List<Desarrollador> listaDevs = modelo.getDevs();
-
-        vista.cbJuegoDesarrolladores.removeAllItems();
-        vista.dtmDesarrollador.setRowCount(0);
-
-        vista.cbJuegoDesarrolladores.addItem("Elegir desarrollador");
-        for (Desarrollador unDesarrollador : listaDevs) {
-            vista.dtmDesarrollador.addRow(new Object[] {
-                    unDesarrollador.getId(),
-                    unDesarrollador.getNombre(),
-                    unDesarrollador.getEmail(),
-                    unDesarrollador.getExperiencia(),
-                    unDesarrollador.getTipo()
-            });
-            vista.cbJuegoDesarrolladores.addItem(unDesarrollador);
+        comboDesarrolladores.recargar();
+        tareas.ejecutar("desarrolladores", () -> modelo.getPaginaDevs(null, TAMANO_PAGINA), this::mostrarPrimeraPaginaDevs);
+    }
+
+    /**
+     * Sustituye el contenido de la tabla de desarrolladores por la primera página,
+     * avisando a la tabla solo de las filas que han cambiado.
+     * @param pagina La primera página de desarrolladores.
+     */
+    private void mostrarPrimeraPaginaDevs(Pagina<Desarrollador> pagina) {
+        paginaDevs = pagina;
+        vista.ctmDesarrolladores.replaceElements(pagina.getElementos());
+    }
+
+    /**
+     * Carga la siguiente página de desarrolladores si la tabla ya se ha listado y quedan más.
+     */
+    private void cargarSiguientePaginaDevs() {
+        if (paginaDevs == null || !paginaDevs.hayMas()
+                || tareas.estaEnCurso("desarrolladores") || tareas.estaEnCurso("todo")) {
+            return;
         }
+        Pagina<Desarrollador> anterior = paginaDevs;
+        tareas.ejecutar("desarrolladores", () -> modelo.getPaginaDevs(anterior, TAMANO_PAGINA), this::mostrarPaginaDevs);
     }
 
     /**
-     * Lista todos los videojuegos y los agrega a la vista.
-     * Actualiza los combo boxes de videojuegos en las secciones de puntuación y compra.
+     * Añade a la tabla de desarrolladores las filas de una página y la guarda como última página cargada.
+     * @param pagina La página de desarrolladores a mostrar.
+     */
+    private void mostrarPaginaDevs(Pagina<Desarrollador> pagina) {
+        paginaDevs = pagina;
+        vista.ctmDesarrolladores.addElements(pagina.getElementos());
+    }
+
+    /**
+     * Lista los videojuegos y los agrega a la vista.
+     * Actualiza los combo boxes de videojuegos en las secciones de puntuación y compra
+     * y cuenta los videojuegos de la tabla, cuyas filas se cargan por bloques al pintarlas.
      */
     public void listarVideojuegos() {
-        List<Videojuego> listaJuegos = modelo.getGames();
-
-        vista.cbRatingJuego.removeAllItems();
-        vista.cbCompraJuegos.removeAllItems();
-        //vista.dtmJuegos.setRowCount(0);
-        vista.ctmJuegos.clearAll();
-
-        vista.cbRatingJuego.addItem("Elegir videojuego");
-        vista.cbCompraJuegos.addItem("Elegir videojuego");
-        for (Videojuego unJuego : listaJuegos) {
-            /*vista.dtmJuegos.addRow(new Object[] {
-                    unJuego.getId(),
-                    unJuego.getTitulo(),
-                    unJuego.getGenero(),
-                    unJuego.getPrecio(),
-                    unJuego.getPlataforma(),
-                    unJuego.getFechaLanzamiento()
-            });*/
-            vista.ctmJuegos.addGame(unJuego);
-            vista.cbRatingJuego.addItem(unJuego);
-            vista.cbCompraJuegos.addItem(unJuego);
-        }
+        comboJuegosPuntuacion.recargar();
+        comboJuegosCompra.recargar();
+        listarTablaJuegos();
     }
 
     /**
-     * Lista todas las puntuaciones de videojuegos y las agrega a la vista.
-     * Actualiza la tabla de puntuaciones en la vista con los datos correspondientes.
+     * Cuenta los videojuegos que cumplen el filtro de la tabla y descarta las filas cargadas,
+     * que se vuelven a leer por bloques al pintarlas.
+     */
+    private void listarTablaJuegos() {
+        FiltroVideojuegos filtro = filtroJuegos;
+        tareas.ejecutar("juegos", () -> modelo.contar(Videojuego.class, filtro), vista.ctmJuegos::reiniciar);
+    }
+
+    /**
+     * Lista las puntuaciones de videojuegos y las agrega a la vista.
+     * Carga la primera página de la tabla de puntuaciones.
      */
     public void listarPuntuaciones() {
-        List<Puntuacion> listaPuntuaciones = modelo.getRatings();
-
-        vista.dtmPuntuaciones.setRowCount(0);
-
-        for (Puntuacion unaPuntuacion : listaPuntuaciones) {
-            vista.dtmPuntuaciones.addRow(new Object[] {
-                    unaPuntuacion.getId(),
-                    unaPuntuacion.getJuego(),
-                    unaPuntuacion.getFuente(),
-                    unaPuntuacion.getNotaVideojuego(),
-                    unaPuntuacion.getFechaNota()
-            });
+        tareas.ejecutar("puntuaciones", () -> modelo.getPaginaRatings(null, TAMANO_PAGINA), this::mostrarPrimeraPaginaRatings);
+    }
+
+    /**
+     * Sustituye el contenido de la tabla de puntuaciones por la primera página,
+     * avisando a la tabla solo de las filas que han cambiado.
+     * @param pagina La primera página de puntuaciones.
+     */
+    private void mostrarPrimeraPaginaRatings(Pagina<Puntuacion> pagina) {
+        paginaRatings = pagina;
+        vista.ctmPuntuaciones.replaceElements(pagina.getElementos());
+    }
+
+    /**
+     * Carga la siguiente página de puntuaciones si la tabla ya se ha listado y quedan más.
+     */
+    private void cargarSiguientePaginaRatings() {
+        if (paginaRatings == null || !paginaRatings.hayMas()
+                || tareas.estaEnCurso("puntuaciones") || tareas.estaEnCurso("todo")) {
+            return;
         }
+        Pagina<Puntuacion> anterior = paginaRatings;
+        tareas.ejecutar("puntuaciones", () -> modelo.getPaginaRatings(anterior, TAMANO_PAGINA), this::mostrarPaginaRatings);
     }
 
     /**
-     * Lista todos los usuarios y los agrega a la vista.
-     * Actualiza el combo box de usuarios y la tabla de usuarios en la vista.
+     * Añade a la tabla de puntuaciones las filas de una página y la guarda como última página cargada.
+     * @param pagina La página de puntuaciones a mostrar.
+     */
+    private void mostrarPaginaRatings(Pagina<Puntuacion> pagina) {
+        paginaRatings = pagina;
+        vista.ctmPuntuaciones.addElements(pagina.getElementos());
+    }
+
+    /**
+     * Lista los usuarios y los agrega a la vista.
+     * Actualiza el combo box de usuarios y carga la primera página de la tabla de usuarios.
      */
     public void listarUsuarios() {
-        List<Usuario> listaUsuarios = modelo.getUsers();
-
-        vista.cbCompraUsuarios.removeAllItems();
-        vista.dtmUsuario.setRowCount(0);
-
-        vista.cbCompraUsuarios.addItem("Elegir usuario");
-        for (Usuario unUsuario : listaUsuarios) {
-            vista.dtmUsuario.addRow(new Object[] {
-                    unUsuario.getId(),
-                    unUsuario.getNombre(),
-                    unUsuario.getApellidos(),
-                    unUsuario.getDni(),
-                    unUsuario.getDireccion(),
-                    unUsuario.getEmail(),
-                    unUsuario.getTelefono()
-            });
-            vista.cbCompraUsuarios.addItem(unUsuario);
+        comboUsuariosCompra.recargar();
+        tareas.ejecutar("usuarios", () -> modelo.getPaginaUsers(null, TAMANO_PAGINA), this::mostrarPrimeraPaginaUsuarios);
+    }
+
+    /**
+     * Sustituye el contenido de la tabla de usuarios por la primera página,
+     * avisando a la tabla solo de las filas que han cambiado.
+     * @param pagina La primera página de usuarios.
+     */
+    private void mostrarPrimeraPaginaUsuarios(Pagina<Usuario> pagina) {
+        paginaUsuarios = pagina;
+        vista.ctmUsuarios.replaceElements(pagina.getElementos());
+    }
+
+    /**
+     * Carga la siguiente página de usuarios si la tabla ya se ha listado y quedan más.
+     */
+    private void cargarSiguientePaginaUsuarios() {
+        if (paginaUsuarios == null || !paginaUsuarios.hayMas()
+                || tareas.estaEnCurso("usuarios") || tareas.estaEnCurso("todo")) {
+            return;
         }
+        Pagina<Usuario> anterior = paginaUsuarios;
+        tareas.ejecutar("usuarios", () -> modelo.getPaginaUsers(anterior, TAMANO_PAGINA), this::mostrarPaginaUsuarios);
+    }
+
+    /**
+     * Añade a la tabla de usuarios las filas de una página y la guarda como última página cargada.
+     * @param pagina La página de usuarios a mostrar.
+     */
+    private void mostrarPaginaUsuarios(Pagina<Usuario> pagina) {
+        paginaUsuarios = pagina;
+        vista.ctmUsuarios.addElements(pagina.getElementos());
     }
 
     /**
-     * Lista todas las compras (tickets) y las agrega a la vista.
-     * Actualiza la tabla de compras en la vista con los detalles correspondientes.
+     * Crea la ventana de listas la primera vez que se usa, con la carga por páginas de los tickets.
+     */
+    private void abrirVistaListaEntidad() {
+        if (vistaListaEntidad == null) {
+            vistaListaEntidad = new VistaListaEntidad();
+            addPaginacionAlHacerScroll(vistaListaEntidad.listaVistaEntidad, this::cargarSiguientePaginaTicketsUsuario);
+        }
+    }
+
+    /**
+     * Carga la siguiente página de tickets del usuario si la lista los está mostrando y quedan más.
+     */
+    private void cargarSiguientePaginaTicketsUsuario() {
+        if (paginaTicketsUsuario == null || !paginaTicketsUsuario.hayMas() || tareas.estaEnCurso("verLista")) {
+            return;
+        }
+        Pagina<Ticket> anterior = paginaTicketsUsuario;
+        int idUsuario = idUsuarioTickets;
+        tareas.ejecutar("verLista", () -> modelo.getPaginaTicketsDeUsuario(idUsuario, anterior, TAMANO_PAGINA),
+                pagina -> {
+                    paginaTicketsUsuario = pagina;
+                    vistaListaEntidad.anadirTickets(pagina.getElementos());
+                });
+    }
+
+    /**
+     * Construye el título de la lista de tickets de un usuario con el resumen de sus compras.
+     * @param unUsuario El usuario.
+     * @return El texto del título.
+     */
+    private String resumenCompras(Usuario unUsuario) {
+        String resumen = "Tickets de " + unUsuario + ": " + unUsuario.getNumTickets() + " compras, gasto total " +
+                Math.round(unUsuario.getGastoTotal() * 100) / 100.0;
+        if (unUsuario.getUltimaCompra() != null) {
+            resumen += ", última compra " + unUsuario.getUltimaCompra();
+        }
+        return resumen;
+    }
+
+    /**
+     * Lista las compras (tickets) y las agrega a la vista.
+     * Cuenta las compras de la tabla, cuyas filas se cargan por bloques al pintarlas.
      */
     public void listarCompras() {
-        List<Ticket> listarCompras = modelo.getCompras();
-
-        vista.dtmCompras.setRowCount(0);
-
-        for (Ticket unaCompra : listarCompras) {
-            vista.dtmCompras.addRow(new Object[] {
-                    unaCompra.getId(),
-                    unaCompra.getCodigoTicket(),
-                    unaCompra.getUsuario(),
-                    unaCompra.getFormaPago(),
-                    unaCompra.getFechaTicket(),
-                    unaCompra.getTotal()
-            });
+        listarTablaCompras();
+    }
+
+    /**
+     * Cuenta las compras que cumplen el filtro de la tabla y descarta las filas cargadas,
+     * que se vuelven a leer por bloques al pintarlas.
+     */
+    private void listarTablaCompras() {
+        FiltroTickets filtro = filtroCompras;
+        tareas.ejecutar("compras", () -> modelo.contar(Ticket.class, filtro), vista.ctmCompras::reiniciar);
+    }
+
+    /**
+     * Aplica a la vista una escritura confirmada por el modelo, sin volver a consultar la base de datos:
+     * añade, actualiza o quita solo la fila afectada en su tabla y en los combo boxes que la muestran,
+     * y actualiza las celdas de otras tablas que muestran la entidad modificada.
+     * Las filas nuevas solo se añaden si ya se ha cargado la última página de la tabla;
+     * si no, aparecerán al llegar a ella con el scroll. Se ejecuta en el EDT.
+     * @param cambio El cambio publicado por el modelo.
+     */
+    private void aplicarCambio(CambioEntidad cambio) {
+        TipoCambio tipo = cambio.getTipo();
+        if (cambio.es(Desarrollador.class)) {
+            Desarrollador unDesarrollador = (Desarrollador) cambio.getEntidad();
+            aplicarCambioFila(vista.ctmDesarrolladores, paginaDevs, tipo, unDesarrollador.getId(), unDesarrollador);
+            comboDesarrolladores.aplicarCambio(tipo, new OpcionCombo(unDesarrollador.getId(), unDesarrollador.toString()));
+            if (tipo == TipoCambio.ACTUALIZAR) {
+                vista.ctmJuegos.updateWhere(
+                        unJuego -> unJuego.getDesarrolladores() != null && unJuego.getDesarrolladores().stream()
+                                .anyMatch(otro -> otro.getId() == unDesarrollador.getId()),
+                        unJuego -> unJuego.getDesarrolladores().replaceAll(
+                                otro -> otro.getId() == unDesarrollador.getId() ? unDesarrollador : otro));
+            }
+        } else if (cambio.es(Videojuego.class)) {
+            Videojuego unJuego = (Videojuego) cambio.getEntidad();
+            aplicarCambioFila(vista.ctmJuegos, filtroJuegos, this::listarTablaJuegos, tipo, unJuego.getId(), unJuego);
+            OpcionCombo opcionJuego = new OpcionCombo(unJuego.getId(), unJuego.toString());
+            comboJuegosPuntuacion.aplicarCambio(tipo, opcionJuego);
+            comboJuegosCompra.aplicarCambio(tipo, opcionJuego);
+            if (tipo == TipoCambio.ACTUALIZAR) {
+                vista.ctmPuntuaciones.updateWhere(
+                        unaPuntuacion -> unaPuntuacion.getJuego() != null && unaPuntuacion.getJuego().getId() == unJuego.getId(),
+                        unaPuntuacion -> unaPuntuacion.setJuego(unJuego));
+            }
+        } else if (cambio.es(Puntuacion.class)) {
+            Puntuacion unaPuntuacion = (Puntuacion) cambio.getEntidad();
+            int filaAnterior = vista.ctmPuntuaciones.indexOfId(unaPuntuacion.getId());
+            Puntuacion anterior = filaAnterior == -1 ? null : vista.ctmPuntuaciones.getElementAt(filaAnterior);
+            aplicarCambioFila(vista.ctmPuntuaciones, paginaRatings, tipo, unaPuntuacion.getId(), unaPuntuacion);
+            actualizarNotaJuego(unaPuntuacion.getJuego());
+            if (anterior != null && anterior.getJuego() != null && (unaPuntuacion.getJuego() == null
+                    || anterior.getJuego().getId() != unaPuntuacion.getJuego().getId())) {
+                actualizarNotaJuego(anterior.getJuego());
+            }
+        } else if (cambio.es(Usuario.class)) {
+            Usuario unUsuario = (Usuario) cambio.getEntidad();
+            aplicarCambioFila(vista.ctmUsuarios, paginaUsuarios, tipo, unUsuario.getId(), unUsuario);
+            comboUsuariosCompra.aplicarCambio(tipo, new OpcionCombo(unUsuario.getId(), unUsuario.toString()));
+            if (tipo == TipoCambio.ACTUALIZAR) {
+                vista.ctmCompras.updateWhere(
+                        unaCompra -> unaCompra.getUsuario() != null && unaCompra.getUsuario().getId() == unUsuario.getId(),
+                        unaCompra -> unaCompra.setUsuario(unUsuario));
+            }
+        } else if (cambio.es(Ticket.class)) {
+            Ticket unaCompra = (Ticket) cambio.getEntidad();
+            int filaAnterior = vista.ctmCompras.indexOfId(unaCompra.getId());
+            Ticket anterior = filaAnterior == -1 ? null : vista.ctmCompras.getElementAt(filaAnterior);
+            aplicarCambioFila(vista.ctmCompras, filtroCompras, this::listarTablaCompras, tipo, unaCompra.getId(), unaCompra);
+            actualizarComprasUsuario(unaCompra.getUsuario());
+            if (anterior != null && anterior.getUsuario() != null && (unaCompra.getUsuario() == null
+                    || anterior.getUsuario().getId() != unaCompra.getUsuario().getId())) {
+                actualizarComprasUsuario(anterior.getUsuario());
+            }
+        }
+    }
+
+    /**
+     * Vuelve a leer la nota de un videojuego tras escribir una de sus puntuaciones y la actualiza
+     * en su fila de la tabla de videojuegos, si está cargada.
+     * @param juego El videojuego de la puntuación, o null.
+     */
+    private void actualizarNotaJuego(Videojuego juego) {
+        if (juego == null || vista.ctmJuegos.indexOfId(juego.getId()) == -1) {
+            return;
+        }
+        int idJuego = juego.getId();
+        tareas.ejecutar("notaJuego" + idJuego, () -> modelo.getPorId(Videojuego.class, idJuego), actual -> {
+            if (actual != null) {
+                vista.ctmJuegos.updateWhere(unJuego -> unJuego.getId() == idJuego, unJuego -> {
+                    unJuego.setNumPuntuaciones(actual.getNumPuntuaciones());
+                    unJuego.setSumaPuntuaciones(actual.getSumaPuntuaciones());
+                    unJuego.setNotaMedia(actual.getNotaMedia());
+                });
+            }
+        });
+    }
+
+    /**
+     * Vuelve a leer el resumen de compras de un usuario tras escribir uno de sus tickets y lo actualiza
+     * en su fila de la tabla de usuarios, si está cargada.
+     * @param usuario El usuario del ticket, o null.
+     */
+    private void actualizarComprasUsuario(Usuario usuario) {
+        if (usuario == null || vista.ctmUsuarios.indexOfId(usuario.getId()) == -1) {
+            return;
+        }
+        int idUsuario = usuario.getId();
+        tareas.ejecutar("comprasUsuario" + idUsuario, () -> modelo.getPorId(Usuario.class, idUsuario), actual -> {
+            if (actual != null) {
+                vista.ctmUsuarios.updateWhere(unUsuario -> unUsuario.getId() == idUsuario, unUsuario -> {
+                    unUsuario.setNumTickets(actual.getNumTickets());
+                    unUsuario.setGastoTotal(actual.getGastoTotal());
+                    unUsuario.setUltimaCompra(actual.getUltimaCompra());
+                });
+            }
+        });
+    }
+
+    /**
+     * Añade, sustituye o quita la fila de una entidad en una tabla, avisando a la tabla solo de esa fila.
+     * @param tabla El modelo de la tabla.
+     * @param pagina La última página cargada en la tabla, o null si todavía no se ha listado.
+     * @param tipo El tipo de cambio.
+     * @param id El id de la entidad.
+     * @param entidad La entidad que ha cambiado.
+     * @param <T> El tipo de las entidades de la tabla.
+     */
+    private <T> void aplicarCambioFila(EntidadesTableModel<T> tabla, Pagina<?> pagina, TipoCambio tipo, int id, T entidad) {
+        int fila = tabla.indexOfId(id);
+        switch (tipo) {
+            case INSERTAR:
+                if (fila == -1 && pagina != null && !pagina.hayMas()) {
+                    tabla.addElement(entidad);
+                }
+                break;
+            case ACTUALIZAR:
+                if (fila != -1) {
+                    tabla.setElement(fila, entidad);
+                }
+                break;
+            case ELIMINAR:
+                if (fila != -1) {
+                    tabla.removeElement(fila);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Añade, sustituye o quita la fila de una entidad en una tabla que carga sus filas por bloques.
+     * Las filas nuevas se añaden al final solo si la tabla no está filtrada ni reordenada y su id es mayor
+     * que el de la última fila; si no, o si la entidad borrada no está cargada y no se sabe en qué fila
+     * estaba, se vuelve a contar la tabla.
+     * @param tabla El modelo de la tabla.
+     * @param filtro El filtro vigente de la tabla.
+     * @param recontar La acción que vuelve a contar la tabla y descarta sus bloques.
+     * @param tipo El tipo de cambio.
+     * @param id El id de la entidad.
+     * @param entidad La entidad que ha cambiado.
+     * @param <T> El tipo de las entidades de la tabla.
+     */
+    private <T> void aplicarCambioFila(PerezosoTableModel<T> tabla, Filtro filtro, Runnable recontar, TipoCambio tipo,
+                                       int id, T entidad) {
+        switch (tipo) {
+            case INSERTAR:
+                if (!filtro.estaVacio() || !tabla.insertar(entidad)) {
+                    recontar.run();
+                }
+                break;
+            case ACTUALIZAR:
+                tabla.actualizar(entidad);
+                break;
+            case ELIMINAR:
+                if (!tabla.eliminar(id)) {
+                    recontar.run();
+                }
+                break;
         }
     }
 
@@ -885,7 +1812,7 @@ public class Controlador implements ActionListener, ListSelectionListener {
         vista.tfJuegoPrecio.setText(null);
         vista.rbJuegoPc.setSelected(true);
         vista.dpJuegoLanzamiento.setText(null);
-        vista.cbJuegoDesarrolladores.setSelectedIndex(0);
+        comboDesarrolladores.limpiar();
         vista.dlmDevDeJuego.clear();
     }
 
@@ -894,7 +1821,7 @@ public class Controlador implements ActionListener, ListSelectionListener {
      * Restablece los campos de texto y las selecciones a sus valores por defecto.
      */
     public void limpiarCamposPuntuacion() {
-        vista.cbRatingJuego.setSelectedIndex(0);
+        comboJuegosPuntuacion.limpiar();
         vista.tfRatingFuente.setText(null);
         vista.tfRatingPuntuacion.setText(null);
         vista.dpRatingFecha.setText(null);
@@ -918,8 +1845,9 @@ public class Controlador implements ActionListener, ListSelectionListener {
      * Restablece los campos de selección, cantidad, lista de juegos y la fecha a sus valores por defecto.
      */
     public void limpiarCamposCompra() {
-        vista.cbCompraUsuarios.setSelectedIndex(0);
-        vista.cbCompraJuegos.setSelectedIndex(0);
+        liberarReservasCarrito();
+        comboUsuariosCompra.limpiar();
+        comboJuegosCompra.limpiar();
         vista.tfCompraCantidad.setText(null);
         vista.dlmJuegosDeCompra.clear();
         vista.rbCompraEfectivo.setSelected(true);
@@ -934,7 +1862,7 @@ public class Controlador implements ActionListener, ListSelectionListener {
      * @param fila La fila de la tabla de videojuegos que contiene el videojuego seleccionado.
      */
     private void setDesarrolladoresDeUnJuego(int fila) {
-        Videojuego juegoSeleccionado = vista.ctmJuegos.getVideojuegoAt(fila);
+        Videojuego juegoSeleccionado = vista.ctmJuegos.getElementAt(fila);
         vista.dlmDevDeJuego.clear();
         for (Desarrollador unDesarrollador : juegoSeleccionado.getDesarrolladores()) {
             vista.dlmDevDeJuego.addElement(unDesarrollador);
@@ -944,16 +1872,24 @@ public class Controlador implements ActionListener, ListSelectionListener {
     /**
      * Establece los juegos asociados a una compra seleccionada en la vista.
      * Este método limpia la lista de juegos asociados a la compra y luego agrega
-     * los juegos correspondientes al ticket de compra seleccionado.
+     * los juegos correspondientes al ticket de compra seleccionado, y guarda la versión leída
+     * para modificarlo después.
      *
      * @param idCompra El identificador de la compra seleccionada.
      */
     private void setJuegosDeUnaCompra(int idCompra) {
-        Ticket ticketSeleccionado = modelo.getCompras().get(idCompra - 1);
+        liberarReservasCarrito();
         vista.dlmJuegosDeCompra.clear();
-        for (DetalleTicket unDetalleDelTicket : ticketSeleccionado.getDetallesTicket()) {
-            vista.dlmJuegosDeCompra.addElement(unDetalleDelTicket);
-        }
+        tareas.ejecutar("detallesCompra", () -> modelo.getCompraConDetalles(idCompra), ticketSeleccionado -> {
+            vista.dlmJuegosDeCompra.clear();
+            if (ticketSeleccionado == null) {
+                return;
+            }
+            versionCompraSeleccionada = ticketSeleccionado.getVersion();
+            for (DetalleTicket unDetalleDelTicket : ticketSeleccionado.getDetallesTicket()) {
+                vista.dlmJuegosDeCompra.addElement(unDetalleDelTicket);
+            }
+        });
     }
 
     /**
@@ -1080,4 +2016,133 @@ public class Controlador implements ActionListener, ListSelectionListener {
         }
         return false;
     }
+
+    /**
+     * Aparta las unidades de un videojuego para el carrito y, si quedan suficientes, lo añade a la compra.
+     * @param juegoSeleccionado El videojuego elegido, o null si se ha borrado mientras se leía.
+     * @param cantidad La cantidad de unidades.
+     * @param stock El stock del videojuego en la base de datos, o null si no tiene control de existencias.
+     */
+    private void reservarJuegoDeCompra(Videojuego juegoSeleccionado, int cantidad, Integer stock) {
+        if (juegoSeleccionado == null) {
+            Util.showErrorAlert("Ese videojuego ya no existe");
+            return;
+        }
+        if (stock == null) {
+            agregarJuegoALaCompra(juegoSeleccionado, cantidad);
+            return;
+        }
+        int id = juegoSeleccionado.getId();
+        if (!reservas.reservar(id, cantidad, stock)) {
+            Util.showWarningAlert("No hay existencias suficientes de " + juegoSeleccionado + ".\n" +
+                    "Quedan " + Math.max(stock - reservas.getReservadas(id), 0) + " unidades sin reservar.");
+            return;
+        }
+        reservasCarrito.merge(id, cantidad, Integer::sum);
+        agregarJuegoALaCompra(juegoSeleccionado, cantidad);
+    }
+
+    /**
+     * Libera las unidades que el carrito actual tenía apartadas de un videojuego.
+     * @param idVideojuego El id del videojuego.
+     */
+    private void liberarReserva(int idVideojuego) {
+        Integer apartadas = reservasCarrito.remove(idVideojuego);
+        if (apartadas != null) {
+            reservas.liberar(idVideojuego, apartadas);
+        }
+    }
+
+    /**
+     * Libera todas las unidades apartadas por el carrito actual, al vaciarlo o al guardar el ticket.
+     */
+    private void liberarReservasCarrito() {
+        reservasCarrito.forEach(reservas::liberar);
+        reservasCarrito.clear();
+    }
+
+    /**
+     * Pide las unidades que se reciben de un videojuego y las añade a su stock.
+     * @param idVideojuego El id del videojuego.
+     * @param stock El stock actual del videojuego, o null si todavía no tiene control de existencias.
+     */
+    private void reponerExistencias(int idVideojuego, Integer stock) {
+        String actual = stock == null ? "Sin control de existencias: al reponer empieza a descontarse con cada venta."
+                : "En stock: " + stock + " (reservadas en carritos: " + reservas.getReservadas(idVideojuego) + ")";
+        String texto = JOptionPane.showInputDialog(vista, actual + "\nUnidades recibidas:", "Reponer existencias",
+                JOptionPane.QUESTION_MESSAGE);
+        if (texto == null) {
+            return;
+        }
+        int unidades;
+        try {
+            unidades = Integer.parseInt(texto.trim());
+        } catch (NumberFormatException e) {
+            unidades = 0;
+        }
+        if (unidades <= 0) {
+            Util.showErrorAlert("Las unidades deben ser un número entero positivo");
+            return;
+        }
+        int recibidas = unidades;
+        AtomicInteger nuevoStock = new AtomicInteger();
+        tareas.escribir(() -> nuevoStock.set(modelo.reponerStock(idVideojuego, recibidas)),
+                () -> Util.showInfoAlert("Existencias repuestas. Stock actual: " + nuevoStock.get()));
+    }
+
+    /**
+     * Añade un videojuego a la lista de la compra, o suma la cantidad si ya estaba en ella.
+     * @param juegoSeleccionado El videojuego elegido, o null si se ha borrado mientras se leía.
+     * @param cantidad La cantidad de unidades.
+     */
+    private void agregarJuegoALaCompra(Videojuego juegoSeleccionado, int cantidad) {
+        if (juegoSeleccionado == null) {
+            Util.showErrorAlert("Ese videojuego ya no existe");
+            return;
+        }
+        if (!estaJuegoEnLaLista(juegoSeleccionado)) {
+            DetalleTicket unDetalle = new DetalleTicket();
+            unDetalle.setJuego(juegoSeleccionado);
+            unDetalle.setCantidad(cantidad);
+            unDetalle.setTotal(juegoSeleccionado.getPrecio() * cantidad);
+            vista.dlmJuegosDeCompra.addElement(unDetalle);
+        } else {
+            DetalleTicket otroDetalle = null;
+            for (int i = 0; i < vista.dlmJuegosDeCompra.size(); i++) {
+                if (vista.dlmJuegosDeCompra.get(i).getJuego().getId() == juegoSeleccionado.getId()) {
+                    otroDetalle = vista.dlmJuegosDeCompra.get(i);
+                    int nuevaCantidad = otroDetalle.getCantidad() + cantidad;
+                    otroDetalle.setCantidad(nuevaCantidad);
+                    otroDetalle.setTotal(juegoSeleccionado.getPrecio() * nuevaCantidad);
+                    vista.dlmJuegosDeCompra.set(i, otroDetalle);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica si un desarrollador ya está en la lista de desarrolladores del videojuego.
+     * @param id El id del desarrollador.
+     * @return true si ya está en la lista.
+     */
+    private boolean estaDesarrolladorEnLaLista(int id) {
+        for (int i = 0; i < vista.dlmDevDeJuego.size(); i++) {
+            if (vista.dlmDevDeJuego.get(i).getId() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Añade un desarrollador a la lista de desarrolladores del videojuego.
+     * @param desarrollador El desarrollador elegido, o null si se ha borrado mientras se leía.
+     */
+    private void agregarDesarrolladorALista(Desarrollador desarrollador) {
+        if (desarrollador == null) {
+            Util.showErrorAlert("Ese desarrollador ya no existe");
+        } else if (!estaDesarrolladorEnLaLista(desarrollador.getId())) {
+            vista.dlmDevDeJuego.addElement(desarrollador);
+        }
+    }
 }
\ No newline at end of file
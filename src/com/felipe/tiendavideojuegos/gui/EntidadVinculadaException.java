@@ -0,0 +1,26 @@
+package com.felipe.tiendavideojuegos.gui;
+
+/**
+ * Excepción EntidadVinculadaException indica que no se ha borrado una entidad porque otras filas
+ * la referencian con una clave ajena. El {@link Modelo} deshace toda la transacción, y la vista
+ * muestra el mensaje como aviso para que el usuario borre antes esa conexión.
+ */
+public class EntidadVinculadaException extends RuntimeException {
+
+    private final String entidad;
+
+    /**
+     * Constructor de la clase EntidadVinculadaException.
+     * @param entidad El nombre de la entidad que se quería borrar, como se muestra al usuario.
+     * @param causa La excepción de Hibernate que ha detectado la restricción.
+     */
+    public EntidadVinculadaException(String entidad, Throwable causa) {
+        super("No puedes borrar este " + entidad + " porque esta vinculado con otra tabla.\n" +
+                "Borra esa conexión antes de borrar el " + entidad, causa);
+        this.entidad = entidad;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+}
@@ -0,0 +1,103 @@
+package com.felipe.tiendavideojuegos.gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clase GeneradorCodigosTicket asigna los códigos de los tickets nuevos sin consultar el último ticket.
+ * Cada instancia de la aplicación reserva en la base de datos un bloque de números consecutivos
+ * y los reparte desde memoria con operaciones atómicas, sin bloqueos. Solo cuando se agota
+ * el bloque se vuelve a la base de datos para reservar el siguiente, de modo que dos cajas
+ * que venden a la vez nunca obtienen el mismo código.
+ * Los códigos se forman con un prefijo y el número relleno con ceros hasta un ancho fijo,
+ * por ejemplo T000000001 con el prefijo "T" y un ancho de 9.
+ */
+public class GeneradorCodigosTicket {
+
+    private final Modelo modelo;
+    private final String prefijo;
+    private final int ancho;
+    private final int tamanoBloque;
+    private final long maximo;
+    private final AtomicReference<Bloque> bloque;
+
+    /**
+     * Constructor de la clase GeneradorCodigosTicket. El primer bloque se reserva al pedir el primer código.
+     * @param modelo El modelo con el que se reservan los bloques.
+     * @param prefijo El texto con el que empiezan todos los códigos.
+     * @param ancho El número de cifras del número del código, entre 1 y 18.
+     * @param tamanoBloque La cantidad de códigos que se reservan cada vez.
+     * @throws IllegalArgumentException si el ancho o el tamaño de bloque no son válidos.
+     */
+    public GeneradorCodigosTicket(Modelo modelo, String prefijo, int ancho, int tamanoBloque) {
+        if (ancho < 1 || ancho > 18) {
+            throw new IllegalArgumentException("El ancho del código debe estar entre 1 y 18 cifras");
+        }
+        if (tamanoBloque < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo");
+        }
+        this.modelo = modelo;
+        this.prefijo = prefijo;
+        this.ancho = ancho;
+        this.tamanoBloque = tamanoBloque;
+        this.maximo = (long) Math.pow(10, ancho) - 1;
+        this.bloque = new AtomicReference<>(new Bloque(0, 0));
+    }
+
+    /**
+     * Obtiene un código de ticket que no se ha entregado antes. Puede llamarse desde cualquier hilo;
+     * solo accede a la base de datos cuando se agota el bloque reservado, así que no debe llamarse desde el EDT.
+     * @return El código, con el prefijo y el número con el ancho configurado.
+     * @throws IllegalStateException si se han agotado los códigos que caben en el ancho configurado.
+     */
+    public String siguienteCodigo() {
+        while (true) {
+            Bloque actual = bloque.get();
+            long numero = actual.siguiente.getAndIncrement();
+            if (numero < actual.fin) {
+                return formatear(numero);
+            }
+            reservarBloque(actual);
+        }
+    }
+
+    /**
+     * Reserva un bloque nuevo si el bloque agotado sigue siendo el vigente. Si otro hilo ya lo ha
+     * sustituido mientras se esperaba, no se reserva nada y se reintenta con el bloque nuevo.
+     * @param agotado El bloque que se ha agotado.
+     */
+    private synchronized void reservarBloque(Bloque agotado) {
+        if (bloque.get() != agotado) {
+            return;
+        }
+        long inicio = modelo.reservarCodigosTicket(tamanoBloque);
+        bloque.set(new Bloque(inicio, inicio + tamanoBloque));
+    }
+
+    /**
+     * Da formato a un número de ticket.
+     * @param numero El número reservado.
+     * @return El código del ticket.
+     * @throws IllegalStateException si el número no cabe en el ancho configurado.
+     */
+    private String formatear(long numero) {
+        if (numero > maximo) {
+            throw new IllegalStateException("Se han agotado los tickets disponibles");
+        }
+        return String.format("%s%0" + ancho + "d", prefijo, numero);
+    }
+
+    /**
+     * Bloque de números reservado: del primero (incluido) al último (excluido).
+     */
+    private static class Bloque {
+
+        private final AtomicLong siguiente;
+        private final long fin;
+
+        private Bloque(long inicio, long fin) {
+            this.siguiente = new AtomicLong(inicio);
+            this.fin = fin;
+        }
+    }
+}
@@ -1,17 +1,64 @@
 package com.felipe.tiendavideojuegos.gui;
 
 import com.felipe.tiendavideojuegos.base.*;
-import com.felipe.tiendavideojuegos.util.Util;
+import com.felipe.tiendavideojuegos.combos.OpcionCombo;
+import com.felipe.tiendavideojuegos.gui.enums.TipoCambio;
+import com.felipe.tiendavideojuegos.gui.enums.TipoInforme;
+import com.felipe.tiendavideojuegos.informes.ComprasUsuarios;
+import com.felipe.tiendavideojuegos.informes.FilaInforme;
+import com.felipe.tiendavideojuegos.informes.NotasVideojuegos;
+import com.felipe.tiendavideojuegos.informes.ResumenesVentas;
+import com.felipe.tiendavideojuegos.stock.Existencias;
+import com.felipe.tiendavideojuegos.stock.StockInsuficienteException;
+import com.felipe.tiendavideojuegos.util.ContadorSentencias;
+import com.felipe.tiendavideojuegos.util.Filtro;
+import com.felipe.tiendavideojuegos.util.FiltroTickets;
+import com.felipe.tiendavideojuegos.util.FiltroVideojuegos;
+import com.felipe.tiendavideojuegos.util.Pagina;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
 import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+import org.hibernate.StatelessSession;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.Type;
 
-import javax.persistence.PersistenceException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.Cacheable;
+import javax.persistence.OptimisticLockException;
 import javax.persistence.Query;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
 
 /**
  * Clase encargada de gestionar la conexión con la base de datos utilizando Hibernate.
@@ -20,8 +67,32 @@ import java.util.List;
  */
 public class Modelo {
 
+    // Sentencias SQL máximas de cada plan de carga, sin importar el número de filas
+    private final static int SENTENCIAS_LISTADO = 1;
+    private final static int SENTENCIAS_PAGINA = 2;
+    // Con -Dtienda.sentencias.estricto=true, superar esos máximos lanza una excepción en vez de avisar en el log
+    private final static boolean SENTENCIAS_ESTRICTO = Boolean.getBoolean("tienda.sentencias.estricto");
+    private final static Logger LOG = Logger.getLogger(Modelo.class.getName());
+
+    // Filas que se piden al servidor en cada viaje al recorrer un resultado grande
+    private final static int TAMANO_FETCH = 1000;
+
+    // Regiones de la caché de segundo nivel, definidas en ehcache.xml
+    private final static String REGION_CONSULTAS = "consultas.catalogo";
+    private final static String[] REGIONES_CATALOGO = {"videojuego", "videojuego.desarrolladores",
+            "desarrollador", "desarrollador.juegos", "puntuacion"};
+
+    // Intentos de guardar una modificación, fusionando cada vez los cambios de otros usuarios
+    private final static int INTENTOS_FUSION = 3;
+
     SessionFactory sessionFactory;
 
+    // Si es true, una modificación que choca con la de otro usuario en campos distintos se fusiona y se reintenta
+    private volatile boolean fusionarCambios = true;
+
+    // Se recorre en cada escritura desde los hilos de la base de datos y casi nunca se modifica
+    private final List<ObservadorCambios> observadores = new CopyOnWriteArrayList<>();
+
     /**
      * Establece la conexión con la base de datos configurada en el archivo hibernate.cfg.xml.
      * Carga las clases mapeadas y configura el registro de servicios necesario para Hibernate.
@@ -41,6 +112,15 @@ public class Modelo {
         configuration.addAnnotatedClass(Usuario.class);
         configuration.addAnnotatedClass(Videojuego.class);
 
+        //Pool de conexiones
+        configurarPool(configuration);
+
+        //Caché de segundo nivel para el catálogo
+        configurarCache(configuration);
+
+        //Inserciones y actualizaciones por lotes
+        configurarLotes(configuration);
+
         //Creamos un objeto ServiceRegistry a partir de los parámetros de configuración
         //Esta clase se usa para gestionar y proveer acceso a servicios
         StandardServiceRegistry ssr = new StandardServiceRegistryBuilder()
@@ -51,6 +131,187 @@ public class Modelo {
         sessionFactory = configuration.buildSessionFactory(ssr);
     }
 
+    /**
+     * Configura HikariCP como pool de conexiones de Hibernate, en lugar del pool interno que no es
+     * apto para producción. Cada valor solo se aplica si no se ha indicado ya en hibernate.cfg.xml
+     * o como propiedad del sistema (por ejemplo -Dhibernate.hikari.maximumPoolSize=20).
+     * @param configuration La configuración de Hibernate que se está construyendo.
+     */
+    private void configurarPool(Configuration configuration) {
+        establecerSiFalta(configuration, "hibernate.connection.provider_class",
+                "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
+        establecerSiFalta(configuration, "hibernate.hikari.poolName", "tienda-videojuegos");
+        //Tamaño: al menos tantas conexiones como hilos de TareasEnSegundoPlano
+        establecerSiFalta(configuration, "hibernate.hikari.minimumIdle", "2");
+        establecerSiFalta(configuration, "hibernate.hikari.maximumPoolSize", "10");
+        establecerSiFalta(configuration, "hibernate.hikari.connectionTimeout", "10000");
+        establecerSiFalta(configuration, "hibernate.hikari.idleTimeout", "300000");
+        establecerSiFalta(configuration, "hibernate.hikari.maxLifetime", "1800000");
+        //Validación de la conexión antes de entregarla (isValid de JDBC4)
+        establecerSiFalta(configuration, "hibernate.hikari.validationTimeout", "3000");
+        //Avisa en el log si una sesión retiene una conexión más de 20 segundos
+        establecerSiFalta(configuration, "hibernate.hikari.leakDetectionThreshold", "20000");
+        //Publica las métricas del pool por JMX, que es como las lee getEstadisticasPool()
+        establecerSiFalta(configuration, "hibernate.hikari.registerMbeans", "true");
+        //Propiedades del driver de MySQL
+        establecerSiFalta(configuration, "hibernate.hikari.dataSource.cachePrepStmts", "true");
+        establecerSiFalta(configuration, "hibernate.hikari.dataSource.prepStmtCacheSize", "250");
+        establecerSiFalta(configuration, "hibernate.hikari.dataSource.useServerPrepStmts", "true");
+        //Sin esto el driver lee el resultado entero en memoria e ignora el fetch size
+        establecerSiFalta(configuration, "hibernate.hikari.dataSource.useCursorFetch", "true");
+    }
+
+    /**
+     * Activa la caché de segundo nivel y la caché de consultas de Hibernate con Ehcache (JCache).
+     * Videojuego, Desarrollador y Puntuacion, y sus colecciones, se guardan en las regiones
+     * definidas en ehcache.xml, que limitan el número de elementos y su tiempo de vida.
+     * Igual que con el pool, cada valor solo se aplica si no se ha indicado ya.
+     * @param configuration La configuración de Hibernate que se está construyendo.
+     */
+    private void configurarCache(Configuration configuration) {
+        establecerSiFalta(configuration, "hibernate.cache.use_second_level_cache", "true");
+        establecerSiFalta(configuration, "hibernate.cache.use_query_cache", "true");
+        establecerSiFalta(configuration, "hibernate.cache.region.factory_class", "jcache");
+        establecerSiFalta(configuration, "hibernate.javax.cache.provider",
+                "org.ehcache.jsr107.EhcacheCachingProvider");
+        establecerSiFalta(configuration, "hibernate.javax.cache.uri", "ehcache.xml");
+        //Falla al arrancar si una región no está definida en ehcache.xml, en vez de crearla sin límites
+        establecerSiFalta(configuration, "hibernate.javax.cache.missing_cache_strategy", "fail");
+        //Necesario para contar aciertos y fallos de la caché
+        establecerSiFalta(configuration, "hibernate.generate_statistics", "true");
+    }
+
+    /**
+     * Activa el envío por lotes de JDBC. Ticket y DetalleTicket obtienen su id de la tabla generador_id
+     * en bloques, sin tener que insertar la fila, así que Hibernate puede agrupar sus INSERT y enviar
+     * un ticket con todas sus líneas en pocas idas y vueltas. Igual que con el pool, cada valor solo
+     * se aplica si no se ha indicado ya.
+     * @param configuration La configuración de Hibernate que se está construyendo.
+     */
+    private void configurarLotes(Configuration configuration) {
+        establecerSiFalta(configuration, "hibernate.jdbc.batch_size", "50");
+        //Agrupa las sentencias por entidad para que no se corte el lote al alternar tablas
+        establecerSiFalta(configuration, "hibernate.order_inserts", "true");
+        establecerSiFalta(configuration, "hibernate.order_updates", "true");
+        establecerSiFalta(configuration, "hibernate.jdbc.batch_versioned_data", "true");
+        //El driver de MySQL reescribe el lote como un único INSERT con varias filas
+        establecerSiFalta(configuration, "hibernate.hikari.dataSource.rewriteBatchedStatements", "true");
+    }
+
+    /**
+     * Establece una propiedad de la configuración de Hibernate si no tiene ya un valor.
+     * @param configuration La configuración de Hibernate.
+     * @param propiedad El nombre de la propiedad.
+     * @param valor El valor por defecto.
+     */
+    private void establecerSiFalta(Configuration configuration, String propiedad, String valor) {
+        if (configuration.getProperty(propiedad) == null) {
+            configuration.setProperty(propiedad, valor);
+        }
+    }
+
+    /**
+     * Obtiene las métricas del pool de conexiones: conexiones activas, inactivas, totales
+     * e hilos esperando una conexión libre. Se leen de los MBeans que registra HikariCP, para no
+     * depender de sus clases al compilar.
+     * @return Un texto con las métricas, o un aviso si no se está usando HikariCP o no publica sus MBeans.
+     */
+    public String getEstadisticasPool() {
+        Object nombrePool = sessionFactory.getProperties().get("hibernate.hikari.poolName");
+        if (nombrePool == null) {
+            return "Pool de conexiones: no se está usando HikariCP";
+        }
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName pool = new ObjectName("com.zaxxer.hikari:type=Pool (" + nombrePool + ")");
+            ObjectName configuracion = new ObjectName("com.zaxxer.hikari:type=PoolConfig (" + nombrePool + ")");
+            if (!servidor.isRegistered(pool)) {
+                return "Pool de conexiones: no se está usando HikariCP";
+            }
+            return "Pool de conexiones " + nombrePool + "\n" +
+                    "Activas: " + servidor.getAttribute(pool, "ActiveConnections") + "\n" +
+                    "Inactivas: " + servidor.getAttribute(pool, "IdleConnections") + "\n" +
+                    "Totales: " + servidor.getAttribute(pool, "TotalConnections") +
+                    " (mín. " + servidor.getAttribute(configuracion, "MinimumIdle") +
+                    ", máx. " + servidor.getAttribute(configuracion, "MaximumPoolSize") + ")\n" +
+                    "Hilos esperando conexión: " + servidor.getAttribute(pool, "ThreadsAwaitingConnection");
+        } catch (JMException e) {
+            return "Pool de conexiones: no se pueden leer las métricas (" + e.getMessage() + ")";
+        }
+    }
+
+    /**
+     * Obtiene las métricas de la caché de segundo nivel: aciertos, fallos y elementos en memoria
+     * de cada región del catálogo y de la caché de consultas.
+     * @return Un texto con las métricas, o un aviso si las estadísticas están desactivadas.
+     */
+    public String getEstadisticasCache() {
+        Statistics estadisticas = sessionFactory.getStatistics();
+        if (!estadisticas.isStatisticsEnabled()) {
+            return "Caché de segundo nivel: estadísticas desactivadas";
+        }
+        StringBuilder texto = new StringBuilder("Caché de segundo nivel\n");
+        for (String region : REGIONES_CATALOGO) {
+            texto.append(describirRegion(region, estadisticas.getDomainDataRegionStatistics(region)));
+        }
+        texto.append(describirRegion(REGION_CONSULTAS, estadisticas.getQueryRegionStatistics(REGION_CONSULTAS)));
+        texto.append("Total: ").append(estadisticas.getSecondLevelCacheHitCount()).append(" aciertos, ")
+                .append(estadisticas.getSecondLevelCacheMissCount()).append(" fallos");
+        return texto.toString();
+    }
+
+    /**
+     * Describe las métricas de una región de la caché en una línea.
+     * @param region El nombre de la región.
+     * @param estadisticas Las estadísticas de la región, o null si todavía no se ha usado.
+     * @return La línea con aciertos, fallos y elementos en memoria.
+     */
+    private String describirRegion(String region, CacheRegionStatistics estadisticas) {
+        if (estadisticas == null) {
+            return region + ": sin uso\n";
+        }
+        return region + ": " + estadisticas.getHitCount() + " aciertos, " + estadisticas.getMissCount() +
+                " fallos, " + estadisticas.getElementCountInMemory() + " en memoria\n";
+    }
+
+    /**
+     * Activa o desactiva la fusión automática de modificaciones concurrentes. Con ella, si otro usuario
+     * ha modificado la misma entidad en campos distintos, se conservan sus cambios y los propios y se
+     * vuelve a guardar; sin ella, cualquier modificación concurrente impide guardar.
+     * @param fusionarCambios true para fusionar los cambios que no chocan.
+     */
+    public void setFusionarCambios(boolean fusionarCambios) {
+        this.fusionarCambios = fusionarCambios;
+    }
+
+    /**
+     * Registra un observador que será avisado de cada inserción, modificación o borrado confirmado.
+     * @param observador El observador a registrar.
+     */
+    public void addObservadorCambios(ObservadorCambios observador) {
+        observadores.add(observador);
+    }
+
+    /**
+     * Elimina un observador registrado con {@link #addObservadorCambios(ObservadorCambios)}.
+     * @param observador El observador a eliminar.
+     */
+    public void removeObservadorCambios(ObservadorCambios observador) {
+        observadores.remove(observador);
+    }
+
+    /**
+     * Avisa a los observadores de una escritura confirmada.
+     * @param tipo El tipo de escritura.
+     * @param entidad La entidad escrita.
+     */
+    private void publicar(TipoCambio tipo, Object entidad) {
+        CambioEntidad cambio = new CambioEntidad(tipo, entidad);
+        for (ObservadorCambios observador : observadores) {
+            observador.cambioRealizado(cambio);
+        }
+    }
+
     /**
      * Cierra la conexión con la base de datos y libera los recursos de la SessionFactory.
      */
@@ -62,171 +323,1327 @@ public class Modelo {
     }
 
     /**
-     * Recupera la lista completa de desarrolladores de la base de datos.
-     * @return Una lista de objetos {@link Desarrollador}.
+     * Calcula un informe de ventas agrupando en la base de datos las líneas de ticket con GROUP BY,
+     * de modo que solo viaja una fila por grupo y no se cargan tickets ni detalles.
+     * Los ingresos son la suma de los totales de las líneas; los informes por día y por mes se ordenan
+     * por fecha y el resto de mayor a menor ingreso.
+     * @param tipo El informe a calcular.
+     * @param desde La primera fecha de ticket incluida, o null para no limitar.
+     * @param hasta La última fecha de ticket incluida, o null para no limitar.
+     * @param limite El número máximo de filas.
+     * @return Una lista de {@link FilaInforme}, una por grupo.
      */
-    public List<Desarrollador> getDevs() {
+    public List<FilaInforme> getInformeVentas(TipoInforme tipo, Date desde, Date hasta, int limite) {
+        String grupo;
+        String orden;
+        Function<Object[], String> texto;
+        switch (tipo) {
+            case POR_VIDEOJUEGO:
+                grupo = "j.id, j.titulo, j.plataforma";
+                orden = "SUM(d.total) DESC, j.id";
+                texto = fila -> {
+                    Videojuego juego = new Videojuego();
+                    juego.setTitulo((String) fila[1]);
+                    juego.setPlataforma((String) fila[2]);
+                    return juego.toString();
+                };
+                break;
+            case POR_GENERO:
+                grupo = "j.genero";
+                orden = "SUM(d.total) DESC, j.genero";
+                texto = fila -> String.valueOf(fila[0]);
+                break;
+            case POR_PLATAFORMA:
+                grupo = "j.plataforma";
+                orden = "SUM(d.total) DESC, j.plataforma";
+                texto = fila -> String.valueOf(fila[0]);
+                break;
+            case POR_DIA:
+                grupo = "t.fechaTicket";
+                orden = "t.fechaTicket";
+                texto = fila -> String.valueOf(fila[0]);
+                break;
+            case POR_MES:
+                grupo = "year(t.fechaTicket), month(t.fechaTicket)";
+                orden = grupo;
+                texto = fila -> String.format("%04d-%02d", fila[0], fila[1]);
+                break;
+            default:
+                grupo = "u.id, u.nombre, u.apellidos, u.dni";
+                orden = "SUM(d.total) DESC, u.id";
+                texto = fila -> {
+                    Usuario user = new Usuario();
+                    user.setNombre((String) fila[1]);
+                    user.setApellidos((String) fila[2]);
+                    user.setDni((String) fila[3]);
+                    return user.toString();
+                };
+        }
+        int columnasGrupo = grupo.split(",").length;
+
+        //Si el informe sale de las tablas de resumen, no se recorren las líneas de ticket
+        String resumen = ResumenesVentas.consultaInforme(tipo, desde, hasta);
+        if (resumen != null) {
+            Session session = sessionFactory.openSession();
+            List<?> filas;
+            try {
+                NativeQuery<?> query = session.createNativeQuery(resumen)
+                        .setMaxResults(limite);
+                if (desde != null) {
+                    query.setParameter("desde", desde);
+                }
+                if (hasta != null) {
+                    query.setParameter("hasta", hasta);
+                }
+                filas = query.getResultList();
+            } finally {
+                session.close();
+            }
+            return filasInforme(filas, columnasGrupo, texto);
+        }
+
+        List<String> condiciones = new ArrayList<>();
+        if (desde != null) {
+            condiciones.add("t.fechaTicket >= :desde");
+        }
+        if (hasta != null) {
+            condiciones.add("t.fechaTicket <= :hasta");
+        }
+        String hql = "SELECT " + grupo + ", SUM(d.cantidad), SUM(d.total), COUNT(DISTINCT t.id) " +
+                "FROM DetalleTicket d JOIN d.ticket t JOIN d.juego j" +
+                (tipo == TipoInforme.MEJORES_CLIENTES ? " JOIN t.usuario u" : "") +
+                (condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones)) +
+                " GROUP BY " + grupo + " ORDER BY " + orden;
+
         Session session = sessionFactory.openSession();
-        Query query = session.createQuery("FROM Desarrollador");
-        List<Desarrollador> listaDevs = query.getResultList();
-        for (Desarrollador unDev : listaDevs) {
-            Hibernate.initialize(unDev.getJuegos());
+        List<Object[]> filas;
+        try {
+            org.hibernate.query.Query<Object[]> query = session.createQuery(hql, Object[].class)
+                    .setMaxResults(limite)
+                    .setReadOnly(true);
+            if (desde != null) {
+                query.setParameter("desde", desde);
+            }
+            if (hasta != null) {
+                query.setParameter("hasta", hasta);
+            }
+            filas = query.getResultList();
+        } finally {
+            session.close();
         }
-        session.close();
 
-        return listaDevs;
+        return filasInforme(filas, columnasGrupo, texto);
     }
 
     /**
-     * Recupera la lista completa de videojuegos de la base de datos.
-     * @return Una lista de objetos {@link Videojuego}.
+     * Convierte las filas de una consulta de informe, con las columnas del grupo seguidas de las
+     * unidades, los ingresos y los tickets, en filas de informe.
+     * @param filas Las filas leídas.
+     * @param columnasGrupo El número de columnas del grupo.
+     * @param texto Obtiene, a partir de cada fila, el texto del grupo.
+     * @return Una lista de {@link FilaInforme}.
      */
-    public List<Videojuego> getGames() {
+    private List<FilaInforme> filasInforme(List<?> filas, int columnasGrupo, Function<Object[], String> texto) {
+        List<FilaInforme> informe = new ArrayList<>(filas.size());
+        for (Object elemento : filas) {
+            Object[] fila = (Object[]) elemento;
+            informe.add(new FilaInforme(texto.apply(fila),
+                    ((Number) fila[columnasGrupo]).longValue(),
+                    ((Number) fila[columnasGrupo + 1]).doubleValue(),
+                    ((Number) fila[columnasGrupo + 2]).longValue()));
+        }
+        return informe;
+    }
+
+    /**
+     * Vuelve a calcular desde cero las tablas de resumen de ventas a partir de todas las líneas de ticket,
+     * la última compra de cada usuario a partir de sus tickets y la nota de cada videojuego a partir
+     * de sus puntuaciones.
+     * Sirve para comprobar que el mantenimiento incremental no se ha desviado y para corregirlo si lo ha hecho.
+     * @return El número de filas de los resúmenes que no coincidían con el cálculo y se han corregido.
+     */
+    public long reconstruirResumenesVentas() {
         Session session = sessionFactory.openSession();
-        Query query = session.createQuery("FROM Videojuego");
-        List<Videojuego> listaJuegos = query.getResultList();
-        for (Videojuego unJuego : listaJuegos) {
-            Hibernate.initialize(unJuego.getDesarrolladores());
+        session.beginTransaction();
+        Set<Integer> notasCorregidas;
+        long diferencias;
+        try {
+            diferencias = ResumenesVentas.reconstruir(session) + ComprasUsuarios.reconstruir(session);
+            notasCorregidas = NotasVideojuegos.reconstruir(session);
+            session.getTransaction().commit();
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            throw e;
+        } finally {
+            session.close();
         }
-        session.close();
+        invalidarNotas(notasCorregidas);
+        return diferencias + notasCorregidas.size();
+    }
 
-        return listaJuegos;
+    /**
+     * Lee el stock de un videojuego.
+     * @param idVideojuego El id del videojuego.
+     * @return Las unidades en stock, o null si el videojuego no tiene control de existencias.
+     */
+    public Integer getStock(int idVideojuego) {
+        Session session = sessionFactory.openSession();
+        try {
+            return Existencias.getStock(session, idVideojuego);
+        } finally {
+            session.close();
+        }
     }
 
     /**
-     * Recupera la lista completa de puntuaciones de la base de datos.
-     * @return Una lista de objetos {@link Puntuacion}.
+     * Añade unidades al stock de un videojuego, por ejemplo al recibir un pedido del proveedor.
+     * @param idVideojuego El id del videojuego.
+     * @param cantidad Las unidades que se añaden.
+     * @return El stock resultante.
      */
-    public List<Puntuacion> getRatings() {
+    public int reponerStock(int idVideojuego, int cantidad) {
         Session session = sessionFactory.openSession();
-        Query query = session.createQuery("FROM Puntuacion");
-        List<Puntuacion> listaPuntuaciones = query.getResultList();
-        session.close();
+        session.beginTransaction();
+        try {
+            Existencias.reponer(session, idVideojuego, cantidad);
+            int stock = Existencias.getStock(session, idVideojuego);
+            session.getTransaction().commit();
+            return stock;
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
 
-        return listaPuntuaciones;
+    /**
+     * Recupera las opciones de los combo boxes de videojuegos: los que tienen un título que empieza por un texto.
+     * @param prefijo El comienzo del título, o un texto vacío para los primeros por título.
+     * @param limite El número máximo de opciones.
+     * @return Una lista de {@link OpcionCombo} ordenada por título, con el mismo texto que Videojuego.toString().
+     */
+    public List<OpcionCombo> getOpcionesJuegos(String prefijo, int limite) {
+        return consultarOpciones("SELECT e.id, e.titulo, e.plataforma FROM Videojuego e " +
+                "WHERE e.titulo LIKE :prefijo ESCAPE '!' ORDER BY e.titulo, e.id", prefijo, limite, fila -> {
+            Videojuego juego = new Videojuego();
+            juego.setTitulo((String) fila[1]);
+            juego.setPlataforma((String) fila[2]);
+            return juego;
+        });
     }
 
     /**
-     * Recupera la lista completa de usuarios de la base de datos.
-     * @return Una lista de objetos {@link Usuario}.
+     * Recupera las opciones del combo box de desarrolladores: los que tienen un nombre o un email
+     * que empieza por un texto.
+     * @param prefijo El comienzo del nombre o del email, o un texto vacío para los primeros por nombre.
+     * @param limite El número máximo de opciones.
+     * @return Una lista de {@link OpcionCombo} ordenada por nombre, con el mismo texto que Desarrollador.toString().
      */
-    public List<Usuario> getUsers() {
+    public List<OpcionCombo> getOpcionesDevs(String prefijo, int limite) {
+        return consultarOpciones("SELECT e.id, e.nombre FROM Desarrollador e " +
+                "WHERE e.nombre LIKE :prefijo ESCAPE '!' OR e.email LIKE :prefijo ESCAPE '!' " +
+                "ORDER BY e.nombre, e.id", prefijo, limite, fila -> {
+            Desarrollador dev = new Desarrollador();
+            dev.setNombre((String) fila[1]);
+            return dev;
+        });
+    }
+
+    /**
+     * Recupera las opciones del combo box de usuarios: los que tienen unos apellidos o un DNI
+     * que empiezan por un texto.
+     * @param prefijo El comienzo de los apellidos o del DNI, o un texto vacío para los primeros por apellidos.
+     * @param limite El número máximo de opciones.
+     * @return Una lista de {@link OpcionCombo} ordenada por apellidos y nombre, con el mismo texto que Usuario.toString().
+     */
+    public List<OpcionCombo> getOpcionesUsuarios(String prefijo, int limite) {
+        return consultarOpciones("SELECT e.id, e.nombre, e.apellidos, e.dni FROM Usuario e " +
+                "WHERE e.apellidos LIKE :prefijo ESCAPE '!' OR e.dni LIKE :prefijo ESCAPE '!' " +
+                "ORDER BY e.apellidos, e.nombre, e.id", prefijo, limite, fila -> {
+            Usuario user = new Usuario();
+            user.setNombre((String) fila[1]);
+            user.setApellidos((String) fila[2]);
+            user.setDni((String) fila[3]);
+            return user;
+        });
+    }
+
+    /**
+     * Ejecuta una consulta de opciones de combo box. Solo se leen el id y los campos que forman el texto,
+     * y el texto se obtiene del toString de una entidad sin guardar, para que coincida con el que
+     * se muestra en el resto de la aplicación.
+     * @param hql La consulta, que devuelve el id seguido de los campos y tiene el parámetro :prefijo.
+     * @param prefijo El texto buscado.
+     * @param limite El número máximo de opciones.
+     * @param entidad Construye, a partir de cada fila, la entidad con los campos de su texto.
+     * @return Las opciones encontradas.
+     */
+    private List<OpcionCombo> consultarOpciones(String hql, String prefijo, int limite, Function<Object[], Object> entidad) {
         Session session = sessionFactory.openSession();
-        Query query = session.createQuery("FROM Usuario");
-        List<Usuario> listaUsuarios = query.getResultList();
-        for (Usuario unUsuario : listaUsuarios) {
-            Hibernate.initialize(unUsuario.getTickets());
+        List<Object[]> filas;
+        try {
+            filas = session.createQuery(hql, Object[].class)
+                    .setParameter("prefijo", Filtro.prefijo(prefijo))
+                    .setMaxResults(limite)
+                    .setReadOnly(true)
+                    .getResultList();
+        } finally {
+            session.close();
         }
-        session.close();
 
-        return listaUsuarios;
+        List<OpcionCombo> opciones = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            opciones.add(new OpcionCombo((Integer) fila[0], entidad.apply(fila).toString()));
+        }
+        return opciones;
     }
 
     /**
-     * Recupera la lista completa de tickets de la base de datos.
-     * @return Una lista de objetos {@link Ticket}.
+     * Recupera un elemento por su clave primaria, sin inicializar sus colecciones.
+     * @param clase La clase de la entidad a buscar.
+     * @param id El id del elemento.
+     * @param <T> El tipo de la entidad.
+     * @return El elemento encontrado, o null si no existe.
      */
-    public List<Ticket> getCompras() {
+    public <T> T getPorId(Class<T> clase, int id) {
         Session session = sessionFactory.openSession();
-        Query query = session.createQuery("FROM Ticket");
-        List<Ticket> listaCompras = query.getResultList();
-        for (Ticket unTicket : listaCompras) {
-            Hibernate.initialize(unTicket.getDetallesTicket());
+        try {
+            return session.get(clase, id);
+        } finally {
+            session.close();
         }
-        session.close();
+    }
 
-        return listaCompras;
+    /**
+     * Recupera un desarrollador por su id junto con sus videojuegos.
+     * @param id El id del desarrollador.
+     * @return El objeto {@link Desarrollador}, o null si no existe.
+     */
+    public Desarrollador getDevConJuegos(int id) {
+        Session session = sessionFactory.openSession();
+        try {
+            Desarrollador desarrollador = session.get(Desarrollador.class, id);
+            if (desarrollador != null) {
+                Hibernate.initialize(desarrollador.getJuegos());
+            }
+            return desarrollador;
+        } finally {
+            session.close();
+        }
     }
 
     /**
-     * Recupera la última compra registrada en la base de datos.
-     * @return El último objeto {@link Ticket} creado.
+     * Recupera un ticket por su id junto con sus detalles y el videojuego de cada detalle.
+     * @param id El id del ticket.
+     * @return El objeto {@link Ticket}, o null si no existe.
      */
-    public Ticket getUltimaCompra() {
+    public Ticket getCompraConDetalles(int id) {
         Session session = sessionFactory.openSession();
-        Query query = session.createQuery("FROM Ticket ORDER BY codigoTicket DESC");
-        query.setMaxResults(1);
-        Ticket ultimaCompra = (Ticket) query.getSingleResult();
-        session.close();
+        try {
+            List<Ticket> resultado = session.createNamedQuery("Ticket.porIdConDetalles", Ticket.class)
+                    .setParameter("id", id)
+                    .getResultList();
+            return resultado.isEmpty() ? null : resultado.get(0);
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Cuenta las filas de una entidad, para saber el tamaño de una tabla sin cargarla.
+     * @param clase La clase de la entidad a contar.
+     * @return El número de filas.
+     */
+    public long contar(Class<?> clase) {
+        return contar(clase, null);
+    }
+
+    /**
+     * Cuenta las filas de una entidad que cumplen un filtro.
+     * @param clase La clase de la entidad a contar.
+     * @param filtro El filtro que deben cumplir las filas, o null para contarlas todas.
+     * @return El número de filas.
+     */
+    public long contar(Class<?> clase, Filtro filtro) {
+        List<String> condiciones = new ArrayList<>();
+        Map<String, Object> parametros = new HashMap<>();
+        if (filtro != null) {
+            filtro.anadirCondiciones(condiciones, parametros);
+        }
+        String hql = "SELECT COUNT(e) FROM " + clase.getSimpleName() + " e";
+        if (!condiciones.isEmpty()) {
+            hql += " WHERE " + String.join(" AND ", condiciones);
+        }
 
-        return ultimaCompra;
+        Session session = sessionFactory.openSession();
+        try {
+            Query query = session.createQuery(hql);
+            if (clase.isAnnotationPresent(Cacheable.class)) {
+                query.setHint(QueryHints.HINT_CACHEABLE, true);
+                query.setHint(QueryHints.HINT_CACHE_REGION, REGION_CONSULTAS);
+            }
+            parametros.forEach(query::setParameter);
+            return (Long) query.getSingleResult();
+        } finally {
+            session.close();
+        }
     }
 
     /**
-     * Guarda un nuevo elemento en la base de datos.
+     * Recupera una página de desarrolladores ordenada por id, a continuación de la página anterior.
+     * @param anterior La página anterior, o null para obtener la primera.
+     * @param tamanoPagina El número máximo de desarrolladores de la página.
+     * @return Una {@link Pagina} de objetos {@link Desarrollador}.
+     */
+    public Pagina<Desarrollador> getPaginaDevs(Pagina<Desarrollador> anterior, int tamanoPagina) {
+        ContadorSentencias contador = new ContadorSentencias();
+        Session session = abrirSesion(contador);
+        Pagina<Desarrollador> pagina;
+        try {
+            pagina = consultarPagina(session, Desarrollador.class, "id", null, null, anterior, 0, tamanoPagina);
+            inicializarPagina(session, "Desarrollador.inicializarJuegos", pagina);
+        } finally {
+            session.close();
+        }
+        comprobarSentencias(contador, SENTENCIAS_PAGINA, "getPaginaDevs");
+
+        return pagina;
+    }
+
+    /**
+     * Recupera un bloque de videojuegos ordenado por id para la tabla de videojuegos.
+     * Si se conoce el bloque anterior, continúa desde su último id; si no, salta hasta la primera fila.
+     * @param primeraFila La posición del primer videojuego del bloque, usada solo si no hay bloque anterior.
+     * @param anterior El bloque anterior, o null.
+     * @param tamanoBloque El número máximo de videojuegos del bloque.
+     * @param filtro El filtro y el orden de la tabla, o null para todos los videojuegos por id.
+     * @return Una {@link Pagina} de objetos {@link Videojuego}.
+     */
+    public Pagina<Videojuego> getBloqueJuegos(int primeraFila, Pagina<Videojuego> anterior, int tamanoBloque,
+                                              FiltroVideojuegos filtro) {
+        ContadorSentencias contador = new ContadorSentencias();
+        Session session = abrirSesion(contador);
+        Pagina<Videojuego> pagina;
+        try {
+            pagina = consultarPagina(session, Videojuego.class, "id", null, filtro, anterior,
+                    primeraFila, tamanoBloque);
+            inicializarPagina(session, "Videojuego.inicializarDesarrolladores", pagina);
+        } finally {
+            session.close();
+        }
+        comprobarSentencias(contador, SENTENCIAS_PAGINA, "getBloqueJuegos");
+
+        return pagina;
+    }
+
+    /**
+     * Recupera una página de puntuaciones ordenada por id, a continuación de la página anterior.
+     * @param anterior La página anterior, o null para obtener la primera.
+     * @param tamanoPagina El número máximo de puntuaciones de la página.
+     * @return Una {@link Pagina} de objetos {@link Puntuacion}.
+     */
+    public Pagina<Puntuacion> getPaginaRatings(Pagina<Puntuacion> anterior, int tamanoPagina) {
+        ContadorSentencias contador = new ContadorSentencias();
+        Session session = abrirSesion(contador);
+        Pagina<Puntuacion> pagina;
+        try {
+            pagina = consultarPagina(session, Puntuacion.class, "id", "LEFT JOIN FETCH e.juego", null,
+                    anterior, 0, tamanoPagina);
+        } finally {
+            session.close();
+        }
+        comprobarSentencias(contador, SENTENCIAS_LISTADO, "getPaginaRatings");
+
+        return pagina;
+    }
+
+    /**
+     * Recupera una página de usuarios ordenada por id, a continuación de la página anterior.
+     * @param anterior La página anterior, o null para obtener la primera.
+     * @param tamanoPagina El número máximo de usuarios de la página.
+     * @return Una {@link Pagina} de objetos {@link Usuario}.
+     */
+    public Pagina<Usuario> getPaginaUsers(Pagina<Usuario> anterior, int tamanoPagina) {
+        ContadorSentencias contador = new ContadorSentencias();
+        Session session = abrirSesion(contador);
+        Pagina<Usuario> pagina;
+        try {
+            pagina = consultarPagina(session, Usuario.class, "id", null, null, anterior, 0, tamanoPagina);
+        } finally {
+            session.close();
+        }
+        comprobarSentencias(contador, SENTENCIAS_PAGINA, "getPaginaUsers");
+
+        return pagina;
+    }
+
+    /**
+     * Recupera una página de los tickets de un usuario, de la compra más reciente a la más antigua,
+     * a continuación de la página anterior. Sustituye a cargar la colección Usuario.tickets entera.
+     * @param idUsuario El id del usuario.
+     * @param anterior La página anterior, o null para obtener la primera.
+     * @param tamanoPagina El número máximo de tickets de la página.
+     * @return Una {@link Pagina} de objetos {@link Ticket}.
+     */
+    public Pagina<Ticket> getPaginaTicketsDeUsuario(int idUsuario, Pagina<Ticket> anterior, int tamanoPagina) {
+        FiltroTickets filtro = new FiltroTickets();
+        filtro.setIdUsuario(idUsuario);
+        filtro.setOrdenarPor("fechaTicket");
+        filtro.setDescendente(true);
+        ContadorSentencias contador = new ContadorSentencias();
+        Session session = abrirSesion(contador);
+        Pagina<Ticket> pagina;
+        try {
+            pagina = consultarPagina(session, Ticket.class, "id", null, filtro, anterior, 0, tamanoPagina);
+        } finally {
+            session.close();
+        }
+        comprobarSentencias(contador, SENTENCIAS_PAGINA, "getPaginaTicketsDeUsuario");
+
+        return pagina;
+    }
+
+    /**
+     * Recupera un bloque de tickets ordenado por id para la tabla de compras.
+     * Si se conoce el bloque anterior, continúa desde su último id; si no, salta hasta la primera fila.
+     * @param primeraFila La posición del primer ticket del bloque, usada solo si no hay bloque anterior.
+     * @param anterior El bloque anterior, o null.
+     * @param tamanoBloque El número máximo de tickets del bloque.
+     * @param filtro El filtro y el orden de la tabla, o null para todos los tickets por id.
+     * @return Una {@link Pagina} de objetos {@link Ticket}.
+     */
+    public Pagina<Ticket> getBloqueCompras(int primeraFila, Pagina<Ticket> anterior, int tamanoBloque,
+                                           FiltroTickets filtro) {
+        ContadorSentencias contador = new ContadorSentencias();
+        Session session = abrirSesion(contador);
+        Pagina<Ticket> pagina;
+        try {
+            pagina = consultarPagina(session, Ticket.class, "id", "LEFT JOIN FETCH e.usuario", filtro,
+                    anterior, primeraFila, tamanoBloque);
+            inicializarPagina(session, "Ticket.inicializarDetalles", pagina);
+        } finally {
+            session.close();
+        }
+        comprobarSentencias(contador, SENTENCIAS_PAGINA, "getBloqueCompras");
+
+        return pagina;
+    }
+
+    /**
+     * Abre una sesión que cuenta las sentencias SQL que ejecuta.
+     * @param contador El contador donde se acumulan las sentencias de la sesión.
+     * @return La sesión abierta.
+     */
+    private Session abrirSesion(ContadorSentencias contador) {
+        return sessionFactory.withOptions().statementInspector(contador).openSession();
+    }
+
+    /**
+     * Comprueba que un plan de carga no ha ejecutado más sentencias de las previstas, y si las supera
+     * avisa en el log. Sirve para detectar consultas N+1.
+     * @param contador El contador de la sesión en la que se ha ejecutado el plan.
+     * @param maximo El número máximo de sentencias permitidas.
+     * @param plan El nombre del plan de carga, para el mensaje de error.
+     * @throws IllegalStateException Si las supera y se ha arrancado con -Dtienda.sentencias.estricto=true.
+     */
+    private void comprobarSentencias(ContadorSentencias contador, int maximo, String plan) {
+        if (contador.getSentencias() <= maximo) {
+            return;
+        }
+        String mensaje = plan + " ha ejecutado " + contador.getSentencias() + " sentencias SQL (máximo " + maximo + ")";
+        if (SENTENCIAS_ESTRICTO) {
+            throw new IllegalStateException(mensaje);
+        }
+        LOG.warning(mensaje);
+    }
+
+    /**
+     * Inicializa las colecciones de todas las entidades de una página con una sola consulta,
+     * en lugar de una consulta por entidad.
+     * @param session La sesión en la que se cargó la página.
+     * @param plan El nombre de la consulta que hace JOIN FETCH de la colección sobre el parámetro "pagina".
+     * @param pagina La página cuyas entidades se inicializan.
+     */
+    private void inicializarPagina(Session session, String plan, Pagina<?> pagina) {
+        if (pagina.getElementos().isEmpty()) {
+            return;
+        }
+        session.createNamedQuery(plan)
+                .setParameter("pagina", pagina.getElementos())
+                .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                .getResultList();
+    }
+
+    /**
+     * Ejecuta una consulta paginada por cursor (keyset) sobre la sesión indicada.
+     * En lugar de saltar filas con OFFSET, filtra las filas posteriores al último
+     * (valor, id) de la página anterior, de modo que el coste de cada página no depende
+     * de lo lejos que esté en la tabla. Se pide un elemento de más para saber si hay otra página.
+     * Si se indica un filtro, sus condiciones se añaden a la consulta y su orden sustituye al campo de ordenación.
+     * @param session La sesión abierta sobre la que se ejecuta la consulta.
+     * @param clase La clase de la entidad a consultar.
+     * @param ordenarPor El campo de ordenación, debe ser un atributo simple no nulo de la entidad.
+     * @param fetch Los JOIN FETCH de relaciones a uno que se cargan con la página, o null.
+     * @param filtro Las condiciones y el orden de la consulta, o null.
+     * @param anterior La página anterior, o null para obtener la primera.
+     * @param primeraFila Las filas que se saltan con OFFSET cuando no hay página anterior, normalmente 0.
+     * @param tamanoPagina El número máximo de elementos de la página.
+     * @param <T> El tipo de la entidad.
+     * @return Una {@link Pagina} con los elementos encontrados.
+     * @throws IllegalArgumentException si el campo de ordenación no existe en la entidad.
+     */
+    private <T> Pagina<T> consultarPagina(Session session, Class<T> clase, String ordenarPor, String fetch, Filtro filtro,
+                                          Pagina<T> anterior, int primeraFila, int tamanoPagina) {
+        List<String> condiciones = new ArrayList<>();
+        Map<String, Object> parametros = new HashMap<>();
+        boolean descendente = false;
+        if (filtro != null) {
+            filtro.anadirCondiciones(condiciones, parametros);
+            ordenarPor = filtro.getOrdenarPor();
+            descendente = filtro.isDescendente();
+        }
+        if (anterior != null) {
+            ordenarPor = anterior.getOrdenarPor();
+        }
+        //Valida el nombre del campo contra el metamodelo antes de meterlo en la consulta
+        sessionFactory.getMetamodel().entity(clase).getSingularAttribute(ordenarPor);
+        boolean porId = ordenarPor.equals("id");
+        String despues = descendente ? " < " : " > ";
+        String sentido = descendente ? " DESC" : "";
+
+        if (anterior != null) {
+            condiciones.add(porId ? "e.id" + despues + ":ultimoId"
+                    : "(e." + ordenarPor + despues + ":ultimoValor OR (e." + ordenarPor + " = :ultimoValor AND e.id"
+                    + despues + ":ultimoId))");
+            parametros.put("ultimoId", anterior.getUltimoId());
+            if (!porId) {
+                parametros.put("ultimoValor", anterior.getUltimoValor());
+            }
+        }
+        String hql = "SELECT e, e." + ordenarPor + " FROM " + clase.getSimpleName() + " e";
+        if (fetch != null) {
+            hql += " " + fetch;
+        }
+        if (!condiciones.isEmpty()) {
+            hql += " WHERE " + String.join(" AND ", condiciones);
+        }
+        hql += porId ? " ORDER BY e.id" + sentido : " ORDER BY e." + ordenarPor + sentido + ", e.id" + sentido;
+
+        Query query = session.createQuery(hql);
+        if (clase.isAnnotationPresent(Cacheable.class)) {
+            query.setHint(QueryHints.HINT_CACHEABLE, true);
+            query.setHint(QueryHints.HINT_CACHE_REGION, REGION_CONSULTAS);
+        }
+        parametros.forEach(query::setParameter);
+        if (anterior == null && primeraFila > 0) {
+            query.setFirstResult(primeraFila);
+        }
+        query.setMaxResults(tamanoPagina + 1);
+        List<Object[]> filas = query.getResultList();
+
+        boolean hayMas = filas.size() > tamanoPagina;
+        if (hayMas) {
+            filas = filas.subList(0, tamanoPagina);
+        }
+        List<T> elementos = new ArrayList<>();
+        for (Object[] fila : filas) {
+            elementos.add(clase.cast(fila[0]));
+        }
+
+        if (filas.isEmpty()) {
+            return anterior != null
+                    ? new Pagina<>(elementos, ordenarPor, anterior.getUltimoValor(), anterior.getUltimoId(), false)
+                    : new Pagina<>(elementos, ordenarPor, null, 0, false);
+        }
+        Object[] ultimaFila = filas.get(filas.size() - 1);
+        int ultimoId = (int) session.getIdentifier(ultimaFila[0]);
+        return new Pagina<>(elementos, ordenarPor, ultimaFila[1], ultimoId, hayMas);
+    }
+
+    /**
+     * Recorre todas las líneas de todos los tickets, en orden de ticket, sin cargarlas a la vez en memoria.
+     * Cada fila es una proyección escalar con los campos del ticket, su usuario, el detalle y su videojuego;
+     * los tickets sin detalles aparecen una vez con los campos del detalle a null. El resultado se lee
+     * hacia delante por bloques de {@link #TAMANO_FETCH} filas y la sesión se vacía cada bloque,
+     * así que la memoria usada no depende del número de tickets.
+     * Campos de cada fila: id, código, fecha, forma de pago y total del ticket, id y DNI del usuario,
+     * id, id del videojuego, título, cantidad y total del detalle.
+     * @param alLeer La acción que recibe cada fila. La fila no debe guardarse, se reutiliza al avanzar.
+     * @return El número de filas recorridas.
+     */
+    public long recorrerLineasTickets(Consumer<Object[]> alLeer) {
+        Session session = sessionFactory.openSession();
+        session.setDefaultReadOnly(true);
+        ScrollableResults resultados = session.createQuery(
+                "SELECT t.id, t.codigoTicket, t.fechaTicket, t.formaPago, t.total, u.id, u.dni, " +
+                        "d.id, j.id, j.titulo, d.cantidad, d.total " +
+                        "FROM Ticket t LEFT JOIN t.usuario u LEFT JOIN t.detallesTicket d LEFT JOIN d.juego j " +
+                        "ORDER BY t.id, d.id")
+                .setFetchSize(TAMANO_FETCH)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        long filas = 0;
+        try {
+            while (resultados.next()) {
+                alLeer.accept(resultados.get());
+                if (++filas % TAMANO_FETCH == 0) {
+                    session.clear();
+                }
+            }
+        } finally {
+            resultados.close();
+            session.close();
+        }
+
+        return filas;
+    }
+
+    /**
+     * Reserva un bloque de números de ticket consecutivos en la tabla generador_id. La fila se bloquea
+     * durante la transacción, así que dos instancias de la aplicación nunca reservan el mismo bloque.
+     * @param cantidad La cantidad de números a reservar.
+     * @return El primer número del bloque; el bloque llega hasta este número más la cantidad, sin incluirlo.
+     */
+    public long reservarCodigosTicket(int cantidad) {
+        Session session = sessionFactory.openSession();
+        session.beginTransaction();
+        try {
+            Number siguiente = (Number) session.createNativeQuery(
+                    "SELECT siguiente FROM generador_id WHERE entidad = 'codigo_ticket' FOR UPDATE")
+                    .getSingleResult();
+            //Indicar la tabla afectada evita que Hibernate vacíe toda la caché de segundo nivel
+            session.createNativeQuery(
+                    "UPDATE generador_id SET siguiente = siguiente + :cantidad WHERE entidad = 'codigo_ticket'")
+                    .addSynchronizedQuerySpace("generador_id")
+                    .setParameter("cantidad", cantidad)
+                    .executeUpdate();
+            session.getTransaction().commit();
+            return siguiente.longValue();
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Guarda un nuevo elemento en la base de datos y avisa a los observadores.
+     * Si es una puntuación, en la misma transacción se suma su nota a la de su videojuego.
      * @param nuevoElemento El objeto que se desea guardar.
+     * @param <T> El tipo de la entidad.
+     * @return El mismo objeto, con el id asignado.
      */
-    public void guardar(Object nuevoElemento) {
+    public <T> T guardar(T nuevoElemento) {
         Session session = sessionFactory.openSession();
         session.beginTransaction();
-        session.save(nuevoElemento);
-        session.getTransaction().commit();
-        session.close();
+        Set<Integer> juegosNota = new HashSet<>();
+        try {
+            session.save(nuevoElemento);
+            if (nuevoElemento instanceof Puntuacion) {
+                session.flush();
+                juegosNota.add(NotasVideojuegos.sumarPuntuacion(session, ((Puntuacion) nuevoElemento).getId()));
+            }
+            session.getTransaction().commit();
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            throw e;
+        } finally {
+            session.close();
+        }
+        invalidarNotas(juegosNota);
+        invalidarColecciones(nuevoElemento);
+        publicar(TipoCambio.INSERTAR, nuevoElemento);
+
+        return nuevoElemento;
     }
 
     /**
      * Guarda un nuevo ticket y sus detalles asociados en la base de datos.
+     * Los INSERT no se ejecutan al llamar a save, sino al confirmar la transacción,
+     * agrupados en un lote para el ticket y otro para todos sus detalles.
+     * En la misma transacción se descuentan del stock las unidades vendidas y, como último paso para
+     * bloquear sus filas el menor tiempo posible, se suman sus ventas a las tablas de resumen.
      * @param nuevoElemento El objeto {@link Ticket} que se desea guardar.
+     * @return El mismo ticket, con el id asignado.
+     * @throws StockInsuficienteException Si no quedan existencias de algún videojuego; no se guarda nada.
      */
-    public void guardarTicket(Ticket nuevoElemento) {
+    public Ticket guardarTicket(Ticket nuevoElemento) {
         Session session = sessionFactory.openSession();
         session.beginTransaction();
-        session.save(nuevoElemento);
-        for (DetalleTicket unDetalle : nuevoElemento.getDetallesTicket()) {
-            session.save(unDetalle);
+        try {
+            session.save(nuevoElemento);
+            for (DetalleTicket unDetalle : nuevoElemento.getDetallesTicket()) {
+                session.save(unDetalle);
+            }
+            session.flush();
+            Existencias.ajustarTicket(session, nuevoElemento.getId(), Collections.emptyMap(),
+                    unidadesPorJuego(nuevoElemento.getDetallesTicket()), nombresPorJuego(nuevoElemento.getDetallesTicket()));
+            ResumenesVentas.sumarTicket(session, nuevoElemento.getId());
+            ComprasUsuarios.sumarTicket(session, nuevoElemento.getId());
+            session.getTransaction().commit();
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            throw e;
+        } finally {
+            session.close();
         }
-        session.getTransaction().commit();
-        session.close();
+        publicar(TipoCambio.INSERTAR, nuevoElemento);
+
+        return nuevoElemento;
     }
 
     /**
-     * Modifica un ticket existente en la base de datos, eliminando los detalles antiguos
-     * y guardando los nuevos detalles.
-     * @param ticketModificado El objeto {@link Ticket} que se desea modificar.
+     * Suma las unidades de las líneas de un ticket por videojuego.
+     * @param detalles Las líneas del ticket.
+     * @return Las unidades de cada videojuego, por su id.
      */
-    public void modificarTicket(Ticket ticketModificado) {
-        Session session = sessionFactory.openSession();
+    private static Map<Integer, Integer> unidadesPorJuego(Collection<DetalleTicket> detalles) {
+        Map<Integer, Integer> unidades = new HashMap<>();
+        for (DetalleTicket unDetalle : detalles) {
+            unidades.merge(unDetalle.getJuego().getId(), unDetalle.getCantidad(), Integer::sum);
+        }
+        return unidades;
+    }
+
+    /**
+     * Obtiene el texto de cada videojuego de las líneas de un ticket, para los mensajes de error.
+     * @param detalles Las líneas del ticket.
+     * @return El texto de cada videojuego, por su id.
+     */
+    private static Map<Integer, String> nombresPorJuego(Collection<DetalleTicket> detalles) {
+        Map<Integer, String> nombres = new HashMap<>();
+        for (DetalleTicket unDetalle : detalles) {
+            nombres.put(unDetalle.getJuego().getId(), unDetalle.getJuego().toString());
+        }
+        return nombres;
+    }
+
+    /**
+     * Inserta un lote de elementos nuevos en una sola transacción, con una sesión sin estado:
+     * no guarda las entidades en memoria ni pasa por la caché, y los INSERT se envían por lotes de JDBC.
+     * Pensado para importaciones masivas; si falla cualquier INSERT, no se guarda nada del lote.
+     * Las notas de las puntuaciones se suman a sus videojuegos en la misma transacción.
+     * @param lote Los elementos a insertar, sin colecciones que guardar.
+     */
+    public void insertarLote(List<?> lote) {
+        StatelessSession session = sessionFactory.openStatelessSession();
         session.beginTransaction();
-        for (DetalleTicket unDetalle : getCompras().get(ticketModificado.getId() - 1).getDetallesTicket()) {
-            session.delete(unDetalle);
+        List<Puntuacion> puntuaciones = new ArrayList<>();
+        Set<Integer> juegosNota;
+        try {
+            for (Object elemento : lote) {
+                session.insert(elemento);
+                if (elemento instanceof Puntuacion) {
+                    puntuaciones.add((Puntuacion) elemento);
+                }
+            }
+            juegosNota = NotasVideojuegos.sumarLote(session, puntuaciones);
+            session.getTransaction().commit();
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            throw e;
+        } finally {
+            session.close();
+        }
+        //La sesión sin estado no avisa a la caché de consultas de que las tablas han cambiado
+        sessionFactory.getCache().evictQueryRegion(REGION_CONSULTAS);
+        invalidarNotas(juegosNota);
+    }
+
+    /**
+     * Recupera los ids de todos los videojuegos, recorriendo el resultado sin cargar las entidades.
+     * @return Un conjunto de bits con un bit activo por cada id de videojuego existente.
+     */
+    public BitSet getIdsJuegos() {
+        BitSet ids = new BitSet();
+        StatelessSession session = sessionFactory.openStatelessSession();
+        ScrollableResults resultados = session.createQuery("SELECT v.id FROM Videojuego v")
+                .setFetchSize(TAMANO_FETCH)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (resultados.next()) {
+                ids.set((Integer) resultados.get(0));
+            }
+        } finally {
+            resultados.close();
+            session.close();
+        }
+
+        return ids;
+    }
+
+    /**
+     * Recorre el id y algunos campos de todas las entidades de una clase, sin cargar las entidades.
+     * Se usa para construir índices en memoria, como el de búsqueda, con una sola consulta por clase.
+     * @param clase La clase de entidad a recorrer.
+     * @param campos Los nombres de los campos a leer.
+     * @param alLeer La acción que recibe cada fila: el id seguido de los campos, en el mismo orden.
+     */
+    public void recorrerCampos(Class<?> clase, String[] campos, Consumer<Object[]> alLeer) {
+        StringBuilder hql = new StringBuilder("SELECT e.id");
+        for (String campo : campos) {
+            hql.append(", e.").append(campo);
+        }
+        hql.append(" FROM ").append(clase.getSimpleName()).append(" e");
+
+        StatelessSession session = sessionFactory.openStatelessSession();
+        ScrollableResults resultados = session.createQuery(hql.toString())
+                .setFetchSize(TAMANO_FETCH)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (resultados.next()) {
+                alLeer.accept(resultados.get());
+            }
+        } finally {
+            resultados.close();
+            session.close();
         }
-        session.update(ticketModificado);
-        for (DetalleTicket unDetalle : ticketModificado.getDetallesTicket()) {
-            session.save(unDetalle);
+    }
+
+    /**
+     * Modifica un ticket existente en la base de datos aplicando solo las diferencias en sus detalles.
+     * Se leen las líneas actuales del ticket por su id, sin cargar entidades, y se comparan por videojuego
+     * con las nuevas: se insertan las de videojuegos nuevos, se actualizan las que cambian de cantidad
+     * o total, se borran en una sola sentencia las de videojuegos quitados y las iguales no se tocan.
+     * Los INSERT y UPDATE se envían por lotes al confirmar.
+     * El ticket lleva una versión: si otro usuario lo ha modificado desde que se leyó, no se guarda nada.
+     * En la misma transacción se restan de las tablas de resumen las ventas que tenía y se suman las nuevas.
+     * @param ticketModificado El objeto {@link Ticket} que se desea modificar, con la versión leída.
+     * @return El mismo ticket, con la nueva versión.
+     * @throws ConflictoConcurrenciaException Si el ticket ha sido modificado o borrado por otro usuario.
+     */
+    public Ticket modificarTicket(Ticket ticketModificado) {
+        Session session = sessionFactory.openSession();
+        session.beginTransaction();
+        try {
+            ResumenesVentas.restarTicket(session, ticketModificado.getId());
+            ComprasUsuarios.restarTicket(session, ticketModificado.getId());
+            Map<Integer, Integer> descontadas = Existencias.getDescontadas(session, ticketModificado.getId());
+
+            List<Object[]> lineas = session.createQuery("SELECT d.id, d.juego.id, d.cantidad, d.total " +
+                    "FROM DetalleTicket d WHERE d.ticket.id = :id", Object[].class)
+                    .setParameter("id", ticketModificado.getId())
+                    .getResultList();
+            Map<Integer, Object[]> anteriores = new HashMap<>();
+            List<Integer> borrados = new ArrayList<>();
+            Map<Integer, Integer> diferencia = unidadesPorJuego(ticketModificado.getDetallesTicket());
+            for (Object[] linea : lineas) {
+                diferencia.merge((Integer) linea[1], -(Integer) linea[2], Integer::sum);
+                //Si un videojuego tenía varias líneas, se conserva una y se borran las demás
+                if (anteriores.putIfAbsent((Integer) linea[1], linea) != null) {
+                    borrados.add((Integer) linea[0]);
+                }
+            }
+
+            //El UPDATE del ticket comprueba la versión leída y la incrementa
+            session.update(ticketModificado);
+            for (DetalleTicket unDetalle : ticketModificado.getDetallesTicket()) {
+                Object[] anterior = anteriores.remove(unDetalle.getJuego().getId());
+                if (anterior == null) {
+                    session.save(unDetalle);
+                } else {
+                    unDetalle.setId((Integer) anterior[0]);
+                    if (unDetalle.getCantidad() != (Integer) anterior[2] ||
+                            Double.compare(unDetalle.getTotal(), (Double) anterior[3]) != 0) {
+                        session.update(unDetalle);
+                    }
+                }
+            }
+            for (Object[] anterior : anteriores.values()) {
+                borrados.add((Integer) anterior[0]);
+            }
+            if (!borrados.isEmpty()) {
+                session.createQuery("DELETE FROM DetalleTicket d WHERE d.id IN (:ids)")
+                        .setParameter("ids", borrados)
+                        .executeUpdate();
+            }
+
+            session.flush();
+            //Las unidades añadidas se descuentan del stock y las quitadas se devuelven si se habían descontado
+            Existencias.ajustarTicket(session, ticketModificado.getId(), descontadas, diferencia,
+                    nombresPorJuego(ticketModificado.getDetallesTicket()));
+            ResumenesVentas.sumarTicket(session, ticketModificado.getId());
+            ComprasUsuarios.sumarTicket(session, ticketModificado.getId());
+            session.getTransaction().commit();
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            if (esConflictoDeVersion(e)) {
+                throw new ConflictoConcurrenciaException(Ticket.class, ticketModificado.getId(), false,
+                        Collections.emptyList(), e);
+            }
+            throw e;
+        } finally {
+            session.close();
         }
-        session.getTransaction().commit();
-        session.close();
+        publicar(TipoCambio.ACTUALIZAR, ticketModificado);
+
+        return ticketModificado;
     }
 
     /**
-     * Modifica un elemento existente en la base de datos.
+     * Modifica un elemento existente en la base de datos y avisa a los observadores.
+     * El elemento debe llevar la versión que tenía al leerlo.
      * @param elementoSeleccionado El objeto a modificar.
+     * @param <T> El tipo de la entidad.
+     * @return El mismo objeto, con la nueva versión.
+     * @throws ConflictoConcurrenciaException Si otro usuario lo ha modificado o borrado desde que se leyó.
+     */
+    public <T> T modificar(T elementoSeleccionado) {
+        return modificar(elementoSeleccionado, null);
+    }
+
+    /**
+     * Modifica un elemento existente en la base de datos con bloqueo optimista y avisa a los observadores.
+     * El UPDATE solo se aplica si la versión de la fila es la del elemento leído, sin bloquearla.
+     * Si otro usuario la ha cambiado y la fusión está activada, se lee el estado actual y se compara
+     * campo a campo con el leído: los campos que solo ha cambiado este usuario se aplican sobre el estado
+     * actual y se vuelve a intentar. Si algún campo lo han cambiado los dos con valores distintos, no se
+     * guarda nada y se avisa a los observadores del estado actual para que la vista lo muestre.
+     * @param elementoModificado El objeto con los cambios; su versión y los campos que el UPDATE no escribe,
+     *                           como la nota de un videojuego, se toman del leído.
+     * @param elementoLeido El objeto tal como se leyó, o null si el modificado ya lleva la versión;
+     *                      sin él no se puede fusionar.
+     * @param <T> El tipo de la entidad.
+     * @return El objeto modificado, con la nueva versión y, si se ha fusionado, los cambios del otro usuario.
+     * @throws ConflictoConcurrenciaException Si otro usuario lo ha modificado o borrado y no se puede fusionar.
      */
-    public void modificar(Object elementoSeleccionado) {
+    public <T> T modificar(T elementoModificado, T elementoLeido) {
+        EntityPersister persister = getPersister(elementoModificado);
+        if (elementoLeido != null) {
+            persister.setPropertyValue(elementoModificado, persister.getVersionProperty(),
+                    persister.getVersion(elementoLeido));
+            boolean[] actualizables = persister.getPropertyUpdateability();
+            Type[] tipos = persister.getPropertyTypes();
+            for (int i = 0; i < actualizables.length; i++) {
+                if (!actualizables[i] && !tipos[i].isCollectionType()) {
+                    persister.setPropertyValue(elementoModificado, i, persister.getPropertyValue(elementoLeido, i));
+                }
+            }
+        }
+        T base = elementoLeido;
+        for (int intento = 1; ; intento++) {
+            try {
+                actualizarVersionado(elementoModificado);
+                break;
+            } catch (ConflictoConcurrenciaException e) {
+                T actual = leerActual(elementoModificado);
+                if (actual == null) {
+                    publicar(TipoCambio.ELIMINAR, elementoModificado);
+                    throw new ConflictoConcurrenciaException(e.getClase(), e.getId(), true,
+                            Collections.emptyList(), e.getCause());
+                }
+                List<String> conflictos = Collections.emptyList();
+                if (fusionarCambios && base != null && intento < INTENTOS_FUSION) {
+                    conflictos = fusionar(persister, base, elementoModificado, actual);
+                    if (conflictos.isEmpty()) {
+                        base = actual;
+                        continue;
+                    }
+                }
+                invalidarColecciones(actual);
+                publicar(TipoCambio.ACTUALIZAR, actual);
+                throw new ConflictoConcurrenciaException(e.getClase(), e.getId(), false, conflictos, e.getCause());
+            }
+        }
+        invalidarColecciones(elementoModificado);
+        publicar(TipoCambio.ACTUALIZAR, elementoModificado);
+
+        return elementoModificado;
+    }
+
+    /**
+     * Ejecuta el UPDATE de un elemento en su propia transacción, comprobando su versión.
+     * Si es una puntuación, en la misma transacción se cambia su nota en la de su videojuego.
+     * @param elemento El objeto a modificar.
+     * @throws ConflictoConcurrenciaException Si la versión de la fila ya no es la del elemento.
+     */
+    private void actualizarVersionado(Object elemento) {
         Session session = sessionFactory.openSession();
         session.beginTransaction();
-        session.update(elementoSeleccionado);
-        session.getTransaction().commit();
-        session.close();
+        Set<Integer> juegosNota = new HashSet<>();
+        try {
+            boolean esPuntuacion = elemento instanceof Puntuacion;
+            if (esPuntuacion) {
+                juegosNota.add(NotasVideojuegos.restarPuntuacion(session, ((Puntuacion) elemento).getId()));
+            }
+            session.update(elemento);
+            session.flush();
+            if (esPuntuacion) {
+                juegosNota.add(NotasVideojuegos.sumarPuntuacion(session, ((Puntuacion) elemento).getId()));
+            }
+            session.getTransaction().commit();
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            if (esConflictoDeVersion(e)) {
+                throw new ConflictoConcurrenciaException(Hibernate.getClass(elemento), getId(elemento), false,
+                        Collections.emptyList(), e);
+            }
+            throw e;
+        } finally {
+            session.close();
+        }
+        invalidarNotas(juegosNota);
+    }
+
+    /**
+     * Lee de la base de datos, sin pasar por la caché de segundo nivel, el estado actual de un elemento,
+     * con sus colecciones propias inicializadas. La caché queda actualizada con lo leído.
+     * @param elemento El elemento, del que se toman la clase y el id.
+     * @param <T> El tipo de la entidad.
+     * @return El elemento tal como está guardado, o null si se ha borrado.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T leerActual(T elemento) {
+        EntityPersister persister = getPersister(elemento);
+        Session session = sessionFactory.openSession();
+        session.setCacheMode(CacheMode.REFRESH);
+        try {
+            T actual = (T) session.get(Hibernate.getClass(elemento), (Serializable) getId(elemento));
+            if (actual != null) {
+                Type[] tipos = persister.getPropertyTypes();
+                Object[] valores = persister.getPropertyValues(actual);
+                for (int i = 0; i < tipos.length; i++) {
+                    if (tipos[i].isCollectionType() && !esColeccionInversa(tipos[i])) {
+                        Hibernate.initialize(valores[i]);
+                    }
+                }
+            }
+            return actual;
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Fusiona en el elemento modificado los cambios que otro usuario ha guardado en campos que este no ha
+     * cambiado, comparando los tres estados campo a campo: el leído, el modificado y el actual.
+     * Las colecciones se comparan por los ids de sus elementos y las relaciones por el id de la entidad.
+     * Si no hay campos en conflicto, el elemento modificado queda con los campos fusionados y la versión actual.
+     * @param persister El persister de la entidad.
+     * @param leido El estado que se leyó antes de modificar.
+     * @param modificado El estado con los cambios de este usuario.
+     * @param actual El estado guardado por el otro usuario.
+     * @param <T> El tipo de la entidad.
+     * @return Los nombres de los campos que han cambiado los dos con valores distintos.
+     */
+    private <T> List<String> fusionar(EntityPersister persister, T leido, T modificado, T actual) {
+        String[] nombres = persister.getPropertyNames();
+        Type[] tipos = persister.getPropertyTypes();
+        Object[] base = persister.getPropertyValues(leido);
+        Object[] mios = persister.getPropertyValues(modificado);
+        Object[] suyos = persister.getPropertyValues(actual);
+
+        List<String> conflictos = new ArrayList<>();
+        for (int i = 0; i < nombres.length; i++) {
+            if (i == persister.getVersionProperty()) {
+                mios[i] = suyos[i];
+            } else if (!esColeccionInversa(tipos[i])) {
+                boolean cambioMio = !sonIguales(tipos[i], base[i], mios[i]);
+                boolean cambioSuyo = !sonIguales(tipos[i], base[i], suyos[i]);
+                if (!cambioMio) {
+                    mios[i] = tipos[i].isCollectionType() ? copiarColeccion(suyos[i]) : suyos[i];
+                } else if (cambioSuyo && !sonIguales(tipos[i], mios[i], suyos[i])) {
+                    conflictos.add(nombres[i]);
+                }
+            }
+        }
+        if (conflictos.isEmpty()) {
+            persister.setPropertyValues(modificado, mios);
+        }
+        return conflictos;
     }
 
     /**
-     * Elimina un elemento de la base de datos.
-     * Si el elemento está vinculado con otras entidades, se muestra un mensaje de error.
+     * Compara dos valores de un campo. Una colección sin inicializar no se puede comparar
+     * y se considera distinta, para no fusionar a ciegas.
+     * @param tipo El tipo de Hibernate del campo.
+     * @param uno Un valor.
+     * @param otro El otro valor.
+     * @return true si son iguales.
+     */
+    private boolean sonIguales(Type tipo, Object uno, Object otro) {
+        if (!tipo.isCollectionType()) {
+            return tipo.isEqual(uno, otro, sessionFactory.unwrap(SessionFactoryImplementor.class));
+        }
+        if (!Hibernate.isInitialized(uno) || !Hibernate.isInitialized(otro)) {
+            return false;
+        }
+        return idsDeColeccion(uno).equals(idsDeColeccion(otro));
+    }
+
+    /**
+     * Obtiene los ids de los elementos de una colección de entidades.
+     * @param coleccion La colección, o null.
+     * @return Los ids, con cuántas veces aparece cada uno.
+     */
+    private Map<Object, Integer> idsDeColeccion(Object coleccion) {
+        Map<Object, Integer> ids = new HashMap<>();
+        if (coleccion != null) {
+            for (Object elemento : (Collection<?>) coleccion) {
+                ids.merge(getId(elemento), 1, Integer::sum);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Copia una colección en una lista o conjunto nuevo, para no asignar a otra entidad
+     * la colección de Hibernate de una sesión ya cerrada.
+     * @param coleccion La colección, o null.
+     * @return La copia.
+     */
+    private Object copiarColeccion(Object coleccion) {
+        if (coleccion instanceof Set) {
+            return new HashSet<>((Set<?>) coleccion);
+        } else if (coleccion instanceof Collection) {
+            return new ArrayList<>((Collection<?>) coleccion);
+        }
+        return coleccion;
+    }
+
+    /**
+     * Indica si un campo es una colección del lado inverso de una relación, que el UPDATE no escribe.
+     * @param tipo El tipo de Hibernate del campo.
+     * @return true si es una colección inversa.
+     */
+    private boolean esColeccionInversa(Type tipo) {
+        return tipo.isCollectionType() && sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel()
+                .collectionPersister(((CollectionType) tipo).getRole()).isInverse();
+    }
+
+    /**
+     * Indica si una excepción se debe a que la versión de una fila ha cambiado o la fila ya no existe.
+     * Hibernate la envuelve de forma distinta según falle al enviar las sentencias o al confirmar.
+     * @param e La excepción.
+     * @return true si alguna de sus causas es un fallo de bloqueo optimista.
+     */
+    private boolean esConflictoDeVersion(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof OptimisticLockException || causa instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si una excepción se debe a que una sentencia incumple una restricción de la base de datos,
+     * como borrar una fila a la que todavía apunta una clave ajena.
+     * @param e La excepción.
+     * @return true si alguna de sus causas es una violación de restricción.
+     */
+    private boolean esRestriccionIncumplida(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene el persister de Hibernate de una entidad, que permite leer y escribir sus campos.
+     * @param entidad La entidad, o un proxy de ella.
+     * @return El persister de su clase.
+     */
+    private EntityPersister getPersister(Object entidad) {
+        return sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel()
+                .entityPersister(Hibernate.getClass(entidad));
+    }
+
+    /**
+     * Obtiene el id de una entidad, aunque no pertenezca a ninguna sesión abierta.
+     * @param entidad La entidad.
+     * @return Su id.
+     */
+    private Object getId(Object entidad) {
+        return sessionFactory.getPersistenceUnitUtil().getIdentifier(entidad);
+    }
+
+    /**
+     * Elimina un elemento de la base de datos y avisa a los observadores.
+     * Si falla cualquier sentencia, se deshace toda la transacción y se lanza la excepción.
+     * Si es un ticket, en la misma transacción se restan sus ventas de las tablas de resumen
+     * y sus unidades vuelven al stock. Si es una puntuación, se resta su nota de la de su videojuego.
+     * El DELETE comprueba la versión del elemento, así que no se borra si otro usuario lo ha modificado.
      * @param elementoABorrar El objeto a eliminar.
      * @param entidad El nombre de la entidad a eliminar.
+     * @param <T> El tipo de la entidad.
+     * @return El objeto eliminado.
+     * @throws ConflictoConcurrenciaException Si otro usuario lo ha modificado o borrado desde que se leyó.
+     * @throws EntidadVinculadaException Si otras entidades lo referencian y no se puede borrar.
      */
-    public void eliminar(Object elementoABorrar, String entidad) {
+    public <T> T eliminar(T elementoABorrar, String entidad) {
         Session session = sessionFactory.openSession();
         session.beginTransaction();
+        Set<Integer> juegosNota = new HashSet<>();
         try {
+            if (elementoABorrar instanceof Ticket) {
+                ResumenesVentas.restarTicket(session, ((Ticket) elementoABorrar).getId());
+                ComprasUsuarios.restarTicket(session, ((Ticket) elementoABorrar).getId());
+                Existencias.devolverTicket(session, ((Ticket) elementoABorrar).getId());
+            } else if (elementoABorrar instanceof Puntuacion) {
+                juegosNota.add(NotasVideojuegos.restarPuntuacion(session, ((Puntuacion) elementoABorrar).getId()));
+            }
             session.delete(elementoABorrar);
+            session.flush();
             session.getTransaction().commit();
-        } catch (PersistenceException e) {
-            Util.showErrorAlert("No puedes borrar este " + entidad + " porque esta vinculado con otra tabla.\n" +
-                    "Borra esa conexión antes de borrar el " + entidad);
+        } catch (RuntimeException e) {
+            session.getTransaction().rollback();
+            if (esConflictoDeVersion(e)) {
+                throw new ConflictoConcurrenciaException(Hibernate.getClass(elementoABorrar), getId(elementoABorrar),
+                        false, Collections.emptyList(), e);
+            }
+            if (esRestriccionIncumplida(e)) {
+                throw new EntidadVinculadaException(entidad, e);
+            }
+            throw e;
         } finally {
             session.close();
         }
+        invalidarNotas(juegosNota);
+        invalidarColecciones(elementoABorrar);
+        publicar(TipoCambio.ELIMINAR, elementoABorrar);
+
+        return elementoABorrar;
+    }
+
+    /**
+     * Saca de la caché de segundo nivel los videojuegos cuya nota ha cambiado y los listados cacheados,
+     * que pueden estar ordenados por nota. Los UPDATE de las notas no invalidan la región de videojuegos,
+     * así que debe llamarse después de confirmar la transacción que las cambia.
+     * @param idsJuegos Los ids de los videojuegos; los null se ignoran.
+     */
+    private void invalidarNotas(Collection<Integer> idsJuegos) {
+        Cache cache = sessionFactory.getCache();
+        boolean hayCambios = false;
+        for (Integer idJuego : idsJuegos) {
+            if (idJuego != null) {
+                cache.evictEntityData(Videojuego.class, idJuego);
+                hayCambios = true;
+            }
+        }
+        if (hayCambios) {
+            cache.evictQueryRegion(REGION_CONSULTAS);
+        }
+    }
+
+    /**
+     * Invalida las colecciones cacheadas que Hibernate no actualiza por sí solo tras una escritura.
+     * Las entidades, la colección propietaria Videojuego.desarrolladores y las consultas cacheadas
+     * se invalidan automáticamente, pero Desarrollador.juegos es el lado inverso de la relación
+     * y quedaría desactualizada al guardar, modificar o borrar un videojuego.
+     * @param elemento El elemento que se ha escrito.
+     */
+    private void invalidarColecciones(Object elemento) {
+        Cache cache = sessionFactory.getCache();
+        String juegosDeDesarrollador = Desarrollador.class.getName() + ".juegos";
+        if (elemento instanceof Videojuego) {
+            cache.evictCollectionData(juegosDeDesarrollador);
+        } else if (elemento instanceof Desarrollador) {
+            cache.evictCollectionData(juegosDeDesarrollador, ((Desarrollador) elemento).getId());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.felipe.tiendavideojuegos.gui;
+
+/**
+ * Interfaz ObservadorCambios la implementan quienes necesitan enterarse de las escrituras del {@link Modelo}.
+ * Se llama en el hilo que ha hecho la escritura, normalmente uno de {@link TareasEnSegundoPlano},
+ * así que quien actualice componentes de Swing debe pasar al EDT.
+ */
+public interface ObservadorCambios {
+
+    /**
+     * Se llama cuando se ha confirmado una escritura en la base de datos.
+     * @param cambio El cambio realizado.
+     */
+    void cambioRealizado(CambioEntidad cambio);
+}
@@ -0,0 +1,227 @@
+package com.felipe.tiendavideojuegos.gui;
+
+import com.felipe.tiendavideojuegos.stock.StockInsuficienteException;
+import com.felipe.tiendavideojuegos.util.Util;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Clase TareasEnSegundoPlano ejecuta el acceso a la base de datos fuera del hilo de eventos de Swing (EDT).
+ * Las consultas se lanzan en un grupo limitado de hilos y su resultado se aplica a la vista en el EDT.
+ * Cada tarea tiene una clave: si se lanza otra tarea con la misma clave antes de que termine la anterior,
+ * la anterior se cancela y su resultado se descarta, de modo que solo se aplica el refresco más reciente.
+ * Varias consultas pueden agruparse bajo una clave para ejecutarse en paralelo y aplicarse juntas.
+ * Todos los métodos públicos deben llamarse desde el EDT.
+ */
+public class TareasEnSegundoPlano {
+
+    private final static int HILOS = 8;
+
+    private final ExecutorService ejecutor;
+    private final Map<String, Grupo> enCurso;
+    private final JProgressBar barraProgreso;
+    private final AtomicInteger contadorEscrituras;
+
+    /**
+     * Constructor de la clase TareasEnSegundoPlano.
+     * @param barraProgreso La barra que muestra cuántas tareas hay en curso.
+     */
+    public TareasEnSegundoPlano(JProgressBar barraProgreso) {
+        this.barraProgreso = barraProgreso;
+        this.enCurso = new HashMap<>();
+        this.contadorEscrituras = new AtomicInteger();
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.ejecutor = Executors.newFixedThreadPool(HILOS, tarea -> {
+            Thread hilo = new Thread(tarea, "bd-" + numeroHilo.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Ejecuta una consulta en segundo plano y aplica su resultado en el EDT.
+     * Si ya había una tarea en curso con la misma clave, se cancela y su resultado no se aplica.
+     * @param clave La clave que identifica la tarea, por ejemplo la tabla que refresca.
+     * @param consulta La consulta que se ejecuta fuera del EDT.
+     * @param alTerminar La acción que recibe el resultado, ejecutada en el EDT.
+     * @param <T> El tipo del resultado de la consulta.
+     */
+    public <T> void ejecutar(String clave, Callable<T> consulta, Consumer<T> alTerminar) {
+        Grupo grupo = grupo(clave);
+        CompletableFuture<T> resultado = grupo.lanzar(consulta);
+        grupo.alTerminar(() -> alTerminar.accept(resultado.join()));
+    }
+
+    /**
+     * Crea un grupo de consultas que se ejecutan a la vez en hilos distintos y cuyos resultados
+     * se aplican juntos, en una sola pasada por el EDT, cuando ha terminado la última.
+     * Si ya había una tarea o un grupo en curso con la misma clave, se cancela.
+     * @param clave La clave que identifica el grupo.
+     * @return El grupo, al que se añaden las consultas con {@link Grupo#lanzar(Callable)}.
+     */
+    public Grupo grupo(String clave) {
+        Grupo anterior = enCurso.remove(clave);
+        if (anterior != null) {
+            anterior.cancelar();
+        }
+        Grupo grupo = new Grupo(clave);
+        enCurso.put(clave, grupo);
+        actualizarProgreso();
+        return grupo;
+    }
+
+    /**
+     * Ejecuta una escritura en segundo plano. Las escrituras nunca se cancelan entre sí.
+     * @param escritura La operación que se ejecuta fuera del EDT.
+     * @param alTerminar La acción que se ejecuta en el EDT cuando la escritura termina sin errores.
+     */
+    public void escribir(Runnable escritura, Runnable alTerminar) {
+        ejecutar("escritura-" + contadorEscrituras.incrementAndGet(), () -> {
+            escritura.run();
+            return null;
+        }, resultado -> alTerminar.run());
+    }
+
+    /**
+     * Indica si hay una tarea en curso con la clave indicada.
+     * @param clave La clave de la tarea.
+     * @return true si la tarea no ha terminado todavía.
+     */
+    public boolean estaEnCurso(String clave) {
+        return enCurso.containsKey(clave);
+    }
+
+    /**
+     * Cancela la tarea en curso con la clave indicada, si la hay. Su resultado no se aplicará.
+     * @param clave La clave de la tarea.
+     */
+    public void cancelar(String clave) {
+        Grupo grupo = enCurso.remove(clave);
+        if (grupo != null) {
+            grupo.cancelar();
+            actualizarProgreso();
+        }
+    }
+
+    /**
+     * Cancela todas las tareas y detiene los hilos.
+     */
+    public void cerrar() {
+        for (Grupo grupo : enCurso.values()) {
+            grupo.cancelar();
+        }
+        enCurso.clear();
+        ejecutor.shutdownNow();
+        actualizarProgreso();
+    }
+
+    /**
+     * Marca como terminado un grupo si sigue siendo el vigente para su clave.
+     * @param clave La clave del grupo.
+     * @param grupo El grupo que ha terminado.
+     * @return true si el resultado debe aplicarse, false si el grupo fue cancelado o sustituido.
+     */
+    private boolean terminar(String clave, Grupo grupo) {
+        if (enCurso.get(clave) != grupo) {
+            return false;
+        }
+        enCurso.remove(clave);
+        actualizarProgreso();
+        return true;
+    }
+
+    /**
+     * Muestra u oculta la barra de progreso según las tareas que quedan en curso.
+     */
+    private void actualizarProgreso() {
+        barraProgreso.setVisible(!enCurso.isEmpty());
+        barraProgreso.setString("Cargando (" + enCurso.size() + ")");
+    }
+
+    /**
+     * Grupo de consultas lanzadas a la vez bajo una misma clave.
+     */
+    public class Grupo {
+
+        private final String clave;
+        private final List<Future<?>> trabajos;
+        private final List<CompletableFuture<?>> resultados;
+
+        /**
+         * Constructor de la clase Grupo.
+         * @param clave La clave del grupo.
+         */
+        private Grupo(String clave) {
+            this.clave = clave;
+            this.trabajos = new ArrayList<>();
+            this.resultados = new ArrayList<>();
+        }
+
+        /**
+         * Lanza una consulta del grupo en un hilo del ejecutor, con su propia sesión.
+         * @param consulta La consulta que se ejecuta fuera del EDT.
+         * @param <T> El tipo del resultado de la consulta.
+         * @return El resultado futuro, que puede leerse con join() dentro de {@link #alTerminar(Runnable)}.
+         */
+        public <T> CompletableFuture<T> lanzar(Callable<T> consulta) {
+            CompletableFuture<T> resultado = new CompletableFuture<>();
+            trabajos.add(ejecutor.submit(() -> {
+                try {
+                    resultado.complete(consulta.call());
+                } catch (Throwable e) {
+                    resultado.completeExceptionally(e);
+                }
+            }));
+            resultados.add(resultado);
+            return resultado;
+        }
+
+        /**
+         * Indica la acción que aplica los resultados del grupo. Se ejecuta en el EDT cuando han
+         * terminado todas las consultas, salvo que el grupo se haya cancelado o sustituido.
+         * Si alguna consulta falla, se muestra el error y no se aplica nada; un conflicto con la escritura
+         * de otro usuario, la falta de existencias o un borrado de algo vinculado se muestran como aviso.
+         * @param aplicar La acción que aplica los resultados a la vista.
+         */
+        public void alTerminar(Runnable aplicar) {
+            CompletableFuture.allOf(resultados.toArray(new CompletableFuture<?>[0]))
+                    .whenComplete((nada, error) -> SwingUtilities.invokeLater(() -> {
+                        if (!terminar(clave, this)) {
+                            return;
+                        }
+                        if (error != null) {
+                            Throwable causa = error.getCause() != null ? error.getCause() : error;
+                            if (causa instanceof ConflictoConcurrenciaException
+                                    || causa instanceof StockInsuficienteException
+                                    || causa instanceof EntidadVinculadaException) {
+                                Util.showWarningAlert(causa.getMessage());
+                            } else {
+                                Util.showErrorAlert("Error al acceder a la base de datos:\n" + causa.getMessage());
+                            }
+                        } else {
+                            aplicar.run();
+                        }
+                    }));
+        }
+
+        /**
+         * Cancela las consultas del grupo que aún no han terminado.
+         */
+        private void cancelar() {
+            for (Future<?> trabajo : trabajos) {
+                trabajo.cancel(true);
+            }
+        }
+    }
+}
@@ -2,13 +2,21 @@ package com.felipe.tiendavideojuegos.gui;
 
 import com.felipe.tiendavideojuegos.base.Desarrollador;
 import com.felipe.tiendavideojuegos.base.DetalleTicket;
+import com.felipe.tiendavideojuegos.base.Ticket;
+import com.felipe.tiendavideojuegos.base.Videojuego;
 import com.felipe.tiendavideojuegos.gui.enums.Genero;
 import com.felipe.tiendavideojuegos.gui.enums.TipoDesarrollador;
-import com.felipe.tiendavideojuegos.tables.VideojuegosTableModel;
+import com.felipe.tiendavideojuegos.gui.enums.TipoInforme;
+import com.felipe.tiendavideojuegos.tables.ColumnasCompras;
+import com.felipe.tiendavideojuegos.tables.ColumnasVideojuegos;
+import com.felipe.tiendavideojuegos.tables.DesarrolladoresTableModel;
+import com.felipe.tiendavideojuegos.tables.InformeTableModel;
+import com.felipe.tiendavideojuegos.tables.PerezosoTableModel;
+import com.felipe.tiendavideojuegos.tables.PuntuacionesTableModel;
+import com.felipe.tiendavideojuegos.tables.UsuariosTableModel;
 import com.github.lgooddatepicker.components.DatePicker;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -22,9 +30,11 @@ import java.awt.event.MouseEvent;
 public class Vista extends JFrame {
 
     // Componentes principales
-    private JTabbedPane tabbedPane1;
+    JTabbedPane tabbedPane1;
     private JPanel panel1;
     private final static String TITULO_FRAME = "Tienda de videojuegos";
+    private final static int TAMANO_BLOQUE = 200;
+    private final static int MAXIMO_BLOQUES = 50;
 
     // Componentes de desarrolladores
     public JTextField tfDevNombre;
@@ -43,7 +53,7 @@ public class Vista extends JFrame {
     public JTextField tfJuegoTitulo;
     public JComboBox cbJuegoGenero;
     public JTextField tfJuegoPrecio;
-    public JComboBox cbJuegoDesarrolladores;
+    public JComboBox<Object> cbJuegoDesarrolladores;
     public JRadioButton rbJuegoPc;
     public JRadioButton rbJuegoPlaystation;
     public JRadioButton rbJuegoXbox;
@@ -60,7 +70,7 @@ public class Vista extends JFrame {
     public JButton bJuegoCancelarModificacion;
 
     // Componentes de puntuaciones
-    public JComboBox cbRatingJuego;
+    public JComboBox<Object> cbRatingJuego;
     public JTextField tfRatingFuente;
     public JTextField tfRatingPuntuacion;
     public JTable tablaPuntuaciones;
@@ -88,8 +98,8 @@ public class Vista extends JFrame {
     public JButton bUserCancelarModificacion;
 
     // Componentes de videojuegos
-    public JComboBox cbCompraUsuarios;
-    public JComboBox cbCompraJuegos;
+    public JComboBox<Object> cbCompraUsuarios;
+    public JComboBox<Object> cbCompraJuegos;
     public JRadioButton rbCompraEfectivo;
     public JRadioButton rbCompraTarjeta;
     public JTextField tfCompraCantidad;
@@ -105,24 +115,63 @@ public class Vista extends JFrame {
     public JButton bCompraEfectuarModificacion;
     public JButton bCompraCancelarModificacion;
 
+    // Barras de filtro de las tablas de videojuegos y compras
+    private JPanel panelFiltroJuegos;
+    private JPanel panelFiltroCompras;
+    JTextField tfFiltroJuegoTitulo;
+    JComboBox<String> cbFiltroJuegoGenero;
+    JComboBox<String> cbFiltroJuegoPlataforma;
+    JTextField tfFiltroJuegoPrecioMin;
+    JTextField tfFiltroJuegoPrecioMax;
+    DatePicker dpFiltroJuegoDesde;
+    DatePicker dpFiltroJuegoHasta;
+    JButton bFiltroJuegoLimpiar;
+    DatePicker dpFiltroCompraDesde;
+    DatePicker dpFiltroCompraHasta;
+    JTextField tfFiltroCompraUsuario;
+    JComboBox<String> cbFiltroCompraPago;
+    JButton bFiltroCompraLimpiar;
+
+    // Pestaña de informes de ventas
+    JComboBox<TipoInforme> cbInformeTipo;
+    DatePicker dpInformeDesde;
+    DatePicker dpInformeHasta;
+    JButton bInformeGenerar;
+    JTable tablaInforme;
+
     // Componentes del menú
     JMenuItem itemConectar;
     JMenuItem itemSalir;
+    JMenuItem itemEstadisticas;
+    JMenuItem itemImportarJuegos;
+    JMenuItem itemImportarDevs;
+    JMenuItem itemImportarRatings;
+    JMenuItem itemExportarTickets;
+    JMenuItem itemReconstruirResumenes;
+    JCheckBoxMenuItem itemFusionarCambios;
+    JTextField tfBuscar;
+    JPopupMenu menuResultados;
+    JProgressBar barraProgreso;
 
     JPopupMenu menuContextualDev;
     JPopupMenu menuContextualUser;
+    JPopupMenu menuContextualJuego;
     JMenuItem itemVerJuegos;
     JMenuItem itemVerTickets;
+    JMenuItem itemReponerExistencias;
 
     // Modelos de tablas y listas
-    DefaultTableModel dtmDesarrollador;
+    DesarrolladoresTableModel ctmDesarrolladores = new DesarrolladoresTableModel();
     //DefaultTableModel dtmJuegos;
-    VideojuegosTableModel ctmJuegos = new VideojuegosTableModel();
+    PerezosoTableModel<Videojuego> ctmJuegos = new PerezosoTableModel<>(ColumnasVideojuegos.COLUMNAS,
+            Videojuego::getId, ColumnasVideojuegos::getValor, TAMANO_BLOQUE, MAXIMO_BLOQUES);
     DefaultListModel<Desarrollador> dlmDevDeJuego;
-    DefaultTableModel dtmPuntuaciones;
-    DefaultTableModel dtmUsuario;
-    DefaultTableModel dtmCompras;
+    PuntuacionesTableModel ctmPuntuaciones = new PuntuacionesTableModel();
+    UsuariosTableModel ctmUsuarios = new UsuariosTableModel();
+    PerezosoTableModel<Ticket> ctmCompras = new PerezosoTableModel<>(ColumnasCompras.COLUMNAS,
+            Ticket::getId, ColumnasCompras::getValor, TAMANO_BLOQUE, MAXIMO_BLOQUES);
     DefaultListModel<DetalleTicket> dlmJuegosDeCompra;
+    InformeTableModel ctmInforme = new InformeTableModel();
 
     /**
      * Constructor de la clase VistaListaEntidad. Inicializa la ventana y los modelos de lista.
@@ -132,6 +181,8 @@ public class Vista extends JFrame {
         initFrame();
         setMenu();
         setEnumComboBox();
+        setFiltros();
+        crearPestanaInformes();
         setTableModels();
         setListModels();
         visiblesBotonesLimpiar(false);
@@ -139,6 +190,7 @@ public class Vista extends JFrame {
         crearMenuContextual();
         agregarMenuATabla(tablaDesarrolladores, menuContextualDev);
         agregarMenuATabla(tablaUsuarios, menuContextualUser);
+        agregarMenuATabla(tablaJuegos, menuContextualJuego);
 
         rbJuegoPc.setSelected(true);
         rbCompraEfectivo.setSelected(true);
@@ -170,12 +222,65 @@ public class Vista extends JFrame {
         itemSalir = new JMenuItem("Salir");
         itemSalir.setActionCommand("Salir");
 
+        itemEstadisticas = new JMenuItem("Estadísticas");
+        itemEstadisticas.setActionCommand("Estadisticas");
+
+        JMenu menuImportar = new JMenu("Importar");
+
+        itemImportarJuegos = new JMenuItem("Videojuegos...");
+        itemImportarJuegos.setActionCommand("ImportarVideojuegos");
+
+        itemImportarDevs = new JMenuItem("Desarrolladores...");
+        itemImportarDevs.setActionCommand("ImportarDesarrolladores");
+
+        itemImportarRatings = new JMenuItem("Puntuaciones...");
+        itemImportarRatings.setActionCommand("ImportarPuntuaciones");
+
+        menuImportar.add(itemImportarJuegos);
+        menuImportar.add(itemImportarDevs);
+        menuImportar.add(itemImportarRatings);
+
+        itemExportarTickets = new JMenuItem("Exportar tickets...");
+        itemExportarTickets.setActionCommand("ExportarTickets");
+
+        itemReconstruirResumenes = new JMenuItem("Reconstruir resúmenes de ventas");
+        itemReconstruirResumenes.setActionCommand("ReconstruirResumenes");
+
+        itemFusionarCambios = new JCheckBoxMenuItem("Fusionar cambios concurrentes", true);
+        itemFusionarCambios.setToolTipText("Guardar sin preguntar si otro usuario ha cambiado otros campos");
+        itemFusionarCambios.setActionCommand("FusionarCambios");
+
         menu.add(itemConectar);
+        menu.add(menuImportar);
+        menu.add(itemExportarTickets);
+        menu.add(itemReconstruirResumenes);
+        menu.add(itemFusionarCambios);
+        menu.add(itemEstadisticas);
         menu.add(itemSalir);
 
         barra.add(menu);
 
         barra.add(Box.createHorizontalGlue());
+
+        tfBuscar = new JTextField();
+        tfBuscar.setToolTipText("Buscar videojuegos, desarrolladores o usuarios");
+        tfBuscar.setMaximumSize(new Dimension(240, tfBuscar.getPreferredSize().height));
+        tfBuscar.setPreferredSize(tfBuscar.getMaximumSize());
+        barra.add(new JLabel("Buscar: "));
+        barra.add(tfBuscar);
+        barra.add(Box.createHorizontalStrut(10));
+
+        //El menú de resultados no debe quitar el foco al campo mientras se escribe
+        menuResultados = new JPopupMenu();
+        menuResultados.setFocusable(false);
+
+        barraProgreso = new JProgressBar();
+        barraProgreso.setIndeterminate(true);
+        barraProgreso.setStringPainted(true);
+        barraProgreso.setMaximumSize(new Dimension(160, barraProgreso.getPreferredSize().height));
+        barraProgreso.setVisible(false);
+        barra.add(barraProgreso);
+
         this.setJMenuBar(barra);
     }
 
@@ -194,6 +299,86 @@ public class Vista extends JFrame {
         }
     }
 
+    /**
+     * Crea las barras de filtro de las tablas de videojuegos y compras. Los campos vacíos
+     * y la primera opción de cada combo box no filtran.
+     */
+    private void setFiltros() {
+        tfFiltroJuegoTitulo = new JTextField(12);
+        cbFiltroJuegoGenero = new JComboBox<>();
+        cbFiltroJuegoGenero.addItem("Todos los géneros");
+        for (Genero unGenero : Genero.values()) {
+            cbFiltroJuegoGenero.addItem(unGenero.getNombre());
+        }
+        cbFiltroJuegoPlataforma = new JComboBox<>(new String[] {"Todas las plataformas", "PC", "Playstation", "Xbox"});
+        tfFiltroJuegoPrecioMin = new JTextField(4);
+        tfFiltroJuegoPrecioMax = new JTextField(4);
+        dpFiltroJuegoDesde = new DatePicker();
+        dpFiltroJuegoHasta = new DatePicker();
+        bFiltroJuegoLimpiar = new JButton("Quitar filtros");
+        bFiltroJuegoLimpiar.setActionCommand("limpiarFiltroJuegos");
+
+        panelFiltroJuegos.add(new JLabel("Título"));
+        panelFiltroJuegos.add(tfFiltroJuegoTitulo);
+        panelFiltroJuegos.add(cbFiltroJuegoGenero);
+        panelFiltroJuegos.add(cbFiltroJuegoPlataforma);
+        panelFiltroJuegos.add(new JLabel("Precio"));
+        panelFiltroJuegos.add(tfFiltroJuegoPrecioMin);
+        panelFiltroJuegos.add(new JLabel("a"));
+        panelFiltroJuegos.add(tfFiltroJuegoPrecioMax);
+        panelFiltroJuegos.add(new JLabel("Lanzamiento"));
+        panelFiltroJuegos.add(dpFiltroJuegoDesde);
+        panelFiltroJuegos.add(new JLabel("a"));
+        panelFiltroJuegos.add(dpFiltroJuegoHasta);
+        panelFiltroJuegos.add(bFiltroJuegoLimpiar);
+
+        dpFiltroCompraDesde = new DatePicker();
+        dpFiltroCompraHasta = new DatePicker();
+        tfFiltroCompraUsuario = new JTextField(10);
+        tfFiltroCompraUsuario.setToolTipText("Principio del DNI o de los apellidos");
+        cbFiltroCompraPago = new JComboBox<>(new String[] {"Todas las formas de pago", "Efectivo", "Tarjeta"});
+        bFiltroCompraLimpiar = new JButton("Quitar filtros");
+        bFiltroCompraLimpiar.setActionCommand("limpiarFiltroCompras");
+
+        panelFiltroCompras.add(new JLabel("Fecha"));
+        panelFiltroCompras.add(dpFiltroCompraDesde);
+        panelFiltroCompras.add(new JLabel("a"));
+        panelFiltroCompras.add(dpFiltroCompraHasta);
+        panelFiltroCompras.add(new JLabel("Usuario"));
+        panelFiltroCompras.add(tfFiltroCompraUsuario);
+        panelFiltroCompras.add(cbFiltroCompraPago);
+        panelFiltroCompras.add(bFiltroCompraLimpiar);
+    }
+
+    /**
+     * Crea la pestaña de informes de ventas: el tipo de informe, el intervalo de fechas de los tickets
+     * y la tabla con el resultado. Las fechas vacías no limitan el informe.
+     */
+    private void crearPestanaInformes() {
+        cbInformeTipo = new JComboBox<>(TipoInforme.values());
+        dpInformeDesde = new DatePicker();
+        dpInformeHasta = new DatePicker();
+        bInformeGenerar = new JButton("Generar");
+        bInformeGenerar.setActionCommand("generarInforme");
+
+        JPanel opciones = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        opciones.add(new JLabel("Informe"));
+        opciones.add(cbInformeTipo);
+        opciones.add(new JLabel("Fecha"));
+        opciones.add(dpInformeDesde);
+        opciones.add(new JLabel("a"));
+        opciones.add(dpInformeHasta);
+        opciones.add(bInformeGenerar);
+
+        tablaInforme = new JTable(ctmInforme);
+        tablaInforme.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        JPanel panelInformes = new JPanel(new BorderLayout());
+        panelInformes.add(opciones, BorderLayout.NORTH);
+        panelInformes.add(new JScrollPane(tablaInforme), BorderLayout.CENTER);
+        tabbedPane1.addTab("Informes", panelInformes);
+    }
+
     /**
      * Configura los modelos de las tablas.
      */
@@ -203,44 +388,16 @@ public class Vista extends JFrame {
         this.tablaJuegos.setModel(ctmJuegos);
         this.tablaJuegos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
-        this.dtmDesarrollador = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        this.dtmDesarrollador.setColumnIdentifiers(new String[] {"ID", "Nombre", "Email", "Años Experiencia", "Tipo Desarrollo"});
-        this.tablaDesarrolladores.setModel(dtmDesarrollador);
+        this.tablaDesarrolladores.setModel(ctmDesarrolladores);
         this.tablaDesarrolladores.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
-        this.dtmPuntuaciones = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        this.dtmPuntuaciones.setColumnIdentifiers(new String[] {"ID", "Juego", "Fuente", "Nota", "Fecha"});
-        this.tablaPuntuaciones.setModel(dtmPuntuaciones);
+        this.tablaPuntuaciones.setModel(ctmPuntuaciones);
         this.tablaPuntuaciones.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
-        this.dtmUsuario = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        this.dtmUsuario.setColumnIdentifiers(new String[] {"ID", "Nombre", "Apellidos", "DNI", "Dirección", "Email", "Teléfono"});
-        this.tablaUsuarios.setModel(dtmUsuario);
+        this.tablaUsuarios.setModel(ctmUsuarios);
         this.tablaUsuarios.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
-        this.dtmCompras = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        this.dtmCompras.setColumnIdentifiers(new String[] {"ID", "Código", "Usuario", "Pago", "Fecha", "Total"});
-        this.tablaCompras.setModel(dtmCompras);
+        this.tablaCompras.setModel(ctmCompras);
         this.tablaCompras.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
     }
 
@@ -287,9 +444,10 @@ public class Vista extends JFrame {
     }
 
     /**
-     * Crea y configura los menús contextuales para el desarrollador y el usuario.
-     * Este método genera dos menús contextuales, uno para el desarrollador que contiene
-     * la opción "Ver Videojuegos" y otro para el usuario con la opción "Ver Tickets".
+     * Crea y configura los menús contextuales para el desarrollador, el usuario y el videojuego.
+     * Este método genera tres menús contextuales, uno para el desarrollador que contiene
+     * la opción "Ver Videojuegos", otro para el usuario con la opción "Ver Tickets"
+     * y otro para el videojuego con la opción "Reponer existencias".
      * Los menús se configuran con los elementos correspondientes y se asignan las acciones
      * necesarias a los items del menú.
      */
@@ -305,6 +463,11 @@ public class Vista extends JFrame {
         itemVerTickets = new JMenuItem("Ver Tickets");
         itemVerTickets.setActionCommand("Ver Tickets");
         menuContextualUser.add(itemVerTickets);
+
+        menuContextualJuego = new JPopupMenu();
+        itemReponerExistencias = new JMenuItem("Reponer existencias...");
+        itemReponerExistencias.setActionCommand("ReponerExistencias");
+        menuContextualJuego.add(itemReponerExistencias);
     }
 
     /**
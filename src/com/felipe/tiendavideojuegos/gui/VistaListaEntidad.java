@@ -62,10 +62,11 @@ public class VistaListaEntidad extends JFrame {
     }
 
     /**
-     * Prepara la vista para mostrar una lista de objetos Ticket.
+     * Prepara la vista para mostrar una lista de objetos Ticket. Recibe solo la primera página;
+     * las siguientes se añaden con {@link #anadirTickets(List)} al llegar al final de la lista.
      *
      * @param nombreVista El nombre de la vista que se mostrará en la etiqueta.
-     * @param listaTickets La lista de objetos Videojuego a mostrar en la lista.
+     * @param listaTickets La lista de objetos Ticket a mostrar en la lista.
      */
     public void prepararVistaTicket(String nombreVista, List<Ticket> listaTickets) {
         listaVistaEntidad.setModel(dlmVistaEntidadTicket);
@@ -76,4 +77,15 @@ public class VistaListaEntidad extends JFrame {
         }
         this.setVisible(true);
     }
+
+    /**
+     * Añade al final de la lista de tickets la siguiente página.
+     *
+     * @param listaTickets Los objetos Ticket a añadir.
+     */
+    public void anadirTickets(List<Ticket> listaTickets) {
+        for (Ticket unTicket : listaTickets) {
+            dlmVistaEntidadTicket.addElement(unTicket);
+        }
+    }
 }
\ No newline at end of file
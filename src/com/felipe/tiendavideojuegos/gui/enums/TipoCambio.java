@@ -0,0 +1,30 @@
+package com.felipe.tiendavideojuegos.gui.enums;
+
+/**
+ * La enumeración TipoCambio representa las escrituras que el modelo notifica a sus observadores.
+ * Cada tipo tiene un nombre que describe la operación realizada.
+ */
+public enum TipoCambio {
+
+    INSERTAR("Alta"),
+    ACTUALIZAR("Modificación"),
+    ELIMINAR("Baja");
+
+    private String nombre; // El nombre de la operación
+
+    /**
+     * Constructor de la enumeración TipoCambio.
+     * @param nombre El nombre de la operación.
+     */
+    TipoCambio(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Obtiene el nombre de la operación.
+     * @return El nombre de la operación.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+}
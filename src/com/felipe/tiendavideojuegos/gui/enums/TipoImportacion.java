@@ -0,0 +1,41 @@
+package com.felipe.tiendavideojuegos.gui.enums;
+
+/**
+ * La enumeración TipoImportacion representa los tipos de fichero que se pueden importar de forma masiva.
+ * Cada tipo tiene un nombre y los campos que debe tener cada registro del fichero.
+ */
+public enum TipoImportacion {
+
+    VIDEOJUEGOS("Videojuegos", "titulo, genero, precio, plataforma, fecha_lanzamiento"),
+    DESARROLLADORES("Desarrolladores", "nombre, email, experiencia, tipo"),
+    PUNTUACIONES("Puntuaciones", "id_videojuego, fuente, nota, fecha_nota");
+
+    private String nombre; // El nombre del tipo de importación
+    private String campos; // Los campos de cada registro
+
+    /**
+     * Constructor de la enumeración TipoImportacion.
+     * @param nombre El nombre del tipo de importación.
+     * @param campos Los campos que debe tener cada registro.
+     */
+    TipoImportacion(String nombre, String campos) {
+        this.nombre = nombre;
+        this.campos = campos;
+    }
+
+    /**
+     * Obtiene el nombre del tipo de importación.
+     * @return El nombre del tipo.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene los campos que debe tener cada registro del fichero.
+     * @return Los nombres de los campos, separados por comas.
+     */
+    public String getCampos() {
+        return campos;
+    }
+}
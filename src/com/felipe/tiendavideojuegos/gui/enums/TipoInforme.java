@@ -0,0 +1,49 @@
+package com.felipe.tiendavideojuegos.gui.enums;
+
+/**
+ * La enumeración TipoInforme representa los informes de ventas que se pueden generar.
+ * Cada tipo tiene un nombre y el título de la columna por la que se agrupan las ventas.
+ */
+public enum TipoInforme {
+
+    POR_VIDEOJUEGO("Ventas por videojuego", "Videojuego"),
+    POR_GENERO("Ventas por género", "Género"),
+    POR_PLATAFORMA("Ventas por plataforma", "Plataforma"),
+    POR_DIA("Ventas por día", "Día"),
+    POR_MES("Ventas por mes", "Mes"),
+    MEJORES_CLIENTES("Mejores clientes", "Usuario");
+
+    private String nombre; // El nombre del informe
+    private String columna; // El título de la columna de agrupación
+
+    /**
+     * Constructor de la enumeración TipoInforme.
+     * @param nombre El nombre del informe.
+     * @param columna El título de la columna por la que se agrupan las ventas.
+     */
+    TipoInforme(String nombre, String columna) {
+        this.nombre = nombre;
+        this.columna = columna;
+    }
+
+    /**
+     * Obtiene el nombre del informe.
+     * @return El nombre del informe.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene el título de la columna por la que se agrupan las ventas.
+     * @return El título de la columna.
+     */
+    public String getColumna() {
+        return columna;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -0,0 +1,79 @@
+package com.felipe.tiendavideojuegos.informes;
+
+import org.hibernate.Session;
+
+/**
+ * Clase ComprasUsuarios mantiene en cada fila de usuario la fecha de su última compra, para mostrarla
+ * en la tabla de usuarios sin leer sus tickets. El número de tickets y el gasto se leen del resumen
+ * de ventas por usuario que mantiene {@link ResumenesVentas}.
+ * Se actualiza en la misma transacción que escribe el ticket: al sumar un ticket se queda con la fecha
+ * más reciente, y al restarlo se vuelve a calcular sin él, con el índice de tickets por usuario y fecha.
+ * Todos los métodos deben llamarse dentro de una transacción abierta.
+ */
+public final class ComprasUsuarios {
+
+    /**
+     * Última compra de cada usuario calculada a partir de los tickets.
+     */
+    private final static String ULTIMAS_COMPRAS = "(SELECT id_usuario, MAX(fecha_ticket) AS ultima FROM ticket " +
+            "WHERE id_usuario IS NOT NULL GROUP BY id_usuario) t";
+
+    private ComprasUsuarios() {
+    }
+
+    /**
+     * Suma a su usuario un ticket tal como está en la base de datos.
+     * Debe llamarse después de enviar el INSERT o el UPDATE del ticket.
+     * @param session La sesión con la transacción abierta.
+     * @param idTicket El id del ticket.
+     */
+    public static void sumarTicket(Session session, int idTicket) {
+        session.createNativeQuery("UPDATE usuario u JOIN ticket t ON t.id_usuario = u.id SET " +
+                "u.ultima_compra = IF(u.ultima_compra IS NULL OR t.fecha_ticket > u.ultima_compra, " +
+                "t.fecha_ticket, u.ultima_compra) " +
+                "WHERE t.id = :ticket")
+                .addSynchronizedQuerySpace("usuario")
+                .setParameter("ticket", idTicket)
+                .executeUpdate();
+    }
+
+    /**
+     * Resta de su usuario un ticket tal como está en la base de datos, calculando su última compra
+     * sin contar ese ticket. Debe llamarse antes de enviar el UPDATE o el DELETE del ticket.
+     * @param session La sesión con la transacción abierta.
+     * @param idTicket El id del ticket.
+     */
+    public static void restarTicket(Session session, int idTicket) {
+        Object usuario = session.createNativeQuery("SELECT id_usuario FROM ticket WHERE id = :ticket")
+                .setParameter("ticket", idTicket)
+                .uniqueResult();
+        if (usuario == null) {
+            return;
+        }
+        session.createNativeQuery("UPDATE usuario SET ultima_compra = (SELECT MAX(t.fecha_ticket) FROM ticket t " +
+                "WHERE t.id_usuario = :usuario AND t.id <> :ticket) " +
+                "WHERE id = :usuario")
+                .addSynchronizedQuerySpace("usuario")
+                .setParameter("usuario", ((Number) usuario).intValue())
+                .setParameter("ticket", idTicket)
+                .executeUpdate();
+    }
+
+    /**
+     * Vuelve a calcular la última compra de todos los usuarios a partir de los tickets, y cuenta
+     * antes los usuarios en los que no coincidía, para comprobar el mantenimiento incremental.
+     * @param session La sesión con la transacción abierta.
+     * @return El número de usuarios que se han corregido.
+     */
+    public static long reconstruir(Session session) {
+        String distintas = " WHERE NOT (u.ultima_compra <=> t.ultima)";
+        Number diferencias = (Number) session.createNativeQuery("SELECT COUNT(*) FROM usuario u LEFT JOIN " +
+                ULTIMAS_COMPRAS + " ON t.id_usuario = u.id" + distintas)
+                .getSingleResult();
+        session.createNativeQuery("UPDATE usuario u LEFT JOIN " + ULTIMAS_COMPRAS + " ON t.id_usuario = u.id " +
+                "SET u.ultima_compra = t.ultima" + distintas)
+                .addSynchronizedQuerySpace("usuario")
+                .executeUpdate();
+        return diferencias.longValue();
+    }
+}
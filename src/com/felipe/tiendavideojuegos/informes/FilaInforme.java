@@ -0,0 +1,49 @@
+package com.felipe.tiendavideojuegos.informes;
+
+/**
+ * Clase FilaInforme es una fila de un informe de ventas: el grupo (un videojuego, un género, un día...)
+ * con las unidades vendidas, los ingresos y el número de tickets en los que aparece.
+ * Se calcula en la base de datos con GROUP BY, sin cargar tickets ni detalles.
+ */
+public class FilaInforme {
+
+    private final String grupo;
+    private final long unidades;
+    private final double ingresos;
+    private final long tickets;
+
+    /**
+     * Constructor de la clase FilaInforme.
+     * @param grupo El texto que identifica el grupo.
+     * @param unidades Las unidades vendidas.
+     * @param ingresos La suma de los totales de las líneas vendidas.
+     * @param tickets El número de tickets distintos.
+     */
+    public FilaInforme(String grupo, long unidades, double ingresos, long tickets) {
+        this.grupo = grupo;
+        this.unidades = unidades;
+        this.ingresos = ingresos;
+        this.tickets = tickets;
+    }
+
+    public String getGrupo() {
+        return grupo;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public double getIngresos() {
+        return ingresos;
+    }
+
+    public long getTickets() {
+        return tickets;
+    }
+
+    @Override
+    public String toString() {
+        return grupo + ": " + unidades + " uds, " + ingresos;
+    }
+}
@@ -0,0 +1,157 @@
+package com.felipe.tiendavideojuegos.informes;
+
+import com.felipe.tiendavideojuegos.base.Puntuacion;
+import org.hibernate.SharedSessionContract;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Clase NotasVideojuegos mantiene en cada fila de videojuego el número de puntuaciones, la suma de sus
+ * notas y la nota media, para que la tabla de videojuegos las muestre y ordene por ellas sin leer las
+ * puntuaciones. Se actualizan de forma incremental en la misma transacción que escribe la puntuación,
+ * restando lo que aportaba antes de cambiarla o borrarla y sumando lo que aporta después.
+ * Un videojuego sin puntuaciones tiene nota media 0.
+ * Los UPDATE se sincronizan con el espacio {@link #ESPACIO_NOTAS} y no con la tabla videojuego, para que
+ * Hibernate no vacíe toda la región de videojuegos de la caché en cada puntuación: los métodos devuelven
+ * los videojuegos cambiados, y quien confirma la transacción debe sacar de la caché solo esos.
+ * Todos los métodos deben llamarse dentro de una transacción abierta.
+ */
+public final class NotasVideojuegos {
+
+    /**
+     * Espacio de consultas de las columnas de notas, que no corresponde a ninguna entidad.
+     */
+    public final static String ESPACIO_NOTAS = "videojuego_notas";
+
+    /**
+     * Número de puntuaciones y suma de notas de cada videojuego calculados a partir de las puntuaciones.
+     */
+    private final static String NOTAS = "(SELECT id_videojuego, COUNT(*) AS numero, SUM(nota_videojuego) AS suma " +
+            "FROM puntuacion WHERE id_videojuego IS NOT NULL GROUP BY id_videojuego) p";
+
+    private NotasVideojuegos() {
+    }
+
+    /**
+     * Suma a su videojuego la nota de una puntuación tal como está en la base de datos.
+     * Debe llamarse después de enviar el INSERT o el UPDATE de la puntuación.
+     * @param session La sesión con la transacción abierta.
+     * @param idPuntuacion El id de la puntuación.
+     * @return El id del videojuego cambiado, o null si la puntuación no tiene videojuego.
+     */
+    public static Integer sumarPuntuacion(SharedSessionContract session, int idPuntuacion) {
+        return aplicarPuntuacion(session, idPuntuacion, 1);
+    }
+
+    /**
+     * Resta de su videojuego la nota de una puntuación tal como está en la base de datos.
+     * Debe llamarse antes de enviar el UPDATE o el DELETE de la puntuación.
+     * @param session La sesión con la transacción abierta.
+     * @param idPuntuacion El id de la puntuación.
+     * @return El id del videojuego cambiado, o null si la puntuación no tiene videojuego.
+     */
+    public static Integer restarPuntuacion(SharedSessionContract session, int idPuntuacion) {
+        return aplicarPuntuacion(session, idPuntuacion, -1);
+    }
+
+    /**
+     * Suma a sus videojuegos las notas de un lote de puntuaciones nuevas, con un UPDATE por videojuego.
+     * @param session La sesión con la transacción abierta.
+     * @param puntuaciones Las puntuaciones insertadas.
+     * @return Los ids de los videojuegos cambiados.
+     */
+    public static Set<Integer> sumarLote(SharedSessionContract session, Collection<Puntuacion> puntuaciones) {
+        Map<Integer, Integer> numero = new TreeMap<>();
+        Map<Integer, Double> suma = new TreeMap<>();
+        for (Puntuacion unaPuntuacion : puntuaciones) {
+            if (unaPuntuacion.getJuego() != null) {
+                int idJuego = unaPuntuacion.getJuego().getId();
+                numero.merge(idJuego, 1, Integer::sum);
+                suma.merge(idJuego, unaPuntuacion.getNotaVideojuego(), Double::sum);
+            }
+        }
+        for (Map.Entry<Integer, Integer> juego : numero.entrySet()) {
+            aplicar(session, juego.getKey(), juego.getValue(), suma.get(juego.getKey()));
+        }
+        return numero.keySet();
+    }
+
+    /**
+     * Vuelve a calcular las notas de todos los videojuegos a partir de las puntuaciones, y cuenta antes
+     * los videojuegos en los que no coincidían, para comprobar el mantenimiento incremental.
+     * Solo se escriben esos videojuegos.
+     * @param session La sesión con la transacción abierta.
+     * @return Los ids de los videojuegos que se han corregido.
+     */
+    public static Set<Integer> reconstruir(SharedSessionContract session) {
+        List<?> filas = session.createNativeQuery("SELECT v.id FROM videojuego v LEFT JOIN " +
+                NOTAS + " ON p.id_videojuego = v.id " +
+                "WHERE v.num_puntuaciones <> COALESCE(p.numero, 0) " +
+                "OR ABS(v.suma_puntuaciones - COALESCE(p.suma, 0)) >= 0.0005 " +
+                "OR ABS(v.nota_media - COALESCE(p.suma / p.numero, 0)) >= 0.0005")
+                .getResultList();
+        Set<Integer> corregidos = new TreeSet<>();
+        for (Object id : filas) {
+            corregidos.add(((Number) id).intValue());
+        }
+        if (!corregidos.isEmpty()) {
+            session.createNativeQuery("UPDATE videojuego v LEFT JOIN " + NOTAS + " ON p.id_videojuego = v.id SET " +
+                    "v.num_puntuaciones = COALESCE(p.numero, 0), " +
+                    "v.suma_puntuaciones = COALESCE(p.suma, 0), " +
+                    "v.nota_media = COALESCE(p.suma / p.numero, 0) " +
+                    "WHERE v.id IN (:ids)")
+                    .addSynchronizedQuerySpace(ESPACIO_NOTAS)
+                    .setParameterList("ids", corregidos)
+                    .executeUpdate();
+        }
+        return corregidos;
+    }
+
+    /**
+     * Lee el videojuego y la nota de una puntuación y los suma o resta.
+     * @param session La sesión con la transacción abierta.
+     * @param idPuntuacion El id de la puntuación.
+     * @param signo 1 para sumar, -1 para restar.
+     * @return El id del videojuego cambiado, o null si la puntuación no tiene videojuego.
+     */
+    private static Integer aplicarPuntuacion(SharedSessionContract session, int idPuntuacion, int signo) {
+        Object[] fila = (Object[]) session.createNativeQuery("SELECT id_videojuego, nota_videojuego " +
+                "FROM puntuacion WHERE id = :id")
+                .setParameter("id", idPuntuacion)
+                .uniqueResult();
+        if (fila == null || fila[0] == null) {
+            return null;
+        }
+        int idVideojuego = ((Number) fila[0]).intValue();
+        aplicar(session, idVideojuego, signo, signo * ((Number) fila[1]).doubleValue());
+        return idVideojuego;
+    }
+
+    /**
+     * Suma puntuaciones a un videojuego, o las resta con valores negativos, y recalcula su media.
+     * MySQL asigna las columnas de izquierda a derecha, así que la media y la suma se calculan
+     * con el número de puntuaciones anterior.
+     * @param session La sesión con la transacción abierta.
+     * @param idVideojuego El id del videojuego.
+     * @param numero Las puntuaciones que se suman.
+     * @param suma La suma de sus notas.
+     */
+    private static void aplicar(SharedSessionContract session, int idVideojuego, int numero, double suma) {
+        session.createNativeQuery("UPDATE videojuego SET " +
+                "nota_media = IF(num_puntuaciones + :numero > 0, " +
+                "(suma_puntuaciones + :suma) / (num_puntuaciones + :numero), 0), " +
+                "suma_puntuaciones = IF(num_puntuaciones + :numero > 0, suma_puntuaciones + :suma, 0), " +
+                "num_puntuaciones = GREATEST(num_puntuaciones + :numero, 0) " +
+                "WHERE id = :id")
+                .addSynchronizedQuerySpace(ESPACIO_NOTAS)
+                .setParameter("numero", numero)
+                .setParameter("suma", suma)
+                .setParameter("id", idVideojuego)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,235 @@
+package com.felipe.tiendavideojuegos.informes;
+
+import com.felipe.tiendavideojuegos.gui.enums.TipoInforme;
+import org.hibernate.Session;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase ResumenesVentas mantiene las tablas de resumen de ventas: por día, por videojuego y por usuario,
+ * cada una con las unidades, los ingresos y el número de tickets.
+ * Se actualizan de forma incremental en la misma transacción que escribe el ticket, restando lo que
+ * aportaba antes de cambiarlo o borrarlo y sumando lo que aporta después, con un
+ * INSERT ... ON DUPLICATE KEY UPDATE por tabla. Así los informes leen una fila por día, videojuego o
+ * usuario en lugar de recorrer todas las líneas de ticket.
+ * Las cifras son las mismas que las del GROUP BY sobre ticket_videojuego: los ingresos son la suma de
+ * los totales de las líneas y los tickets sin líneas no cuentan.
+ * Todas las ventas de un día irían a la misma fila del resumen diario, cuyo bloqueo dura hasta confirmar,
+ * así que cada día se reparte en {@link #RANURAS_DIA} filas según el id del ticket y los informes las suman.
+ * Así dos cajas que venden a la vez casi nunca esperan por la misma fila.
+ */
+public final class ResumenesVentas {
+
+    /**
+     * Número de filas en las que se reparte cada día del resumen diario.
+     */
+    private final static int RANURAS_DIA = 16;
+
+    /**
+     * Tablas de resumen, con su columna clave y la expresión sobre ticket (t) y ticket_videojuego (d)
+     * de la que sale.
+     */
+    private enum Resumen {
+        DIA("resumen_ventas_dia", "fecha", "t.fecha_ticket", true),
+        VIDEOJUEGO("resumen_ventas_videojuego", "id_videojuego", "d.id_videojuego", false),
+        USUARIO("resumen_ventas_usuario", "id_usuario", "t.id_usuario", false);
+
+        private final String tabla;
+        private final String clave;
+        private final String origen;
+        private final boolean porRanuras;
+
+        Resumen(String tabla, String clave, String origen, boolean porRanuras) {
+            this.tabla = tabla;
+            this.clave = clave;
+            this.origen = origen;
+            this.porRanuras = porRanuras;
+        }
+
+        /**
+         * Consulta que agrupa las líneas de ticket por la clave de la tabla y, si se reparte, por ranura.
+         * @param soloUnTicket true para agrupar solo las líneas del ticket del parámetro :ticket.
+         * @return Una consulta con las columnas clave, ranura si la tabla se reparte, unidades, ingresos y tickets.
+         */
+        private String agregado(boolean soloUnTicket) {
+            String ranura = "MOD(t.id, " + RANURAS_DIA + ")";
+            return "SELECT " + origen + " AS clave, " + (porRanuras ? ranura + " AS ranura, " : "") +
+                    "SUM(d.cantidad) AS unidades, SUM(d.total) AS ingresos, COUNT(DISTINCT t.id) AS tickets " +
+                    "FROM ticket t JOIN ticket_videojuego d ON d.id_ticket = t.id " +
+                    "WHERE " + origen + " IS NOT NULL" + (soloUnTicket ? " AND t.id = :ticket" : "") +
+                    " GROUP BY " + origen + (porRanuras ? ", " + ranura : "");
+        }
+
+        /**
+         * Columnas de la clave primaria de la tabla.
+         * @return Los nombres de las columnas, separados por comas.
+         */
+        private String columnasClave() {
+            return clave + (porRanuras ? ", ranura" : "");
+        }
+
+        /**
+         * Columnas del agregado que corresponden a la clave primaria de la tabla.
+         * @return Los nombres de las columnas, separados por comas.
+         */
+        private String columnasAgregado() {
+            return "clave" + (porRanuras ? ", ranura" : "");
+        }
+
+        /**
+         * Condición que une una fila de la tabla (r) con la del agregado (a) de la misma clave.
+         * @return La condición del JOIN.
+         */
+        private String unirConAgregado() {
+            return "r." + clave + " = a.clave" + (porRanuras ? " AND r.ranura = a.ranura" : "");
+        }
+    }
+
+    private ResumenesVentas() {
+    }
+
+    /**
+     * Suma a los resúmenes lo que aporta un ticket tal como está en la base de datos.
+     * Debe llamarse dentro de la transacción que guarda el ticket y sus líneas, después de enviarlas
+     * con {@link Session#flush()}, y lo más cerca posible de confirmarla, porque bloquea las filas
+     * del resumen hasta entonces.
+     * @param session La sesión con la transacción abierta.
+     * @param idTicket El id del ticket.
+     */
+    public static void sumarTicket(Session session, int idTicket) {
+        aplicarTicket(session, idTicket, 1);
+    }
+
+    /**
+     * Resta de los resúmenes lo que aporta un ticket tal como está en la base de datos.
+     * Debe llamarse dentro de la transacción que modifica o borra el ticket, antes de cambiar sus líneas.
+     * @param session La sesión con la transacción abierta.
+     * @param idTicket El id del ticket.
+     */
+    public static void restarTicket(Session session, int idTicket) {
+        aplicarTicket(session, idTicket, -1);
+    }
+
+    /**
+     * Suma o resta de cada resumen las cifras de un ticket.
+     * @param session La sesión con la transacción abierta.
+     * @param idTicket El id del ticket.
+     * @param signo 1 para sumar y -1 para restar.
+     */
+    private static void aplicarTicket(Session session, int idTicket, int signo) {
+        for (Resumen resumen : Resumen.values()) {
+            //Indicar la tabla afectada evita que Hibernate vacíe toda la caché de segundo nivel.
+            //Las columnas del resumen se califican porque la subconsulta delta tiene los mismos nombres
+            session.createNativeQuery("INSERT INTO " + resumen.tabla + " (" + resumen.columnasClave() +
+                    ", unidades, ingresos, tickets) " +
+                    "SELECT " + resumen.columnasAgregado() + ", :signo * unidades, :signo * ingresos, " +
+                    ":signo * tickets " +
+                    "FROM (" + resumen.agregado(true) + ") delta " +
+                    "ON DUPLICATE KEY UPDATE unidades = " + resumen.tabla + ".unidades + VALUES(unidades), " +
+                    "ingresos = " + resumen.tabla + ".ingresos + VALUES(ingresos), " +
+                    "tickets = " + resumen.tabla + ".tickets + VALUES(tickets)")
+                    .addSynchronizedQuerySpace(resumen.tabla)
+                    .setParameter("signo", signo)
+                    .setParameter("ticket", idTicket)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Vuelve a calcular los resúmenes desde cero a partir de todas las líneas de ticket, y cuenta
+     * antes las filas que no coincidían con el cálculo, para comprobar el mantenimiento incremental.
+     * Debe llamarse dentro de una transacción.
+     * @param session La sesión con la transacción abierta.
+     * @return El número de filas de los resúmenes que se han corregido.
+     */
+    public static long reconstruir(Session session) {
+        long diferencias = 0;
+        for (Resumen resumen : Resumen.values()) {
+            String r = resumen.tabla + " r";
+            String a = "(" + resumen.agregado(false) + ") a";
+            Number distintas = (Number) session.createNativeQuery("SELECT COUNT(*) FROM " + a +
+                    " LEFT JOIN " + r + " ON " + resumen.unirConAgregado() + " " +
+                    "WHERE r." + resumen.clave + " IS NULL OR r.unidades <> a.unidades " +
+                    "OR r.tickets <> a.tickets OR ABS(r.ingresos - a.ingresos) >= 0.005")
+                    .getSingleResult();
+            Number sobrantes = (Number) session.createNativeQuery("SELECT COUNT(*) FROM " + r +
+                    " LEFT JOIN " + a + " ON " + resumen.unirConAgregado() + " " +
+                    "WHERE a.clave IS NULL AND (r.unidades <> 0 OR r.ingresos <> 0 OR r.tickets <> 0)")
+                    .getSingleResult();
+            diferencias += distintas.longValue() + sobrantes.longValue();
+
+            session.createNativeQuery("DELETE FROM " + resumen.tabla)
+                    .addSynchronizedQuerySpace(resumen.tabla)
+                    .executeUpdate();
+            session.createNativeQuery("INSERT INTO " + resumen.tabla + " (" + resumen.columnasClave() +
+                    ", unidades, ingresos, tickets) " +
+                    "SELECT " + resumen.columnasAgregado() + ", unidades, ingresos, tickets " +
+                    "FROM (" + resumen.agregado(false) + ") a")
+                    .addSynchronizedQuerySpace(resumen.tabla)
+                    .executeUpdate();
+        }
+        return diferencias;
+    }
+
+    /**
+     * Obtiene la consulta que calcula un informe a partir de los resúmenes, si se puede.
+     * Los informes por día y por mes salen siempre del resumen diario. Los de videojuegos y clientes
+     * solo sin intervalo de fechas, porque sus resúmenes son de toda la historia. Los de género y
+     * plataforma no, porque un ticket con varios juegos del mismo género se contaría varias veces.
+     * La consulta devuelve las mismas columnas que el GROUP BY de
+     * {@link com.felipe.tiendavideojuegos.gui.Modelo#getInformeVentas(TipoInforme, Date, Date, int)}
+     * y usa los parámetros :desde y :hasta si se indican las fechas.
+     * @param tipo El informe a calcular.
+     * @param desde La primera fecha incluida, o null.
+     * @param hasta La última fecha incluida, o null.
+     * @return La consulta SQL, o null si el informe no se puede sacar de los resúmenes.
+     */
+    public static String consultaInforme(TipoInforme tipo, Date desde, Date hasta) {
+        boolean conFechas = desde != null || hasta != null;
+        String sql;
+        switch (tipo) {
+            case POR_DIA:
+                sql = "SELECT r.fecha, SUM(r.unidades), SUM(r.ingresos), SUM(r.tickets) FROM resumen_ventas_dia r" +
+                        filtroFechas(desde, hasta) + " GROUP BY r.fecha ORDER BY r.fecha";
+                break;
+            case POR_MES:
+                sql = "SELECT YEAR(r.fecha), MONTH(r.fecha), SUM(r.unidades), SUM(r.ingresos), SUM(r.tickets) " +
+                        "FROM resumen_ventas_dia r" + filtroFechas(desde, hasta) +
+                        " GROUP BY YEAR(r.fecha), MONTH(r.fecha) ORDER BY YEAR(r.fecha), MONTH(r.fecha)";
+                break;
+            case POR_VIDEOJUEGO:
+                sql = conFechas ? null : "SELECT v.id, v.titulo, v.plataforma, r.unidades, r.ingresos, r.tickets " +
+                        "FROM resumen_ventas_videojuego r JOIN videojuego v ON v.id = r.id_videojuego " +
+                        "WHERE r.tickets > 0 ORDER BY r.ingresos DESC, v.id";
+                break;
+            case MEJORES_CLIENTES:
+                sql = conFechas ? null : "SELECT u.id, u.nombre, u.apellidos, u.dni, r.unidades, r.ingresos, r.tickets " +
+                        "FROM resumen_ventas_usuario r JOIN usuario u ON u.id = r.id_usuario " +
+                        "WHERE r.tickets > 0 ORDER BY r.ingresos DESC, u.id";
+                break;
+            default:
+                sql = null;
+        }
+        return sql;
+    }
+
+    /**
+     * Construye la condición del resumen diario para un intervalo de fechas.
+     * @param desde La primera fecha incluida, o null.
+     * @param hasta La última fecha incluida, o null.
+     * @return La cláusula WHERE, que también descarta los días que se han quedado sin tickets.
+     */
+    private static String filtroFechas(Date desde, Date hasta) {
+        List<String> condiciones = new ArrayList<>();
+        condiciones.add("r.tickets > 0");
+        if (desde != null) {
+            condiciones.add("r.fecha >= :desde");
+        }
+        if (hasta != null) {
+            condiciones.add("r.fecha <= :hasta");
+        }
+        return " WHERE " + String.join(" AND ", condiciones);
+    }
+}
@@ -0,0 +1,160 @@
+package com.felipe.tiendavideojuegos.stock;
+
+import org.hibernate.Session;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Clase Existencias mantiene la tabla existencia, con las unidades en stock de cada videojuego.
+ * Cada videojuego es un título en una plataforma, así que hay un stock por juego y plataforma.
+ * Un videojuego sin fila en la tabla no tiene control de existencias y se vende sin límite;
+ * el control empieza la primera vez que se reponen sus existencias.
+ * Las ventas descuentan el stock con un UPDATE condicional (WHERE stock >= cantidad), que es atómico
+ * en la base de datos: dos cajas que venden a la vez nunca dejan el stock en negativo, sin leer antes
+ * el stock ni bloquearlo con SELECT ... FOR UPDATE. Los descuentos se hacen al final de la transacción,
+ * justo antes de sumar los resúmenes de ventas, y en orden de id, para que las filas estén bloqueadas
+ * el menor tiempo posible y sin interbloqueos.
+ * Cada línea de ticket guarda en unidades_descontadas lo que se ha descontado por ella, y solo eso se
+ * devuelve: las ventas anteriores al control de existencias no devuelven nada.
+ * Todos los métodos deben llamarse dentro de una transacción abierta.
+ */
+public final class Existencias {
+
+    private Existencias() {
+    }
+
+    /**
+     * Lee las unidades que se han descontado del stock por las líneas de un ticket.
+     * Debe llamarse antes de modificar sus líneas.
+     * @param session La sesión con la transacción abierta.
+     * @param idTicket El id del ticket.
+     * @return Las unidades descontadas de cada videojuego, por su id; los que no tienen no aparecen.
+     */
+    public static Map<Integer, Integer> getDescontadas(Session session, int idTicket) {
+        List<Object[]> filas = session.createNativeQuery("SELECT id_videojuego, SUM(unidades_descontadas) " +
+                "FROM ticket_videojuego WHERE id_ticket = :ticket GROUP BY id_videojuego " +
+                "HAVING SUM(unidades_descontadas) > 0")
+                .setParameter("ticket", idTicket)
+                .getResultList();
+        Map<Integer, Integer> descontadas = new HashMap<>();
+        for (Object[] fila : filas) {
+            descontadas.put(((Number) fila[0]).intValue(), ((Number) fila[1]).intValue());
+        }
+        return descontadas;
+    }
+
+    /**
+     * Ajusta el stock a un ticket nuevo o modificado y anota en sus líneas lo descontado.
+     * De cada videojuego se descuentan las unidades añadidas, solo si quedan suficientes, y se devuelven
+     * las quitadas, pero nunca más de las que se descontaron: si el ticket se vendió antes de controlar
+     * las existencias, quitarle unidades no devuelve nada. Los videojuegos sin control no se descuentan.
+     * Debe llamarse después de enviar los INSERT, UPDATE y DELETE de las líneas. Si un videojuego tiene
+     * varias líneas, lo descontado se anota en la de menor id y las demás quedan a 0.
+     * @param session La sesión con la transacción abierta.
+     * @param idTicket El id del ticket.
+     * @param descontadasAntes Lo que se había descontado por el ticket, de {@link #getDescontadas},
+     *                         o un mapa vacío si es nuevo.
+     * @param diferencia Las unidades nuevas menos las que tenía cada videojuego, por su id.
+     * @param nombres El texto de cada videojuego, por su id, para el mensaje de error.
+     * @throws StockInsuficienteException Si de algún videojuego no quedan unidades suficientes;
+     *                                    la transacción debe deshacerse.
+     */
+    public static void ajustarTicket(Session session, int idTicket, Map<Integer, Integer> descontadasAntes,
+                                     Map<Integer, Integer> diferencia, Map<Integer, String> nombres) {
+        Set<Integer> juegos = new TreeSet<>(descontadasAntes.keySet());
+        juegos.addAll(diferencia.keySet());
+        for (int idJuego : juegos) {
+            int antes = descontadasAntes.getOrDefault(idJuego, 0);
+            int objetivo = Math.max(antes + diferencia.getOrDefault(idJuego, 0), 0);
+            if (objetivo < antes) {
+                session.createNativeQuery("UPDATE existencia SET stock = stock + :cantidad " +
+                        "WHERE id_videojuego = :id")
+                        .addSynchronizedQuerySpace("existencia")
+                        .setParameter("cantidad", antes - objetivo)
+                        .setParameter("id", idJuego)
+                        .executeUpdate();
+            } else if (objetivo > antes) {
+                int filas = session.createNativeQuery("UPDATE existencia SET stock = stock - :cantidad " +
+                        "WHERE id_videojuego = :id AND stock >= :cantidad")
+                        .addSynchronizedQuerySpace("existencia")
+                        .setParameter("cantidad", objetivo - antes)
+                        .setParameter("id", idJuego)
+                        .executeUpdate();
+                if (filas == 0) {
+                    Integer stock = getStock(session, idJuego);
+                    if (stock != null) {
+                        throw new StockInsuficienteException(idJuego, nombres.get(idJuego), objetivo - antes, stock);
+                    }
+                    objetivo = antes;
+                }
+            } else {
+                continue;
+            }
+            //Lo descontado se anota en una sola línea por si el videojuego tiene varias en el ticket
+            session.createNativeQuery("UPDATE ticket_videojuego d JOIN (SELECT MIN(id) AS primera " +
+                    "FROM ticket_videojuego WHERE id_ticket = :ticket AND id_videojuego = :id) p " +
+                    "SET d.unidades_descontadas = IF(d.id = p.primera, :unidades, 0) " +
+                    "WHERE d.id_ticket = :ticket AND d.id_videojuego = :id")
+                    .addSynchronizedQuerySpace("ticket_videojuego")
+                    .setParameter("unidades", objetivo)
+                    .setParameter("ticket", idTicket)
+                    .setParameter("id", idJuego)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Devuelve al stock las unidades que se descontaron por las líneas de un ticket y deja las líneas
+     * sin nada descontado. Debe llamarse antes de borrar el ticket.
+     * @param session La sesión con la transacción abierta.
+     * @param idTicket El id del ticket.
+     */
+    public static void devolverTicket(Session session, int idTicket) {
+        session.createNativeQuery("UPDATE existencia e JOIN (SELECT d.id_videojuego, " +
+                "SUM(d.unidades_descontadas) AS unidades FROM ticket_videojuego d " +
+                "WHERE d.id_ticket = :ticket GROUP BY d.id_videojuego HAVING unidades > 0) devueltas " +
+                "ON devueltas.id_videojuego = e.id_videojuego " +
+                "SET e.stock = e.stock + devueltas.unidades")
+                .addSynchronizedQuerySpace("existencia")
+                .setParameter("ticket", idTicket)
+                .executeUpdate();
+        session.createNativeQuery("UPDATE ticket_videojuego SET unidades_descontadas = 0 " +
+                "WHERE id_ticket = :ticket AND unidades_descontadas > 0")
+                .addSynchronizedQuerySpace("ticket_videojuego")
+                .setParameter("ticket", idTicket)
+                .executeUpdate();
+    }
+
+    /**
+     * Añade unidades al stock de un videojuego, creando su fila si no la tenía, con lo que empieza
+     * a controlarse su stock.
+     * @param session La sesión con la transacción abierta.
+     * @param idVideojuego El id del videojuego.
+     * @param cantidad Las unidades que se añaden.
+     */
+    public static void reponer(Session session, int idVideojuego, int cantidad) {
+        session.createNativeQuery("INSERT INTO existencia (id_videojuego, stock) VALUES (:id, :cantidad) " +
+                "ON DUPLICATE KEY UPDATE stock = stock + VALUES(stock)")
+                .addSynchronizedQuerySpace("existencia")
+                .setParameter("id", idVideojuego)
+                .setParameter("cantidad", cantidad)
+                .executeUpdate();
+    }
+
+    /**
+     * Lee el stock de un videojuego.
+     * @param session La sesión.
+     * @param idVideojuego El id del videojuego.
+     * @return Las unidades en stock, o null si el videojuego no tiene control de existencias.
+     */
+    public static Integer getStock(Session session, int idVideojuego) {
+        Object stock = session.createNativeQuery("SELECT stock FROM existencia WHERE id_videojuego = :id")
+                .setParameter("id", idVideojuego)
+                .uniqueResult();
+        return stock == null ? null : ((Number) stock).intValue();
+    }
+}
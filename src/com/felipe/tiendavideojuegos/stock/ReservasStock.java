@@ -0,0 +1,61 @@
+package com.felipe.tiendavideojuegos.stock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clase ReservasStock lleva en memoria las unidades apartadas en los carritos de esta instancia de la
+ * aplicación, que todavía no se han vendido. Al añadir un videojuego al carrito se reservan sus unidades
+ * si el stock leído menos lo ya reservado alcanza, y se liberan al quitarlo, vaciar el carrito o guardar
+ * el ticket. Así un carrito no acepta unidades que otro ya ha apartado, sin consultar la base de datos.
+ * Cada videojuego tiene su propio contador atómico, de modo que las reservas de videojuegos distintos
+ * no compiten entre sí, y reservar es una comparación e intercambio sin bloqueos. Las reservas son
+ * orientativas: lo que impide vender de más es el descuento condicional de {@link Existencias} al guardar.
+ */
+public class ReservasStock {
+
+    private final Map<Integer, AtomicInteger> reservadas = new ConcurrentHashMap<>();
+
+    /**
+     * Aparta unidades de un videojuego si quedan suficientes sin reservar.
+     * @param idVideojuego El id del videojuego.
+     * @param cantidad Las unidades a apartar.
+     * @param stock El stock del videojuego en la base de datos.
+     * @return true si se han reservado, false si no quedan suficientes.
+     */
+    public boolean reservar(int idVideojuego, int cantidad, int stock) {
+        AtomicInteger contador = reservadas.computeIfAbsent(idVideojuego, id -> new AtomicInteger());
+        while (true) {
+            int actuales = contador.get();
+            if (actuales + cantidad > stock) {
+                return false;
+            }
+            if (contador.compareAndSet(actuales, actuales + cantidad)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera unidades reservadas de un videojuego, porque se han quitado del carrito o ya se han vendido.
+     * @param idVideojuego El id del videojuego.
+     * @param cantidad Las unidades a liberar.
+     */
+    public void liberar(int idVideojuego, int cantidad) {
+        AtomicInteger contador = reservadas.get(idVideojuego);
+        if (contador != null) {
+            contador.updateAndGet(actuales -> Math.max(actuales - cantidad, 0));
+        }
+    }
+
+    /**
+     * Obtiene las unidades reservadas de un videojuego.
+     * @param idVideojuego El id del videojuego.
+     * @return Las unidades apartadas en los carritos.
+     */
+    public int getReservadas(int idVideojuego) {
+        AtomicInteger contador = reservadas.get(idVideojuego);
+        return contador == null ? 0 : contador.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.felipe.tiendavideojuegos.stock;
+
+/**
+ * Excepción StockInsuficienteException indica que no quedan existencias suficientes de un videojuego
+ * para vender las unidades pedidas. Se lanza al guardar o modificar un ticket, y entonces se deshace
+ * toda la transacción y no se vende nada.
+ */
+public class StockInsuficienteException extends RuntimeException {
+
+    private final int idVideojuego;
+    private final int pedidas;
+    private final int disponibles;
+
+    /**
+     * Constructor de la clase StockInsuficienteException.
+     * @param idVideojuego El id del videojuego.
+     * @param videojuego El texto con el que se muestra el videojuego.
+     * @param pedidas Las unidades que se querían vender.
+     * @param disponibles Las unidades que quedaban disponibles.
+     */
+    public StockInsuficienteException(int idVideojuego, String videojuego, int pedidas, int disponibles) {
+        super("No hay existencias suficientes de " + videojuego + ": se piden " + pedidas +
+                " y quedan " + Math.max(disponibles, 0) + ".");
+        this.idVideojuego = idVideojuego;
+        this.pedidas = pedidas;
+        this.disponibles = disponibles;
+    }
+
+    public int getIdVideojuego() {
+        return idVideojuego;
+    }
+
+    public int getPedidas() {
+        return pedidas;
+    }
+
+    public int getDisponibles() {
+        return disponibles;
+    }
+}
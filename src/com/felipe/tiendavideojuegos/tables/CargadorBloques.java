@@ -0,0 +1,23 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import com.felipe.tiendavideojuegos.util.Pagina;
+
+import java.util.function.Consumer;
+
+/**
+ * Interfaz CargadorBloques lee de la base de datos los bloques de filas que pide un {@link PerezosoTableModel}.
+ * La lectura debe hacerse fuera del EDT y el resultado entregarse en el EDT.
+ * @param <T> El tipo de entidad de cada fila.
+ */
+@FunctionalInterface
+public interface CargadorBloques<T> {
+
+    /**
+     * Carga un bloque de filas ordenadas por id.
+     * @param primeraFila La posición de la primera fila del bloque, para saltar hasta ella si no hay bloque anterior.
+     * @param anterior El bloque anterior ya cargado, para continuar por cursor desde su último id, o null.
+     * @param tamanoBloque El número de filas del bloque.
+     * @param alCargar La acción que recibe el bloque, ejecutada en el EDT.
+     */
+    void cargar(int primeraFila, Pagina<T> anterior, int tamanoBloque, Consumer<Pagina<T>> alCargar);
+}
@@ -0,0 +1,30 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import com.felipe.tiendavideojuegos.base.Ticket;
+
+public final class ColumnasCompras {
+
+    public static final String[] COLUMNAS = {"ID", "Código", "Usuario", "Pago", "Fecha", "Total"};
+
+    private ColumnasCompras() {
+    }
+
+    public static Object getValor(Ticket unaCompra, int columnIndex) {
+        switch (columnIndex) {
+            case 0:
+                return unaCompra.getId();
+            case 1:
+                return unaCompra.getCodigoTicket();
+            case 2:
+                return unaCompra.getUsuario();
+            case 3:
+                return unaCompra.getFormaPago();
+            case 4:
+                return unaCompra.getFechaTicket();
+            case 5:
+                return unaCompra.getTotal();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import com.felipe.tiendavideojuegos.base.Videojuego;
+
+public final class ColumnasVideojuegos {
+
+    public static final String[] COLUMNAS = {"ID", "Título", "Género", "Precio", "Plataforma", "Lanzamiento", "Nota media"};
+
+    private ColumnasVideojuegos() {
+    }
+
+    public static Object getValor(Videojuego unVideojuego, int columnIndex) {
+        switch (columnIndex) {
+            case 0:
+                return unVideojuego.getId();
+            case 1:
+                return unVideojuego.getTitulo();
+            case 2:
+                return unVideojuego.getGenero();
+            case 3:
+                return unVideojuego.getPrecio();
+            case 4:
+                return unVideojuego.getPlataforma();
+            case 5:
+                return unVideojuego.getFechaLanzamiento();
+            case 6:
+                return unVideojuego.getNumPuntuaciones() == 0 ? null
+                        : Math.round(unVideojuego.getNotaMedia() * 100) / 100.0;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import com.felipe.tiendavideojuegos.base.Desarrollador;
+
+public class DesarrolladoresTableModel extends EntidadesTableModel<Desarrollador> {
+
+    public static final String[] COLUMNAS = {"ID", "Nombre", "Email", "Años Experiencia", "Tipo Desarrollo"};
+
+    public DesarrolladoresTableModel() {
+        super(COLUMNAS, Desarrollador::getId, DesarrolladoresTableModel::getValor);
+    }
+
+    public static Object getValor(Desarrollador unDesarrollador, int columnIndex) {
+        switch (columnIndex) {
+            case 0:
+                return unDesarrollador.getId();
+            case 1:
+                return unDesarrollador.getNombre();
+            case 2:
+                return unDesarrollador.getEmail();
+            case 3:
+                return unDesarrollador.getExperiencia();
+            case 4:
+                return unDesarrollador.getTipo();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Clase base de los modelos de tabla que muestran directamente una lista de entidades.
+ * Cada celda se lee de la entidad al pintarla, sin copiar las filas a arrays de objetos.
+ * Permite cargar listas enteras o páginas con un solo evento, y sustituir el contenido
+ * avisando solo de las filas que cambian.
+ * @param <T> El tipo de entidad de cada fila.
+ */
+public abstract class EntidadesTableModel<T> extends AbstractTableModel {
+
+    private final String[] columnas;
+    private final ToIntFunction<T> id;
+    private final BiFunction<T, Integer, Object> valor;
+    private final List<T> elementos;
+
+    /**
+     * Constructor de la clase EntidadesTableModel.
+     * @param columnas Los nombres de las columnas.
+     * @param id La función que obtiene el id de una entidad.
+     * @param valor La función que obtiene el valor de una columna de una entidad.
+     */
+    protected EntidadesTableModel(String[] columnas, ToIntFunction<T> id, BiFunction<T, Integer, Object> valor) {
+        this(columnas, id, valor, new ArrayList<>());
+    }
+
+    /**
+     * Constructor de la clase EntidadesTableModel que muestra una lista ya existente, sin copiarla.
+     * @param columnas Los nombres de las columnas.
+     * @param id La función que obtiene el id de una entidad.
+     * @param valor La función que obtiene el valor de una columna de una entidad.
+     * @param elementos La lista de entidades que se muestra.
+     */
+    protected EntidadesTableModel(String[] columnas, ToIntFunction<T> id, BiFunction<T, Integer, Object> valor,
+                                  List<T> elementos) {
+        this.columnas = columnas;
+        this.id = id;
+        this.valor = valor;
+        this.elementos = elementos;
+    }
+
+    @Override
+    public int getRowCount() {
+        return elementos.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnas[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return valor.apply(elementos.get(rowIndex), columnIndex);
+    }
+
+    /**
+     * Obtiene la entidad de una fila.
+     * @param rowIndex El índice de la fila.
+     * @return La entidad.
+     */
+    public T getElementAt(int rowIndex) {
+        return elementos.get(rowIndex);
+    }
+
+    /**
+     * Busca la fila de una entidad por su id.
+     * @param idBuscado El id de la entidad.
+     * @return El índice de la fila, o -1 si no está en la tabla.
+     */
+    public int indexOfId(int idBuscado) {
+        for (int i = 0; i < elementos.size(); i++) {
+            if (id.applyAsInt(elementos.get(i)) == idBuscado) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Vacía la tabla.
+     */
+    public void clearAll() {
+        elementos.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Añade una entidad al final de la tabla.
+     * @param elemento La entidad a añadir.
+     */
+    public void addElement(T elemento) {
+        elementos.add(elemento);
+        fireTableRowsInserted(elementos.size() - 1, elementos.size() - 1);
+    }
+
+    /**
+     * Añade varias entidades al final de la tabla con un solo evento.
+     * @param nuevos Las entidades a añadir.
+     */
+    public void addElements(List<T> nuevos) {
+        if (nuevos.isEmpty()) {
+            return;
+        }
+        int primera = elementos.size();
+        elementos.addAll(nuevos);
+        fireTableRowsInserted(primera, elementos.size() - 1);
+    }
+
+    /**
+     * Sustituye todo el contenido de la tabla con un solo evento.
+     * @param nuevos Las entidades a mostrar.
+     */
+    public void setElements(List<T> nuevos) {
+        elementos.clear();
+        elementos.addAll(nuevos);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Sustituye la entidad de una fila.
+     * @param rowIndex El índice de la fila.
+     * @param elemento La entidad nueva.
+     */
+    public void setElement(int rowIndex, T elemento) {
+        elementos.set(rowIndex, elemento);
+        fireTableRowsUpdated(rowIndex, rowIndex);
+    }
+
+    /**
+     * Quita una fila de la tabla.
+     * @param rowIndex El índice de la fila.
+     */
+    public void removeElement(int rowIndex) {
+        elementos.remove(rowIndex);
+        fireTableRowsDeleted(rowIndex, rowIndex);
+    }
+
+    /**
+     * Modifica las entidades que cumplen una condición y avisa solo de sus filas.
+     * @param condicion La condición que deben cumplir las entidades.
+     * @param cambio La modificación que se aplica a cada una.
+     */
+    public void updateWhere(Predicate<T> condicion, Consumer<T> cambio) {
+        for (int i = 0; i < elementos.size(); i++) {
+            if (condicion.test(elementos.get(i))) {
+                cambio.accept(elementos.get(i));
+                fireTableRowsUpdated(i, i);
+            }
+        }
+    }
+
+    /**
+     * Sustituye el contenido de la tabla por la lista nueva avisando solo de las filas que cambian.
+     * Recorre las dos listas a la vez, como una mezcla ordenada: las filas con el mismo id se
+     * actualizan si la entidad ha cambiado, y las que solo están en una de las listas se quitan o
+     * se insertan. Las dos listas deben estar ordenadas por id; si no lo están, se sustituye todo.
+     * @param nuevos Las entidades a mostrar, ordenadas por id.
+     */
+    public void replaceElements(List<T> nuevos) {
+        if (!ordenadaPorId(elementos) || !ordenadaPorId(nuevos)) {
+            setElements(nuevos);
+            return;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < elementos.size() && j < nuevos.size()) {
+            T actual = elementos.get(i);
+            T nuevo = nuevos.get(j);
+            int idActual = id.applyAsInt(actual);
+            int idNuevo = id.applyAsInt(nuevo);
+            if (idActual == idNuevo) {
+                elementos.set(i, nuevo);
+                if (!actual.equals(nuevo)) {
+                    fireTableRowsUpdated(i, i);
+                }
+                i++;
+                j++;
+            } else if (idActual < idNuevo) {
+                elementos.remove(i);
+                fireTableRowsDeleted(i, i);
+            } else {
+                elementos.add(i, nuevo);
+                fireTableRowsInserted(i, i);
+                i++;
+                j++;
+            }
+        }
+        if (i < elementos.size()) {
+            int ultima = elementos.size() - 1;
+            elementos.subList(i, elementos.size()).clear();
+            fireTableRowsDeleted(i, ultima);
+        }
+        if (j < nuevos.size()) {
+            addElements(nuevos.subList(j, nuevos.size()));
+        }
+    }
+
+    /**
+     * Comprueba si una lista de entidades está ordenada por id de forma estrictamente creciente.
+     * @param lista La lista a comprobar.
+     * @return true si está ordenada.
+     */
+    private boolean ordenadaPorId(List<T> lista) {
+        for (int i = 1; i < lista.size(); i++) {
+            if (id.applyAsInt(lista.get(i - 1)) >= id.applyAsInt(lista.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import com.felipe.tiendavideojuegos.gui.enums.TipoInforme;
+import com.felipe.tiendavideojuegos.informes.FilaInforme;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InformeTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNAS = {"", "Unidades", "Ingresos", "Tickets"};
+
+    private TipoInforme tipo = TipoInforme.POR_VIDEOJUEGO;
+    private List<FilaInforme> filas = new ArrayList<>();
+
+    @Override
+    public int getRowCount() {
+        return filas.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column == 0 ? tipo.getColumna() : COLUMNAS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        switch (columnIndex) {
+            case 1:
+            case 3:
+                return Long.class;
+            case 2:
+                return Double.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        FilaInforme fila = filas.get(rowIndex);
+        switch (columnIndex) {
+            case 0:
+                return fila.getGrupo();
+            case 1:
+                return fila.getUnidades();
+            case 2:
+                return Math.round(fila.getIngresos() * 100) / 100.0;
+            case 3:
+                return fila.getTickets();
+            default:
+                return null;
+        }
+    }
+
+    public void setFilas(TipoInforme tipo, List<FilaInforme> filas) {
+        boolean cambiaColumna = this.tipo != tipo;
+        this.tipo = tipo;
+        this.filas = filas;
+        if (cambiaColumna) {
+            fireTableStructureChanged();
+        } else {
+            fireTableDataChanged();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import com.felipe.tiendavideojuegos.util.Pagina;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Clase PerezosoTableModel muestra una tabla de entidades sin tenerlas todas en memoria.
+ * Solo conoce el número total de filas; las filas se leen por bloques de tamaño fijo cuando
+ * la tabla pide pintar una fila que no está cargada, y mientras llega el bloque las celdas
+ * se muestran vacías. Al avanzar por la tabla se pide también el bloque siguiente en el sentido
+ * del scroll, y cuando hay demasiados bloques en memoria se descarta el que lleva más tiempo sin usarse.
+ * Las filas deben estar ordenadas por id, como las devuelven las consultas paginadas de Modelo.
+ * Todos los métodos deben llamarse desde el EDT.
+ * @param <T> El tipo de entidad de cada fila.
+ */
+public class PerezosoTableModel<T> extends AbstractTableModel {
+
+    private final String[] columnas;
+    private final ToIntFunction<T> id;
+    private final BiFunction<T, Integer, Object> valor;
+    private final int tamanoBloque;
+    private final Map<Integer, Pagina<T>> bloques;
+    private final Set<Integer> pendientes;
+
+    private CargadorBloques<T> cargador;
+    private int filas;
+    private int generacion;
+    private int ultimoBloque;
+    private int direccion = 1;
+
+    /**
+     * Constructor de la clase PerezosoTableModel. La tabla empieza vacía hasta llamar a {@link #reiniciar(long)}.
+     * @param columnas Los nombres de las columnas.
+     * @param id La función que obtiene el id de una entidad.
+     * @param valor La función que obtiene el valor de una columna de una entidad.
+     * @param tamanoBloque El número de filas de cada bloque.
+     * @param maximoBloques El número máximo de bloques que se mantienen en memoria.
+     */
+    public PerezosoTableModel(String[] columnas, ToIntFunction<T> id, BiFunction<T, Integer, Object> valor,
+                              int tamanoBloque, int maximoBloques) {
+        this.columnas = columnas;
+        this.id = id;
+        this.valor = valor;
+        this.tamanoBloque = tamanoBloque;
+        this.pendientes = new HashSet<>();
+        // Ordenado por acceso: el primer bloque es el que lleva más tiempo sin pintarse
+        this.bloques = new LinkedHashMap<Integer, Pagina<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Pagina<T>> mayor) {
+                return size() > maximoBloques;
+            }
+        };
+    }
+
+    /**
+     * Indica cómo se leen los bloques de la base de datos.
+     * @param cargador El cargador de bloques.
+     */
+    public void setCargador(CargadorBloques<T> cargador) {
+        this.cargador = cargador;
+    }
+
+    /**
+     * Descarta todos los bloques cargados y fija el nuevo número de filas.
+     * Los bloques que estuvieran de camino se ignoran al llegar.
+     * @param total El número total de filas, normalmente obtenido con una consulta COUNT.
+     */
+    public void reiniciar(long total) {
+        generacion++;
+        bloques.clear();
+        pendientes.clear();
+        filas = (int) Math.min(total, Integer.MAX_VALUE);
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnas[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        T elemento = getElementAt(rowIndex);
+        return elemento == null ? null : valor.apply(elemento, columnIndex);
+    }
+
+    /**
+     * Obtiene la entidad de una fila. Si su bloque no está cargado, lo pide y devuelve null;
+     * la tabla se repinta cuando llega el bloque.
+     * @param rowIndex El índice de la fila.
+     * @return La entidad, o null si todavía no está cargada.
+     */
+    public T getElementAt(int rowIndex) {
+        int bloque = rowIndex / tamanoBloque;
+        if (bloque != ultimoBloque) {
+            direccion = bloque > ultimoBloque ? 1 : -1;
+            ultimoBloque = bloque;
+            solicitar(bloque + direccion);
+        }
+        Pagina<T> pagina = bloques.get(bloque);
+        if (pagina == null) {
+            solicitar(bloque);
+            return null;
+        }
+        List<T> elementos = pagina.getElementos();
+        int posicion = rowIndex - bloque * tamanoBloque;
+        return posicion < elementos.size() ? elementos.get(posicion) : null;
+    }
+
+    /**
+     * Busca la fila de una entidad por su id entre los bloques cargados.
+     * @param idBuscado El id de la entidad.
+     * @return El índice de la fila, o -1 si no está cargada.
+     */
+    public int indexOfId(int idBuscado) {
+        for (Map.Entry<Integer, Pagina<T>> entrada : bloques.entrySet()) {
+            List<T> elementos = entrada.getValue().getElementos();
+            for (int i = 0; i < elementos.size(); i++) {
+                if (id.applyAsInt(elementos.get(i)) == idBuscado) {
+                    return entrada.getKey() * tamanoBloque + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Añade una entidad nueva al final de la tabla, solo si su id es mayor que el de la última fila.
+     * Los ids se reservan por bloques en cada instancia de la aplicación, así que una entidad nueva
+     * puede tener un id menor que otras que ya ha insertado otra instancia; en ese caso, o si la última
+     * fila no está cargada y no se conoce su id, no se añade y hay que volver a contar la tabla.
+     * La entidad se añade al último bloque si está cargado y le queda sitio; si no, se leerá con su bloque.
+     * @param elemento La entidad nueva.
+     * @return true si se ha añadido al final, false si no se sabe en qué fila va.
+     */
+    public boolean insertar(T elemento) {
+        int fila = filas;
+        if (fila > 0) {
+            int bloqueUltima = (fila - 1) / tamanoBloque;
+            Pagina<T> paginaUltima = bloques.get(bloqueUltima);
+            int posicion = fila - 1 - bloqueUltima * tamanoBloque;
+            if (paginaUltima == null || posicion >= paginaUltima.getElementos().size()
+                    || id.applyAsInt(paginaUltima.getElementos().get(posicion)) >= id.applyAsInt(elemento)) {
+                return false;
+            }
+        }
+        int bloque = fila / tamanoBloque;
+        Pagina<T> pagina = bloques.get(bloque);
+        if (pagina != null && pagina.getElementos().size() == fila - bloque * tamanoBloque) {
+            pagina.getElementos().add(elemento);
+        }
+        filas++;
+        fireTableRowsInserted(fila, fila);
+        return true;
+    }
+
+    /**
+     * Sustituye una entidad modificada si está cargada.
+     * @param elemento La entidad modificada.
+     */
+    public void actualizar(T elemento) {
+        int fila = indexOfId(id.applyAsInt(elemento));
+        if (fila != -1) {
+            int bloque = fila / tamanoBloque;
+            bloques.get(bloque).getElementos().set(fila - bloque * tamanoBloque, elemento);
+            fireTableRowsUpdated(fila, fila);
+        }
+    }
+
+    /**
+     * Quita una entidad de la tabla. Las filas posteriores se desplazan, así que se descartan
+     * su bloque y los siguientes, que se volverán a leer al pintarlos.
+     * @param idBorrado El id de la entidad borrada.
+     * @return true si la entidad estaba cargada y se ha quitado, false si no se conoce su fila.
+     */
+    public boolean eliminar(int idBorrado) {
+        int fila = indexOfId(idBorrado);
+        if (fila == -1) {
+            return false;
+        }
+        int bloque = fila / tamanoBloque;
+        generacion++;
+        bloques.keySet().removeIf(numero -> numero >= bloque);
+        pendientes.clear();
+        filas--;
+        fireTableRowsDeleted(fila, fila);
+        return true;
+    }
+
+    /**
+     * Modifica las entidades cargadas que cumplen una condición y avisa solo de sus filas.
+     * @param condicion La condición que deben cumplir las entidades.
+     * @param cambio La modificación que se aplica a cada una.
+     */
+    public void updateWhere(Predicate<T> condicion, Consumer<T> cambio) {
+        for (Map.Entry<Integer, Pagina<T>> entrada : bloques.entrySet()) {
+            List<T> elementos = entrada.getValue().getElementos();
+            for (int i = 0; i < elementos.size(); i++) {
+                if (condicion.test(elementos.get(i))) {
+                    cambio.accept(elementos.get(i));
+                    int fila = entrada.getKey() * tamanoBloque + i;
+                    fireTableRowsUpdated(fila, fila);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pide un bloque al cargador si existe, no está cargado y no se ha pedido ya.
+     * Si el bloque anterior está cargado, la consulta continúa desde su último id;
+     * si no, salta hasta la primera fila del bloque.
+     * @param bloque El número de bloque.
+     */
+    private void solicitar(int bloque) {
+        if (cargador == null || bloque < 0 || bloque * (long) tamanoBloque >= filas
+                || bloques.containsKey(bloque) || !pendientes.add(bloque)) {
+            return;
+        }
+        int generacionPedida = generacion;
+        Pagina<T> anterior = bloques.get(bloque - 1);
+        cargador.cargar(bloque * tamanoBloque, anterior, tamanoBloque, pagina -> {
+            if (generacionPedida != generacion) {
+                return;
+            }
+            pendientes.remove(bloque);
+            bloques.put(bloque, pagina);
+            int primera = bloque * tamanoBloque;
+            int ultima = Math.min(filas, primera + tamanoBloque) - 1;
+            if (ultima >= primera) {
+                fireTableRowsUpdated(primera, ultima);
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import com.felipe.tiendavideojuegos.base.Puntuacion;
+
+public class PuntuacionesTableModel extends EntidadesTableModel<Puntuacion> {
+
+    public static final String[] COLUMNAS = {"ID", "Juego", "Fuente", "Nota", "Fecha"};
+
+    public PuntuacionesTableModel() {
+        super(COLUMNAS, Puntuacion::getId, PuntuacionesTableModel::getValor);
+    }
+
+    public static Object getValor(Puntuacion unaPuntuacion, int columnIndex) {
+        switch (columnIndex) {
+            case 0:
+                return unaPuntuacion.getId();
+            case 1:
+                return unaPuntuacion.getJuego();
+            case 2:
+                return unaPuntuacion.getFuente();
+            case 3:
+                return unaPuntuacion.getNotaVideojuego();
+            case 4:
+                return unaPuntuacion.getFechaNota();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.felipe.tiendavideojuegos.tables;
+
+import com.felipe.tiendavideojuegos.base.Usuario;
+
+public class UsuariosTableModel extends EntidadesTableModel<Usuario> {
+
+    public static final String[] COLUMNAS = {"ID", "Nombre", "Apellidos", "DNI", "Dirección", "Email", "Teléfono", "Tickets", "Gasto",
+            "Última compra"};
+
+    public UsuariosTableModel() {
+        super(COLUMNAS, Usuario::getId, UsuariosTableModel::getValor);
+    }
+
+    public static Object getValor(Usuario unUsuario, int columnIndex) {
+        switch (columnIndex) {
+            case 0:
+                return unUsuario.getId();
+            case 1:
+                return unUsuario.getNombre();
+            case 2:
+                return unUsuario.getApellidos();
+            case 3:
+                return unUsuario.getDni();
+            case 4:
+                return unUsuario.getDireccion();
+            case 5:
+                return unUsuario.getEmail();
+            case 6:
+                return unUsuario.getTelefono();
+            case 7:
+                return unUsuario.getNumTickets();
+            case 8:
+                return Math.round(unUsuario.getGastoTotal() * 100) / 100.0;
+            case 9:
+                return unUsuario.getUltimaCompra();
+            default:
+                return null;
+        }
+    }
+}
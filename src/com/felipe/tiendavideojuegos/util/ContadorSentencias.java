@@ -0,0 +1,32 @@
+package com.felipe.tiendavideojuegos.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Clase ContadorSentencias cuenta las sentencias SQL que Hibernate prepara en una sesión.
+ * Se registra al abrir la sesión y permite comprobar que un listado ejecuta un número
+ * constante de consultas, independientemente del número de filas que devuelva.
+ */
+public class ContadorSentencias implements StatementInspector {
+
+    private int sentencias;
+
+    /**
+     * Cuenta la sentencia y la devuelve sin modificar.
+     * @param sql La sentencia SQL que se va a preparar.
+     * @return La misma sentencia SQL.
+     */
+    @Override
+    public String inspect(String sql) {
+        sentencias++;
+        return sql;
+    }
+
+    /**
+     * Obtiene el número de sentencias preparadas desde que se abrió la sesión.
+     * @return El número de sentencias SQL.
+     */
+    public int getSentencias() {
+        return sentencias;
+    }
+}
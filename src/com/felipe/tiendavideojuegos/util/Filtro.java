@@ -0,0 +1,82 @@
+package com.felipe.tiendavideojuegos.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase Filtro representa las condiciones y el orden con los que se consulta una tabla en la base de datos.
+ * Cada subclase traduce sus campos a condiciones HQL sobre el alias "e" de la entidad, de modo que el
+ * filtrado y la ordenación los hace la base de datos con sus índices y solo viajan las filas que se muestran.
+ * Un filtro no debe modificarse después de pasarlo a una consulta en segundo plano; para cambiarlo se crea otro.
+ */
+public abstract class Filtro {
+
+    private String ordenarPor = "id";
+    private boolean descendente;
+
+    /**
+     * Obtiene el campo por el que se ordena.
+     * @return El nombre del atributo de la entidad.
+     */
+    public String getOrdenarPor() {
+        return ordenarPor;
+    }
+
+    /**
+     * Establece el campo por el que se ordena. Debe ser un atributo simple y no nulo de la entidad,
+     * ya que las páginas siguientes se piden a partir del valor del último elemento.
+     * @param ordenarPor El nombre del atributo de la entidad.
+     */
+    public void setOrdenarPor(String ordenarPor) {
+        this.ordenarPor = ordenarPor;
+    }
+
+    /**
+     * Indica si se ordena de mayor a menor.
+     * @return true si el orden es descendente.
+     */
+    public boolean isDescendente() {
+        return descendente;
+    }
+
+    /**
+     * Establece si se ordena de mayor a menor.
+     * @param descendente true para ordenar de forma descendente.
+     */
+    public void setDescendente(boolean descendente) {
+        this.descendente = descendente;
+    }
+
+    /**
+     * Indica si el filtro no restringe ni reordena las filas, es decir, si la consulta devuelve
+     * todas las filas ordenadas por id de menor a mayor.
+     * @return true si no hay condiciones y el orden es el natural.
+     */
+    public boolean estaVacio() {
+        return !tieneCondiciones() && ordenarPor.equals("id") && !descendente;
+    }
+
+    /**
+     * Indica si el filtro tiene alguna condición.
+     * @return true si alguna condición restringe las filas.
+     */
+    protected abstract boolean tieneCondiciones();
+
+    /**
+     * Añade las condiciones del filtro a una consulta.
+     * @param condiciones La lista donde se añaden las condiciones HQL, que se unen con AND.
+     * @param parametros El mapa donde se añaden los valores de los parámetros de las condiciones.
+     */
+    public abstract void anadirCondiciones(List<String> condiciones, Map<String, Object> parametros);
+
+    /**
+     * Convierte un texto en el patrón LIKE que busca los valores que empiezan por él. Los comodines
+     * del texto se escapan con "!", así que la condición debe incluir ESCAPE '!'. Al buscar por prefijo,
+     * la base de datos puede usar el índice de la columna.
+     * @param texto El texto buscado.
+     * @return El patrón LIKE.
+     */
+    public static String prefijo(String texto) {
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
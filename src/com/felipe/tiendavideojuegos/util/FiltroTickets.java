@@ -0,0 +1,88 @@
+package com.felipe.tiendavideojuegos.util;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase FiltroTickets filtra la tabla de compras por un rango de fechas, por el usuario
+ * (principio del DNI o de los apellidos, o su id) y por la forma de pago. Los campos a null no filtran.
+ */
+public class FiltroTickets extends Filtro {
+
+    private Date fechaDesde;
+    private Date fechaHasta;
+    private String usuario;
+    private Integer idUsuario;
+    private String formaPago;
+
+    public Date getFechaDesde() {
+        return fechaDesde;
+    }
+
+    public void setFechaDesde(Date fechaDesde) {
+        this.fechaDesde = fechaDesde;
+    }
+
+    public Date getFechaHasta() {
+        return fechaHasta;
+    }
+
+    public void setFechaHasta(Date fechaHasta) {
+        this.fechaHasta = fechaHasta;
+    }
+
+    public String getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(String usuario) {
+        this.usuario = usuario;
+    }
+
+    public Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    public void setIdUsuario(Integer idUsuario) {
+        this.idUsuario = idUsuario;
+    }
+
+    public String getFormaPago() {
+        return formaPago;
+    }
+
+    public void setFormaPago(String formaPago) {
+        this.formaPago = formaPago;
+    }
+
+    @Override
+    protected boolean tieneCondiciones() {
+        return fechaDesde != null || fechaHasta != null || usuario != null || idUsuario != null || formaPago != null;
+    }
+
+    @Override
+    public void anadirCondiciones(List<String> condiciones, Map<String, Object> parametros) {
+        if (fechaDesde != null) {
+            condiciones.add("e.fechaTicket >= :fechaDesde");
+            parametros.put("fechaDesde", fechaDesde);
+        }
+        if (fechaHasta != null) {
+            condiciones.add("e.fechaTicket <= :fechaHasta");
+            parametros.put("fechaHasta", fechaHasta);
+        }
+        if (usuario != null) {
+            condiciones.add("e.usuario IN (SELECT u FROM Usuario u WHERE u.dni LIKE :usuario ESCAPE '!'"
+                    + " OR u.apellidos LIKE :usuario ESCAPE '!')");
+            parametros.put("usuario", prefijo(usuario));
+        }
+        if (idUsuario != null) {
+            condiciones.add("e.usuario.id = :idUsuario");
+            parametros.put("idUsuario", idUsuario);
+        }
+        if (formaPago != null) {
+            condiciones.add("e.formaPago = :formaPago");
+            parametros.put("formaPago", formaPago);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.felipe.tiendavideojuegos.util;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase FiltroVideojuegos filtra la tabla de videojuegos por el principio del título, el género,
+ * la plataforma, un rango de precios y un rango de fechas de lanzamiento. Los campos a null no filtran.
+ */
+public class FiltroVideojuegos extends Filtro {
+
+    private String titulo;
+    private String genero;
+    private String plataforma;
+    private Double precioMinimo;
+    private Double precioMaximo;
+    private Date lanzamientoDesde;
+    private Date lanzamientoHasta;
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getGenero() {
+        return genero;
+    }
+
+    public void setGenero(String genero) {
+        this.genero = genero;
+    }
+
+    public String getPlataforma() {
+        return plataforma;
+    }
+
+    public void setPlataforma(String plataforma) {
+        this.plataforma = plataforma;
+    }
+
+    public Double getPrecioMinimo() {
+        return precioMinimo;
+    }
+
+    public void setPrecioMinimo(Double precioMinimo) {
+        this.precioMinimo = precioMinimo;
+    }
+
+    public Double getPrecioMaximo() {
+        return precioMaximo;
+    }
+
+    public void setPrecioMaximo(Double precioMaximo) {
+        this.precioMaximo = precioMaximo;
+    }
+
+    public Date getLanzamientoDesde() {
+        return lanzamientoDesde;
+    }
+
+    public void setLanzamientoDesde(Date lanzamientoDesde) {
+        this.lanzamientoDesde = lanzamientoDesde;
+    }
+
+    public Date getLanzamientoHasta() {
+        return lanzamientoHasta;
+    }
+
+    public void setLanzamientoHasta(Date lanzamientoHasta) {
+        this.lanzamientoHasta = lanzamientoHasta;
+    }
+
+    @Override
+    protected boolean tieneCondiciones() {
+        return titulo != null || genero != null || plataforma != null || precioMinimo != null
+                || precioMaximo != null || lanzamientoDesde != null || lanzamientoHasta != null;
+    }
+
+    @Override
+    public void anadirCondiciones(List<String> condiciones, Map<String, Object> parametros) {
+        if (titulo != null) {
+            condiciones.add("e.titulo LIKE :titulo ESCAPE '!'");
+            parametros.put("titulo", prefijo(titulo));
+        }
+        if (genero != null) {
+            condiciones.add("e.genero = :genero");
+            parametros.put("genero", genero);
+        }
+        if (plataforma != null) {
+            condiciones.add("e.plataforma = :plataforma");
+            parametros.put("plataforma", plataforma);
+        }
+        if (precioMinimo != null) {
+            condiciones.add("e.precio >= :precioMinimo");
+            parametros.put("precioMinimo", precioMinimo);
+        }
+        if (precioMaximo != null) {
+            condiciones.add("e.precio <= :precioMaximo");
+            parametros.put("precioMaximo", precioMaximo);
+        }
+        if (lanzamientoDesde != null) {
+            condiciones.add("e.fechaLanzamiento >= :lanzamientoDesde");
+            parametros.put("lanzamientoDesde", lanzamientoDesde);
+        }
+        if (lanzamientoHasta != null) {
+            condiciones.add("e.fechaLanzamiento <= :lanzamientoHasta");
+            parametros.put("lanzamientoHasta", lanzamientoHasta);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.felipe.tiendavideojuegos.util;
+
+import java.util.List;
+
+/**
+ * Clase Pagina representa un bloque de resultados de una consulta paginada por cursor.
+ * Además de los elementos, guarda la posición del último elemento devuelto (valor del
+ * campo de ordenación e id) para poder pedir la página siguiente sin usar OFFSET.
+ * @param <T> El tipo de entidad que contiene la página.
+ */
+public class Pagina<T> {
+
+    private final List<T> elementos;
+    private final String ordenarPor;
+    private final Object ultimoValor;
+    private final int ultimoId;
+    private final boolean hayMas;
+
+    /**
+     * Constructor de la clase Pagina.
+     * @param elementos Los elementos de la página.
+     * @param ordenarPor El campo por el que se ha ordenado la consulta.
+     * @param ultimoValor El valor del campo de ordenación del último elemento.
+     * @param ultimoId El id del último elemento.
+     * @param hayMas Indica si existen más elementos después de esta página.
+     */
+    public Pagina(List<T> elementos, String ordenarPor, Object ultimoValor, int ultimoId, boolean hayMas) {
+        this.elementos = elementos;
+        this.ordenarPor = ordenarPor;
+        this.ultimoValor = ultimoValor;
+        this.ultimoId = ultimoId;
+        this.hayMas = hayMas;
+    }
+
+    /**
+     * Obtiene los elementos de la página.
+     * @return La lista de elementos.
+     */
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Obtiene el campo por el que se ordenan las páginas.
+     * @return El nombre del campo de ordenación.
+     */
+    public String getOrdenarPor() {
+        return ordenarPor;
+    }
+
+    /**
+     * Obtiene el valor del campo de ordenación del último elemento de la página.
+     * @return El valor del cursor.
+     */
+    public Object getUltimoValor() {
+        return ultimoValor;
+    }
+
+    /**
+     * Obtiene el id del último elemento de la página.
+     * @return El id del cursor, o 0 si todavía no se ha leído ningún elemento.
+     */
+    public int getUltimoId() {
+        return ultimoId;
+    }
+
+    /**
+     * Indica si quedan más elementos por cargar después de esta página.
+     * @return true si hay más páginas, false si es la última.
+     */
+    public boolean hayMas() {
+        return hayMas;
+    }
+}
@@ -13,7 +13,7 @@ public class Util {
      * @param mensaje el mensaje que se mostrará en el cuadro de diálogo.
      */
     public static void showErrorAlert(String mensaje) {
-        JOptionPane.showMessageDialog(null, mensaje, "Error", JOptionPane.ERROR_MESSAGE);
+        mostrarAlerta(mensaje, "Error", JOptionPane.ERROR_MESSAGE);
     }
 
     /**
@@ -21,7 +21,7 @@ public class Util {
      * @param mensaje el mensaje que se mostrará en el cuadro de diálogo.
      */
     public static void showWarningAlert(String mensaje) {
-        JOptionPane.showMessageDialog(null, mensaje, "Aviso", JOptionPane.WARNING_MESSAGE);
+        mostrarAlerta(mensaje, "Aviso", JOptionPane.WARNING_MESSAGE);
     }
 
     /**
@@ -29,30 +29,21 @@ public class Util {
      * @param mensaje el mensaje que se mostrará en el cuadro de diálogo.
      */
     public static void showInfoAlert(String mensaje) {
-        JOptionPane.showMessageDialog(null, mensaje, "Información", JOptionPane.INFORMATION_MESSAGE);
+        mostrarAlerta(mensaje, "Información", JOptionPane.INFORMATION_MESSAGE);
     }
 
     /**
-     * Genera el siguiente código de ticket en la secuencia.
-     *
-     * @param ultimoCodigo El último código generado en formato "A001" a "Z999".
-     * @return El siguiente código en la secuencia.
-     * @throws IllegalStateException si se han agotado los códigos disponibles.
+     * Muestra un cuadro de diálogo en el hilo de eventos de Swing, aunque se llame desde otro hilo.
+     * @param mensaje el mensaje que se mostrará en el cuadro de diálogo.
+     * @param titulo el título del cuadro de diálogo.
+     * @param tipo el tipo de mensaje de {@link JOptionPane}.
      */
-    public static String generarTicket(String ultimoCodigo) {
-        char letra = ultimoCodigo.charAt(0);
-        int numero = Integer.parseInt(ultimoCodigo.substring(1));
-
-        numero++;
-        if (numero > 999) {
-            numero = 1;
-            letra++;
-            if (letra > 'Z') {
-                throw new IllegalStateException("Se han agotado los tickets disponibles");
-            }
+    private static void mostrarAlerta(String mensaje, String titulo, int tipo) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            JOptionPane.showMessageDialog(null, mensaje, titulo, tipo);
+        } else {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, mensaje, titulo, tipo));
         }
-
-        return String.format("%c%03d", letra, numero);
     }
 }
 